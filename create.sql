@@ -3,7 +3,41 @@ create sequence hibernate_sequence start with 1 increment by 1
     create table GameResult (
        id bigint not null,
         duration bigint not null,
+        opponent varchar(255),
+        playedAt timestamp,
         player varchar(255) not null,
         rounds integer not null,
+        winnerType varchar(255),
         primary key (id)
     )
+
+    create table PlayerStats (
+       player varchar(255) not null,
+        bestTime bigint,
+        dogWins integer not null,
+        foxWins integer not null,
+        games integer not null,
+        totalRounds bigint not null,
+        primary key (player)
+    )
+
+    create table ResultBucket (
+       id bigint not null,
+        bestDuration bigint,
+        bestRounds integer not null,
+        bucketStart timestamp not null,
+        games integer not null,
+        player varchar(255),
+        totalRounds bigint not null,
+        winnerType varchar(255),
+        primary key (id)
+    )
+create index idx_result_rounds on GameResult (rounds, duration, id)
+create index idx_result_duration on GameResult (duration, rounds, id)
+create index idx_result_side_rounds on GameResult (winnerType, rounds, duration, id)
+create index idx_result_side_duration on GameResult (winnerType, duration, rounds, id)
+create index idx_result_played_at on GameResult (playedAt)
+create index idx_bucket_player on ResultBucket (player, bucketStart)
+
+    alter table ResultBucket
+       add constraint UKdwtw6hgx3v7y0ilrmjbgfrh4b unique (bucketStart, player, winnerType)
@@ -1,17 +1,31 @@
 package chasegame;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Optional;
 
+import chasegame.broadcast.SpectatorServer;
+import chasegame.controller.GameJournal;
+import chasegame.controller.HintService;
+import chasegame.controller.SceneNavigator;
+import chasegame.events.EventStatistics;
+import chasegame.events.EventTrace;
+import chasegame.events.GameEventBus;
+import chasegame.results.CacheMetrics;
 import chasegame.results.GameResultDao;
+import chasegame.results.LeaderboardService;
+import chasegame.results.PlayerStatsDao;
+import chasegame.results.ResultBucketDao;
+import chasegame.results.ResultCompactor;
+import chasegame.results.RetentionPolicy;
+import chasegame.results.SchemaMigration;
 import com.gluonhq.ignite.guice.GuiceContext;
 import com.google.inject.AbstractModule;
 import dbutils.guice.PersistenceModule;
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
+import org.tinylog.Logger;
 
 import javax.inject.Inject;
 
@@ -20,29 +34,104 @@ import javax.inject.Inject;
  */
 
 public class GameApplication extends Application {
+
+    private static final long DRAIN_MILLIS = 5000;
+
     private GuiceContext context = new GuiceContext(this, () -> List.of(
             new AbstractModule() {
                 @Override
                 protected void configure() {
                     install(new PersistenceModule("chase-game"));
                     bind(GameResultDao.class);
+                    bind(PlayerStatsDao.class);
+                    bind(LeaderboardService.class);
+                    bind(ResultBucketDao.class);
                 }
             }
     ));
 
     @Inject
-    private FXMLLoader fxmlLoader;
+    private SceneNavigator sceneNavigator;
+
+    @Inject
+    private SchemaMigration schemaMigration;
+
+    @Inject
+    private ResultCompactor resultCompactor;
+
+    @Inject
+    private CacheMetrics cacheMetrics;
+
+    @Inject
+    private HintService hintService;
+
+    @Inject
+    private GameJournal gameJournal;
+
+    @Inject
+    private GameEventBus gameEventBus;
+
+    @Inject
+    private EventStatistics eventStatistics;
+
+    private Optional<EventTrace> eventTrace = Optional.empty();
+
+    private Optional<GameEventBus.Subscription> traceSubscription = Optional.empty();
+
+    private boolean eventsClosed;
+
+    private Optional<SpectatorServer> spectatorServer = Optional.empty();
 
     @Override
     public void start(Stage stage) throws IOException {
         context.init();
-        fxmlLoader.setLocation(getClass().getResource("/fxml/landing.fxml"));
-        Parent root = fxmlLoader.load();
+        schemaMigration.migrate();
+        RetentionPolicy.fromSystemProperties().ifPresent(policy -> {
+            resultCompactor.setPolicy(policy);
+            resultCompactor.start(Duration.ofHours(1));
+        });
+        cacheMetrics.register();
+        gameEventBus.subscribe("statistics", eventStatistics, 64, true);
+        eventTrace = EventTrace.fromSystemProperty();
+        traceSubscription = eventTrace.map(trace -> gameEventBus.subscribe("trace", trace, 1024, false));
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeEvents, "events-shutdown"));
+        spectatorServer = SpectatorServer.fromSystemProperty();
+        spectatorServer.ifPresent(server -> gameEventBus.subscribe("spectators", server, 256, false));
+        var unfinished = gameJournal.start();
+        sceneNavigator.init(stage);
+        unfinished.ifPresent(sceneNavigator::showResumedGame);
         stage.setTitle("JavaFX Board Game Example");
-        Scene scene = new Scene(root);
-        stage.setScene(scene);
         stage.setResizable(false);
         stage.show();
     }
 
+    @Override
+    public void stop() {
+        resultCompactor.stop();
+        hintService.shutdown();
+        gameJournal.close();
+        closeEvents();
+        eventStatistics.log();
+        cacheMetrics.log();
+    }
+
+    /**
+     * Lets the trace write the last events, then stops the event subscribers. Runs when the application
+     * stops, or from a shutdown hook if the JVM exits without stopping it.
+     */
+    private synchronized void closeEvents() {
+        if (eventsClosed) {
+            return;
+        }
+        eventsClosed = true;
+        traceSubscription.ifPresent(subscription -> {
+            if (!subscription.drain(DRAIN_MILLIS)) {
+                Logger.warn("Trace missed the last {} events", subscription.getLag());
+            }
+        });
+        gameEventBus.close();
+        eventTrace.ifPresent(EventTrace::close);
+        spectatorServer.ifPresent(SpectatorServer::close);
+    }
+
 }
@@ -0,0 +1,209 @@
+package chasegame.analysis;
+
+import chasegame.engine.BitboardMoveGenerator;
+import chasegame.engine.Evaluator;
+import chasegame.engine.MoveGenerator;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.tinylog.Logger;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Answers questions about large arrays of states encoded by {@link PackedState}.
+ * Results are written to arrays parallel to the input, and the work is split over the cores with
+ * fork-join.
+ */
+public class BatchAnalyzer {
+
+    /**
+     * Score of a won position, from the point of view of the fox. Faster wins score higher.
+     */
+    public static final float WIN_SCORE = 1000;
+
+    private static final int THRESHOLD = 1 << 13;
+    private static final int SEARCH_THRESHOLD = 1 << 6;
+
+    private final MoveGenerator generator;
+    private final Evaluator evaluator;
+    private final int depth;
+    private final ForkJoinPool pool;
+
+    /**
+     * Results of {@link #analyze(long[])}, each array indexed like the input states.
+     * @param legalMoves bit masks of the legal packed moves.
+     * @param status {@link GameModel.GameStatus} ordinals.
+     * @param bestMoves best packed moves, or -1 for finished games.
+     * @param scores scores of the best moves, from the point of view of the fox.
+     */
+    public record Result(int[] legalMoves, byte[] status, int[] bestMoves, float[] scores) {
+    }
+
+    /**
+     * Creates an analyzer on the common fork-join pool.
+     * @param generator the move generation rules.
+     * @param evaluator evaluation of the leaves of the search.
+     * @param depth number of plies searched to find the best move.
+     */
+    public BatchAnalyzer(MoveGenerator generator, Evaluator evaluator, int depth) {
+        this(generator, evaluator, depth, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an analyzer.
+     * @param generator the move generation rules.
+     * @param evaluator evaluation of the leaves of the search.
+     * @param depth number of plies searched to find the best move.
+     * @param pool the pool running the work.
+     */
+    public BatchAnalyzer(MoveGenerator generator, Evaluator evaluator, int depth, ForkJoinPool pool) {
+        this.generator = generator;
+        this.evaluator = evaluator;
+        this.depth = depth;
+        this.pool = pool;
+    }
+
+    /**
+     * Computes the legal moves of every state.
+     * @param states the encoded states.
+     * @return bit masks of the legal packed moves.
+     */
+    public int[] legalMoves(long[] states) {
+        int[] out = new int[states.length];
+        pool.invoke(new RangeTask(0, states.length, THRESHOLD, (from, to) -> generator.legalMoves(states, from, to, out)));
+        return out;
+    }
+
+    /**
+     * Computes the status of every state.
+     * @param states the encoded states.
+     * @return {@link GameModel.GameStatus} ordinals.
+     */
+    public byte[] status(long[] states) {
+        byte[] out = new byte[states.length];
+        pool.invoke(new RangeTask(0, states.length, THRESHOLD, (from, to) -> generator.status(states, from, to, out)));
+        return out;
+    }
+
+    /**
+     * Searches the best move of every state.
+     * @param states the encoded states.
+     * @param moves array receiving the best packed moves, or -1 for finished games.
+     * @param scores array receiving the scores, from the point of view of the fox.
+     */
+    public void bestMoves(long[] states, int[] moves, float[] scores) {
+        pool.invoke(new RangeTask(0, states.length, SEARCH_THRESHOLD, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                bestMove(states[i], moves, scores, i);
+            }
+        }));
+    }
+
+    /**
+     * Computes every answer for every state.
+     * @param states the encoded states.
+     * @return the results.
+     */
+    public Result analyze(long[] states) {
+        int[] moves = new int[states.length];
+        float[] scores = new float[states.length];
+        bestMoves(states, moves, scores);
+        return new Result(legalMoves(states), status(states), moves, scores);
+    }
+
+    private void bestMove(long state, int[] moves, float[] scores, int index) {
+        var status = generator.status(state);
+        if (status != GameModel.GameStatus.IN_PROGRESS) {
+            moves[index] = -1;
+            scores[index] = terminalScore(status, depth);
+            return;
+        }
+        boolean fox = PackedState.isFoxToMove(state);
+        int legal = generator.legalMoves(state);
+        int best = -1;
+        float bestScore = fox ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+        while (legal != 0) {
+            int move = Integer.numberOfTrailingZeros(legal);
+            legal &= legal - 1;
+            float score = search(generator.play(state, move), depth - 1);
+            if (fox ? score > bestScore : score < bestScore) {
+                bestScore = score;
+                best = move;
+            }
+        }
+        moves[index] = best;
+        scores[index] = bestScore;
+    }
+
+    private float search(long state, int remaining) {
+        var status = generator.status(state);
+        if (status != GameModel.GameStatus.IN_PROGRESS) {
+            return terminalScore(status, remaining);
+        }
+        if (remaining <= 0) {
+            return (float) evaluator.evaluate(PackedState.square(state, 0), PackedState.dogMask(state));
+        }
+        boolean fox = PackedState.isFoxToMove(state);
+        int legal = generator.legalMoves(state);
+        float best = fox ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+        while (legal != 0) {
+            int move = Integer.numberOfTrailingZeros(legal);
+            legal &= legal - 1;
+            float score = search(generator.play(state, move), remaining - 1);
+            best = fox ? Math.max(best, score) : Math.min(best, score);
+        }
+        return best;
+    }
+
+    private static float terminalScore(GameModel.GameStatus status, int remaining) {
+        return status == GameModel.GameStatus.FOX_WON ? WIN_SCORE + remaining : -WIN_SCORE - remaining;
+    }
+
+    /**
+     * Generates states by random play from the start position.
+     * @param count number of states.
+     * @param seed seed of the random moves.
+     * @return the encoded states.
+     */
+    public static long[] randomStates(int count, long seed) {
+        var generator = new BitboardMoveGenerator();
+        var random = new SplittableRandom(seed);
+        long start = PackedState.of(new GameModel());
+        long[] states = new long[count];
+        long state = start;
+        for (int i = 0; i < count; i++) {
+            states[i] = state;
+            int legal = generator.legalMoves(state);
+            if (generator.status(state) != GameModel.GameStatus.IN_PROGRESS) {
+                state = start;
+                continue;
+            }
+            int pick = random.nextInt(Integer.bitCount(legal));
+            for (int j = 0; j < pick; j++) {
+                legal &= legal - 1;
+            }
+            state = generator.play(state, Integer.numberOfTrailingZeros(legal));
+        }
+        return states;
+    }
+
+    /**
+     * Measures the throughput of batch move generation.
+     * @param args number of states and rounds, both optional.
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long[] states = randomStates(count, 1);
+        var generator = MoveGenerator.forBatches();
+        Logger.info("Using {}", generator.getClass().getSimpleName());
+        var analyzer = new BatchAnalyzer(generator, Evaluator.DEFAULT, 2);
+        for (int round = 0; round < rounds; round++) {
+            long start = System.nanoTime();
+            analyzer.legalMoves(states);
+            long nanos = System.nanoTime() - start;
+            Logger.info("Move generation: {} positions/s", (long) (count * 1e9 / nanos));
+        }
+    }
+}
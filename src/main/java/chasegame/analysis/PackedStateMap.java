@@ -0,0 +1,84 @@
+package chasegame.analysis;
+
+import chasegame.model.PackedState;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Map from {@link PackedState} encoded states to {@code int} values in primitive arrays, such as the
+ * depth to mate of a tablebase or the visit counts of positions, taking 16 to 32 bytes per entry
+ * depending on how full the table is.
+ */
+public class PackedStateMap extends PackedStateTable {
+
+    /**
+     * Creates an empty map.
+     */
+    public PackedStateMap() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty map.
+     * @param expected the number of states held without growing.
+     */
+    public PackedStateMap(int expected) {
+        super(expected, true);
+    }
+
+    /**
+     * Returns the value of a state.
+     * @param state the encoded state.
+     * @param missing the value returned if the state is not in the map.
+     * @return the value.
+     */
+    public int getOrDefault(long state, int missing) {
+        int slot = slot(state);
+        return keys[slot] == 0 ? missing : values[slot];
+    }
+
+    /**
+     * Sets the value of a state.
+     * @param state the encoded state.
+     * @param value the new value.
+     */
+    public void put(long state, int value) {
+        int slot = slot(state);
+        if (keys[slot] == 0) {
+            slot = insert(slot, state);
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * Combines the value of a state with another value.
+     * @param state the encoded state.
+     * @param value the value stored if the state is not in the map, combined with the old value otherwise.
+     * @param function computes the new value from the old value and {@code value}.
+     * @return the new value.
+     */
+    public int merge(long state, int value, IntBinaryOperator function) {
+        int slot = slot(state);
+        if (keys[slot] == 0) {
+            slot = insert(slot, state);
+            values[slot] = value;
+            return value;
+        }
+        values[slot] = function.applyAsInt(values[slot], value);
+        return values[slot];
+    }
+
+    /**
+     * Removes a state.
+     * @param state the encoded state.
+     * @return true if the state was in the map.
+     */
+    public boolean remove(long state) {
+        int slot = slot(state);
+        if (keys[slot] == 0) {
+            return false;
+        }
+        delete(slot);
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package chasegame.analysis;
+
+import chasegame.model.PackedState;
+
+/**
+ * Set of {@link PackedState} encoded states in a primitive array, taking 11 to 21 bytes per state
+ * depending on how full the table is, for caches and queues of millions of positions.
+ */
+public class PackedStateSet extends PackedStateTable {
+
+    /**
+     * Creates an empty set.
+     */
+    public PackedStateSet() {
+        this(0);
+    }
+
+    /**
+     * Creates an empty set.
+     * @param expected the number of states held without growing.
+     */
+    public PackedStateSet(int expected) {
+        super(expected, false);
+    }
+
+    /**
+     * Adds a state.
+     * @param state the encoded state.
+     * @return true if the state was not in the set yet.
+     */
+    public boolean add(long state) {
+        int slot = slot(state);
+        if (keys[slot] != 0) {
+            return false;
+        }
+        insert(slot, state);
+        return true;
+    }
+
+    /**
+     * Removes a state.
+     * @param state the encoded state.
+     * @return true if the state was in the set.
+     */
+    public boolean remove(long state) {
+        int slot = slot(state);
+        if (keys[slot] == 0) {
+            return false;
+        }
+        delete(slot);
+        return true;
+    }
+}
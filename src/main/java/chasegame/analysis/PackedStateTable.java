@@ -0,0 +1,180 @@
+package chasegame.analysis;
+
+import chasegame.model.PackedState;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Hash table of {@link PackedState} keys in a primitive array, with open addressing and linear probing.
+ * An empty slot holds 0, which is never a valid state since it puts every piece on the same square.
+ * Removal shifts the following entries of the cluster back instead of leaving tombstones, so lookups
+ * never probe past deleted entries. The table grows when it is three quarters full. Not thread safe.
+ */
+abstract class PackedStateTable {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    long[] keys;
+    int[] values;
+    private int size;
+    private int mask;
+
+    /**
+     * Creates a table.
+     * @param expected the number of states stored without growing.
+     * @param withValues true to keep an {@code int} value with every state.
+     */
+    PackedStateTable(int expected, boolean withValues) {
+        if (expected < 0) {
+            throw new IllegalArgumentException();
+        }
+        int capacity = MIN_CAPACITY;
+        while (capacity < MAX_CAPACITY && capacity - (capacity >> 2) < expected) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        values = withValues ? new int[capacity] : null;
+        mask = capacity - 1;
+    }
+
+    /**
+     * Finds the slot of a state.
+     * @param state the encoded state, not 0.
+     * @return the slot holding the state, or the empty slot where it belongs.
+     */
+    final int slot(long state) {
+        if (state == 0) {
+            throw new IllegalArgumentException("0 is not a state");
+        }
+        int slot = hash(state) & mask;
+        while (keys[slot] != 0 && keys[slot] != state) {
+            slot = slot + 1 & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Stores a state in the empty slot returned by {@link #slot(long)}, growing the table when full.
+     * @param slot the empty slot.
+     * @param state the state.
+     * @return the slot of the state, different from {@code slot} if the table grew.
+     */
+    final int insert(int slot, long state) {
+        keys[slot] = state;
+        size++;
+        if (size > keys.length - (keys.length >> 2)) {
+            grow();
+            return slot(state);
+        }
+        return slot;
+    }
+
+    /**
+     * Removes the state of a slot and closes the gap in its cluster.
+     * @param slot a slot holding a state.
+     */
+    final void delete(int slot) {
+        int gap = slot;
+        for (int next = gap + 1 & mask; keys[next] != 0; next = next + 1 & mask) {
+            int home = hash(keys[next]) & mask;
+            // The entry may move back to the gap if its home slot is not between the gap and itself.
+            if ((next - home & mask) >= (next - gap & mask)) {
+                keys[gap] = keys[next];
+                if (values != null) {
+                    values[gap] = values[next];
+                }
+                gap = next;
+            }
+        }
+        keys[gap] = 0;
+        size--;
+    }
+
+    private void grow() {
+        if (keys.length == MAX_CAPACITY) {
+            throw new IllegalStateException("Table is full");
+        }
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = oldValues == null ? null : new int[keys.length];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                if (oldValues != null) {
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Spreads the bits of a state, whose low bits alone differ little between positions.
+     * @param state the encoded state.
+     * @return the hash.
+     */
+    private static int hash(long state) {
+        long z = (state ^ (state >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (z ^ (z >>> 33));
+    }
+
+    /**
+     * Returns the number of states stored.
+     * @return the size.
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks if a state is stored.
+     * @param state the encoded state.
+     * @return true if the state is stored.
+     */
+    public boolean contains(long state) {
+        return keys[slot(state)] != 0;
+    }
+
+    /**
+     * Calls an action with every stored state, in no particular order.
+     * @param action the action.
+     */
+    public void forEach(LongConsumer action) {
+        for (long key : keys) {
+            if (key != 0) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the stored states.
+     * @return a new array of the states, in no particular order.
+     */
+    public long[] toArray() {
+        long[] states = new long[size];
+        int i = 0;
+        for (long key : keys) {
+            if (key != 0) {
+                states[i++] = key;
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Returns the memory held by the arrays of the table.
+     * @return the size of the arrays in bytes, including array headers.
+     */
+    public long getMemoryBytes() {
+        return 16 + (long) keys.length * Long.BYTES + (values == null ? 0 : 16 + (long) values.length * Integer.BYTES);
+    }
+}
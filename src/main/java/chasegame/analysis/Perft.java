@@ -0,0 +1,185 @@
+package chasegame.analysis;
+
+import chasegame.engine.BitboardMoveGenerator;
+import chasegame.engine.Move;
+import chasegame.engine.MoveGenerator;
+import chasegame.engine.Moves;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.tinylog.Logger;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the leaves of the move tree to a fixed depth, to check move generation against known counts
+ * and to track its speed. A finished game is a leaf only at depth 0: it has no children, so it adds
+ * nothing to deeper counts. The root moves are counted in parallel, and subtree counts can be shared
+ * between transpositions through a lock-free hash table.
+ */
+public class Perft {
+
+    /**
+     * Counts of one run.
+     * @param divide leaves below each root move, indexed by packed move, 0 for moves not legal.
+     * @param nodes total number of leaves.
+     * @param nanos duration of the count.
+     */
+    public record Result(long[] divide, long nodes, long nanos) {
+
+        /**
+         * Returns the speed of the count.
+         * @return leaves counted per second.
+         */
+        public long nodesPerSecond() {
+            return nodes * 1_000_000_000L / Math.max(1, nanos);
+        }
+    }
+
+    private static final int MOVE_CODES = PackedState.PIECES << 2;
+
+    private final MoveGenerator generator;
+    private final ForkJoinPool pool;
+    private final AtomicLongArray keys;
+    private final AtomicLongArray counts;
+    private final int mask;
+
+    /**
+     * Creates a counter using the bitboard rules on the common pool, without a hash table.
+     */
+    public Perft() {
+        this(new BitboardMoveGenerator(), ForkJoinPool.commonPool(), 0);
+    }
+
+    /**
+     * Creates a counter.
+     * @param generator the move generation rules.
+     * @param pool the pool counting the root moves.
+     * @param hashBits log2 of the number of hash table entries, 0 for no hash table.
+     */
+    public Perft(MoveGenerator generator, ForkJoinPool pool, int hashBits) {
+        this.generator = generator;
+        this.pool = pool;
+        int size = hashBits == 0 ? 0 : 1 << hashBits;
+        keys = new AtomicLongArray(size);
+        counts = new AtomicLongArray(size);
+        mask = size - 1;
+    }
+
+    /**
+     * Counts the leaves below every root move.
+     * @param state the encoded root state.
+     * @param depth number of plies.
+     * @return the counts.
+     */
+    public Result divide(long state, int depth) {
+        long start = System.nanoTime();
+        long[] divide = new long[MOVE_CODES];
+        if (depth == 0) {
+            return new Result(divide, 1, System.nanoTime() - start);
+        }
+        int[] rootMoves = new int[MOVE_CODES];
+        int count = 0;
+        if (generator.status(state) == GameModel.GameStatus.IN_PROGRESS) {
+            for (int legal = generator.legalMoves(state); legal != 0; legal &= legal - 1) {
+                rootMoves[count++] = Integer.numberOfTrailingZeros(legal);
+            }
+        }
+        pool.invoke(new RangeTask(0, count, 1, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                divide[rootMoves[i]] = count(generator.play(state, rootMoves[i]), depth - 1);
+            }
+        }));
+        long nodes = 0;
+        for (long subtree : divide) {
+            nodes += subtree;
+        }
+        return new Result(divide, nodes, System.nanoTime() - start);
+    }
+
+    /**
+     * Counts the leaves below a state.
+     * @param state the encoded state.
+     * @param depth number of plies.
+     * @return the number of leaves.
+     */
+    public long count(long state, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (generator.status(state) != GameModel.GameStatus.IN_PROGRESS) {
+            return 0;
+        }
+        int legal = generator.legalMoves(state);
+        if (depth == 1) {
+            return Integer.bitCount(legal);
+        }
+        long key = 0;
+        int slot = 0;
+        if (mask >= 0) {
+            key = PackedState.sortDogs(state) | (long) depth << 32;
+            slot = (int) (mix(key) & mask);
+            long count = counts.getOpaque(slot);
+            if ((keys.getOpaque(slot) ^ count) == key) {
+                return count;
+            }
+        }
+        long count = 0;
+        for (; legal != 0; legal &= legal - 1) {
+            count += count(generator.play(state, Integer.numberOfTrailingZeros(legal)), depth - 1);
+        }
+        if (mask >= 0) {
+            counts.setOpaque(slot, count);
+            keys.setOpaque(slot, key ^ count);
+        }
+        return count;
+    }
+
+    private static long mix(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return key ^ key >>> 29;
+    }
+
+    /**
+     * Counts the leaves below a model with its own move rules, the reference for faster generators.
+     * @param model the root state, unchanged when the method returns.
+     * @param depth number of plies.
+     * @return the number of leaves.
+     */
+    public static long count(GameModel model, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (model.getStatus() != GameModel.GameStatus.IN_PROGRESS) {
+            return 0;
+        }
+        int[] moves = new int[Moves.MAX_MOVES];
+        int count = Moves.generate(model, moves);
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            Moves.play(model, moves[i]);
+            nodes += count(model, depth - 1);
+            Moves.takeBack(model, moves[i]);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the leaves of the move tree from the start of a new game and prints them by root move.
+     * @param args depth, number of threads and log2 of the hash table size, all optional.
+     */
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 12;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int hashBits = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        var perft = new Perft(new BitboardMoveGenerator(), new ForkJoinPool(threads), hashBits);
+        var result = perft.divide(PackedState.of(new GameModel()), depth);
+        for (int move = 0; move < MOVE_CODES; move++) {
+            if (result.divide()[move] != 0) {
+                Logger.info("{}: {}", Move.decode(move), result.divide()[move]);
+            }
+        }
+        Logger.info("Depth {}: {} nodes in {} ms, {} nodes/s, {} threads, hash 2^{}", depth, result.nodes(),
+                result.nanos() / 1_000_000, result.nodesPerSecond(), threads, hashBits);
+    }
+}
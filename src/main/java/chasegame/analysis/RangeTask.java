@@ -0,0 +1,41 @@
+package chasegame.analysis;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork-join task splitting an index range in halves until it is small enough to process directly.
+ */
+class RangeTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Work done on a range of indices.
+     */
+    @FunctionalInterface
+    interface Body {
+        void run(int from, int to);
+    }
+
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final Body body;
+
+    RangeTask(int from, int to, int threshold, Body body) {
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+        this.body = body;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= threshold) {
+            body.run(from, to);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        invokeAll(new RangeTask(from, middle, threshold, body), new RangeTask(middle, to, threshold, body));
+    }
+}
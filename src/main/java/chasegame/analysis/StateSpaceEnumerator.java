@@ -0,0 +1,214 @@
+package chasegame.analysis;
+
+import chasegame.engine.BitboardMoveGenerator;
+import chasegame.engine.MoveGenerator;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.tinylog.Logger;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Finds every state reachable from a start state by a parallel breadth-first search.
+ * Visited states are marked in a bitset under a perfect index: the square of the fox, the rank of the
+ * set of dog squares among all combinations of four squares, and the side to move. If the start state
+ * is its own left-right mirror image, only one state of every mirrored pair is stored.
+ */
+public class StateSpaceEnumerator {
+
+    private static final int SIZE = GameModel.BOARD_SIZE;
+    private static final int SQUARES = SIZE * SIZE;
+    private static final int DOGS = PackedState.PIECES - 1;
+    private static final long[][] BINOMIAL = new long[SQUARES + 1][DOGS + 1];
+    private static final int CHUNK = 1 << 12;
+
+    static {
+        for (int n = 0; n <= SQUARES; n++) {
+            BINOMIAL[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, DOGS); k++) {
+                BINOMIAL[n][k] = BINOMIAL[n - 1][k - 1] + (k < n ? BINOMIAL[n - 1][k] : 0);
+            }
+        }
+    }
+
+    /**
+     * Number of distinct indices, the size of the bitset in bits.
+     */
+    public static final long INDEX_SIZE = SQUARES * BINOMIAL[SQUARES][DOGS] * 2;
+
+    /**
+     * Summary of an enumeration.
+     * @param states number of distinct reachable states, mirrored pairs counted once if mirroring was used.
+     * @param terminalStates number of those states in which the game is over.
+     * @param depthHistogram number of states first reached after each number of plies.
+     * @param peakMemoryBytes largest memory held by the bitset and the frontiers together.
+     * @param mirrored true if mirrored states were merged.
+     * @param nanos duration of the enumeration.
+     */
+    public record Report(long states, long terminalStates, long[] depthHistogram, long peakMemoryBytes,
+                         boolean mirrored, long nanos) {
+    }
+
+    private final MoveGenerator generator;
+    private final ForkJoinPool pool;
+    private AtomicLongArray visited;
+    private boolean mirrored;
+
+    /**
+     * Creates an enumerator using the bitboard rules on the common pool.
+     */
+    public StateSpaceEnumerator() {
+        this(new BitboardMoveGenerator(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an enumerator.
+     * @param generator the move generation rules.
+     * @param pool the pool running the search.
+     */
+    public StateSpaceEnumerator(MoveGenerator generator, ForkJoinPool pool) {
+        this.generator = generator;
+        this.pool = pool;
+    }
+
+    /**
+     * Ranks a state in the perfect index.
+     * @param state the encoded state, with the dogs sorted by {@link PackedState#sortDogs(long)}.
+     * @return the index, less than {@link #INDEX_SIZE}.
+     */
+    public static long index(long state) {
+        long rank = 0;
+        for (int dog = 1; dog <= DOGS; dog++) {
+            rank += BINOMIAL[PackedState.square(state, dog)][dog];
+        }
+        long side = PackedState.isFoxToMove(state) ? 1 : 0;
+        return (PackedState.square(state, 0) * BINOMIAL[SQUARES][DOGS] + rank) * 2 + side;
+    }
+
+    /**
+     * Reflects a state on the vertical axis of the board.
+     * @param state the encoded state.
+     * @return the mirrored state, with the dogs sorted.
+     */
+    public static long mirror(long state) {
+        long mirrored = state;
+        for (int piece = 0; piece < PackedState.PIECES; piece++) {
+            int square = PackedState.square(state, piece);
+            mirrored = PackedState.withSquare(mirrored, piece, square - square % SIZE + SIZE - 1 - square % SIZE);
+        }
+        return PackedState.sortDogs(mirrored);
+    }
+
+    private long canonical(long state) {
+        long sorted = PackedState.sortDogs(state);
+        if (!mirrored) {
+            return sorted;
+        }
+        long reflected = mirror(sorted);
+        return index(reflected) < index(sorted) ? reflected : sorted;
+    }
+
+    /**
+     * Marks a state as visited.
+     * @param state a canonical state.
+     * @return true if the state was not visited before.
+     */
+    private boolean mark(long state) {
+        long index = index(state);
+        int word = (int) (index >>> 6);
+        long bit = 1L << index;
+        while (true) {
+            long old = visited.get(word);
+            if ((old & bit) != 0) {
+                return false;
+            }
+            if (visited.compareAndSet(word, old, old | bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Checks if a state was reached by the last enumeration.
+     * @param state the encoded state.
+     * @return true if the state is reachable from the start state.
+     */
+    public boolean contains(long state) {
+        long index = index(canonical(state));
+        return (visited.get((int) (index >>> 6)) & 1L << index) != 0;
+    }
+
+    /**
+     * Enumerates the states reachable from a start state.
+     * @param start the encoded start state.
+     * @return the summary of the enumeration.
+     */
+    public Report enumerate(long start) {
+        long begin = System.nanoTime();
+        mirrored = mirror(start) == PackedState.sortDogs(start);
+        visited = new AtomicLongArray((int) ((INDEX_SIZE + 63) >>> 6));
+        long bitsetBytes = (long) visited.length() * Long.BYTES;
+        long[] frontier = {canonical(start)};
+        mark(frontier[0]);
+        long[] histogram = new long[SQUARES * PackedState.PIECES];
+        AtomicLong terminal = new AtomicLong();
+        long peak = bitsetBytes;
+        int depth = 0;
+        long states = 0;
+        while (frontier.length > 0) {
+            histogram[depth++] = frontier.length;
+            states += frontier.length;
+            long[] current = frontier;
+            var chunks = new ConcurrentLinkedQueue<long[]>();
+            pool.invoke(new RangeTask(0, current.length, CHUNK, (from, to) -> {
+                long[] found = new long[CHUNK];
+                int count = 0;
+                for (int i = from; i < to; i++) {
+                    long state = current[i];
+                    if (generator.status(state) != GameModel.GameStatus.IN_PROGRESS) {
+                        terminal.incrementAndGet();
+                        continue;
+                    }
+                    int legal = generator.legalMoves(state);
+                    while (legal != 0) {
+                        int move = Integer.numberOfTrailingZeros(legal);
+                        legal &= legal - 1;
+                        long next = canonical(generator.play(state, move));
+                        if (mark(next)) {
+                            if (count == found.length) {
+                                found = Arrays.copyOf(found, count * 2);
+                            }
+                            found[count++] = next;
+                        }
+                    }
+                }
+                chunks.add(Arrays.copyOf(found, count));
+            }));
+            frontier = new long[chunks.stream().mapToInt(chunk -> chunk.length).sum()];
+            int offset = 0;
+            for (var chunk : chunks) {
+                System.arraycopy(chunk, 0, frontier, offset, chunk.length);
+                offset += chunk.length;
+            }
+            peak = Math.max(peak, bitsetBytes + (long) (current.length + frontier.length) * Long.BYTES);
+        }
+        return new Report(states, terminal.get(), Arrays.copyOf(histogram, depth), peak, mirrored,
+                System.nanoTime() - begin);
+    }
+
+    /**
+     * Enumerates the states reachable from the start of a new game and logs the summary.
+     * @param args not used.
+     */
+    public static void main(String[] args) {
+        var report = new StateSpaceEnumerator().enumerate(PackedState.of(new GameModel()));
+        Logger.info("{} reachable states, {} terminal, mirrored: {}", report.states(), report.terminalStates(),
+                report.mirrored());
+        Logger.info("States by depth: {}", Arrays.toString(report.depthHistogram()));
+        Logger.info("Peak memory {} MB, {} ms", report.peakMemoryBytes() >> 20, report.nanos() / 1_000_000);
+    }
+}
@@ -0,0 +1,227 @@
+package chasegame.analysis;
+
+import chasegame.engine.Evaluator;
+import chasegame.engine.Moves;
+import chasegame.engine.Player;
+import chasegame.engine.RandomPlayer;
+import chasegame.engine.Seeds;
+import chasegame.model.GameModel;
+import chasegame.tournament.EngineConfig;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.LongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * A fixed corpus of recorded games, fed through an engine to compare the performance of two builds
+ * on exactly the same work. A game is stored as its packed moves, one {@code short} per ply. Replaying
+ * asks a fresh player, seeded from the number of the game, for a move in every position of every game
+ * and then plays the recorded move, so every position is searched whatever the engine chooses. The
+ * checksum of the chosen moves is combined in the order of the games, so it only differs between two
+ * runs, with any number of threads, if the engine behaved differently.
+ */
+public class Workload {
+
+    private static final int MAGIC = 0x4347574C;
+
+    private final short[][] games;
+
+    /**
+     * Outcome of a replay.
+     * @param games the number of games replayed.
+     * @param positions the number of positions searched.
+     * @param nanos the wall clock time of the replay.
+     * @param checksum a hash of every move chosen, in order.
+     */
+    public record Result(int games, long positions, long nanos, long checksum) {
+
+        /**
+         * Returns the throughput of the replay.
+         * @return positions searched per second.
+         */
+        public double positionsPerSecond() {
+            return nanos == 0 ? 0 : positions * 1e9 / nanos;
+        }
+    }
+
+    /**
+     * Creates a workload.
+     * @param games the packed moves of every game, kept without copying.
+     */
+    public Workload(short[][] games) {
+        this.games = games;
+    }
+
+    /**
+     * Records games played by one player with itself. Games are played in parallel, each by a player
+     * seeded from the number of the game, so the corpus only depends on the seed.
+     * @param count the number of games.
+     * @param players creates the player of a game from its seed.
+     * @param seed the seed of the corpus.
+     * @return the recorded games.
+     */
+    public static Workload record(int count, LongFunction<Player> players, long seed) {
+        short[][] games = new short[count][];
+        IntStream.range(0, count).parallel().forEach(game -> {
+            var player = players.apply(Seeds.derive(seed, game));
+            var model = new GameModel();
+            short[] moves = new short[16];
+            int plies = 0;
+            while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                int move = player.chooseMove(model).encode();
+                if (plies == moves.length) {
+                    moves = Arrays.copyOf(moves, plies * 2);
+                }
+                moves[plies++] = (short) move;
+                Moves.play(model, move);
+            }
+            close(player);
+            games[game] = Arrays.copyOf(moves, plies);
+        });
+        return new Workload(games);
+    }
+
+    public int getGameCount() {
+        return games.length;
+    }
+
+    /**
+     * Returns the number of positions of all games in which a move is searched.
+     * @return the number of plies of all games.
+     */
+    public long getPositionCount() {
+        long positions = 0;
+        for (short[] game : games) {
+            positions += game.length;
+        }
+        return positions;
+    }
+
+    /**
+     * Searches every position of every game.
+     * @param engines creates the player searching a game from its seed.
+     * @param seed the seed of the replay.
+     * @param threads the number of games searched at the same time.
+     * @return the checksum and the time of the replay.
+     * @throws InterruptedException if interrupted, which stops the workers.
+     */
+    public Result replay(LongFunction<Player> engines, long seed, int threads) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        long checksum = 0;
+        try {
+            List<Future<Long>> futures = new ArrayList<>(games.length);
+            for (int i = 0; i < games.length; i++) {
+                int game = i;
+                futures.add(pool.submit(() -> replay(engines.apply(Seeds.derive(seed, game)), games[game])));
+            }
+            for (var future : futures) {
+                checksum = checksum * 31 + future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return new Result(games.length, getPositionCount(), System.nanoTime() - start, checksum);
+    }
+
+    private static long replay(Player player, short[] moves) {
+        var model = new GameModel();
+        long checksum = 0;
+        try {
+            for (short move : moves) {
+                checksum = Seeds.derive(checksum, player.chooseMove(model).encode());
+                Moves.play(model, move);
+            }
+        } finally {
+            close(player);
+        }
+        return checksum;
+    }
+
+    private static void close(Player player) {
+        if (player instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Writes the games to a file.
+     * @param file the file to write, replaced if it exists.
+     * @throws IOException if the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        var buffer = ByteBuffer.allocate(8 + 4 * games.length + 2 * (int) getPositionCount());
+        buffer.putInt(MAGIC).putInt(games.length);
+        for (short[] game : games) {
+            buffer.putInt(game.length);
+            for (short move : game) {
+                buffer.putShort(move);
+            }
+        }
+        Files.write(file, buffer.array());
+    }
+
+    /**
+     * Reads games written by {@link #write(Path)}.
+     * @param file the file to read.
+     * @return the workload.
+     * @throws IOException if the file cannot be read or is not a workload.
+     */
+    public static Workload read(Path file) throws IOException {
+        var buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.remaining() < 8 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a workload: " + file);
+        }
+        short[][] games = new short[buffer.getInt()][];
+        for (int game = 0; game < games.length; game++) {
+            games[game] = new short[buffer.getInt()];
+            buffer.asShortBuffer().get(games[game]);
+            buffer.position(buffer.position() + 2 * games[game].length);
+        }
+        return new Workload(games);
+    }
+
+    /**
+     * Replays a corpus with an alpha-beta search of fixed depth, recording the corpus from random games
+     * first if the file does not exist yet, and logs the throughput and checksum of every run.
+     * @param args the corpus file, search depth, threads, runs and games of a new corpus, all optional.
+     * @throws IOException if the corpus cannot be read or written.
+     * @throws InterruptedException if interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var file = Path.of(args.length > 0 ? args[0] : "workload.bin");
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        int count = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+        if (!Files.exists(file)) {
+            record(count, RandomPlayer::new, 48).write(file);
+            Logger.info("Recorded {} random games into {}", count, file);
+        }
+        var workload = read(file);
+        var engine = EngineConfig.alphaBeta("alphabeta-" + depth, depth, Long.MAX_VALUE, Evaluator.DEFAULT.getWeights());
+        for (int run = 0; run < runs; run++) {
+            var result = workload.replay(engine::create, 0, threads);
+            Logger.info("Run {}: {} positions of {} games in {} ms, {} positions/s, checksum {}", run,
+                    result.positions(), result.games(), result.nanos() / 1_000_000,
+                    (long) result.positionsPerSecond(), Long.toHexString(result.checksum()));
+        }
+    }
+}
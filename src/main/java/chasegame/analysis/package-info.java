@@ -0,0 +1,4 @@
+/**
+ * Bulk analysis tools working on encoded states instead of models.
+ */
+package chasegame.analysis;
@@ -0,0 +1,134 @@
+package chasegame.broadcast;
+
+import chasegame.model.FoxDirection;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+
+/**
+ * Wire format of the broadcast. A move takes a single byte, so a viewer costs two bytes a ply on the
+ * wire; the whole board is only sent to a viewer that joins, falls too far behind or sees a new game.
+ * <ul>
+ *     <li>Move: {@code 0ppp dd0t}, piece {@code p} moved in the {@link FoxDirection} of ordinal {@code d},
+ *     which covers the moves of the dogs and their take-backs too, and {@code t} is set if the fox is
+ *     to move after it.</li>
+ *     <li>Turn: {@code 1000 000t}, the turn changed without a move.</li>
+ *     <li>Game over: {@code 1010 00ss}, the game ended with the {@link GameModel.GameStatus} of
+ *     ordinal {@code s}.</li>
+ *     <li>Sync: {@code 1100 0000} followed by 4 bytes, big endian, holding the 30 bits of the squares
+ *     of a {@link PackedState} and the side to move in bit 30.</li>
+ * </ul>
+ */
+public final class DeltaFrames {
+
+    /**
+     * Length of a sync frame in bytes, the longest frame.
+     */
+    public static final int SYNC_LENGTH = 5;
+
+    private static final int TURN = 0x80;
+    private static final int GAME_OVER = 0xA0;
+    private static final int SYNC = 0xC0;
+    private static final int KIND_MASK = 0xE0;
+    private static final int FOX_BIT = 1 << 30;
+    private static final int SQUARES_MASK = FOX_BIT - 1;
+
+    private DeltaFrames() {
+    }
+
+    /**
+     * Encodes a move.
+     * @param piece id of the moved piece, 0 for the fox.
+     * @param direction the direction of the move.
+     * @param foxToMove true if the fox is to move after the move.
+     * @return the frame.
+     */
+    public static byte move(int piece, FoxDirection direction, boolean foxToMove) {
+        return (byte) (piece << 4 | direction.ordinal() << 2 | (foxToMove ? 1 : 0));
+    }
+
+    /**
+     * Encodes a change of turn without a move.
+     * @param foxToMove true if the fox is to move now.
+     * @return the frame.
+     */
+    public static byte turn(boolean foxToMove) {
+        return (byte) (TURN | (foxToMove ? 1 : 0));
+    }
+
+    /**
+     * Encodes the end of a game.
+     * @param status the outcome.
+     * @return the frame.
+     */
+    public static byte gameOver(GameModel.GameStatus status) {
+        return (byte) (GAME_OVER | status.ordinal());
+    }
+
+    /**
+     * Encodes a whole position.
+     * @param state the encoded state.
+     * @param out the array receiving the frame.
+     * @param offset the index of the first byte of the frame.
+     * @return {@link #SYNC_LENGTH}.
+     */
+    public static int sync(long state, byte[] out, int offset) {
+        int payload = (int) state & SQUARES_MASK | (PackedState.isFoxToMove(state) ? FOX_BIT : 0);
+        out[offset] = (byte) SYNC;
+        out[offset + 1] = (byte) (payload >>> 24);
+        out[offset + 2] = (byte) (payload >>> 16);
+        out[offset + 3] = (byte) (payload >>> 8);
+        out[offset + 4] = (byte) payload;
+        return SYNC_LENGTH;
+    }
+
+    /**
+     * Returns the length of a frame.
+     * @param first the first byte of the frame.
+     * @return the number of bytes of the frame.
+     */
+    public static int length(byte first) {
+        return isSync(first) ? SYNC_LENGTH : 1;
+    }
+
+    static boolean isMove(byte frame) {
+        return frame >= 0;
+    }
+
+    static boolean isTurn(byte frame) {
+        return (frame & KIND_MASK) == TURN;
+    }
+
+    static boolean isGameOver(byte frame) {
+        return (frame & KIND_MASK) == GAME_OVER;
+    }
+
+    static boolean isSync(byte frame) {
+        return (frame & KIND_MASK) == SYNC;
+    }
+
+    static int piece(byte move) {
+        return move >> 4;
+    }
+
+    static FoxDirection direction(byte move) {
+        return FoxDirection.values()[move >> 2 & 3];
+    }
+
+    static boolean isFoxToMove(byte frame) {
+        return (frame & 1) != 0;
+    }
+
+    static GameModel.GameStatus status(byte gameOver) {
+        return GameModel.GameStatus.values()[gameOver & 3];
+    }
+
+    /**
+     * Decodes the payload of a sync frame.
+     * @param payload the 4 bytes after the first byte, as a big endian int.
+     * @return the encoded state.
+     */
+    static long state(int payload) {
+        long state = payload & SQUARES_MASK;
+        return (payload & FOX_BIT) != 0 ? state | PackedState.FOX_TO_MOVE : state;
+    }
+}
@@ -0,0 +1,434 @@
+package chasegame.broadcast;
+
+import chasegame.events.GameEventSubscriber;
+import chasegame.model.FoxDirection;
+import chasegame.model.GameEvent;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import chasegame.model.Position;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams the game being played to any number of viewers over non-blocking TCP connections, as
+ * {@link DeltaFrames}. Subscribed to the game events, it turns every move into a one byte frame and
+ * hands the frames of a batch to a single network thread, which appends them to a ring of bytes shared
+ * by all viewers. Every viewer only has a position in the ring: all frames it has not received yet go
+ * out in one gathering write, so a slow viewer gets the frames coalesced into fewer and larger writes,
+ * and a viewer that falls a whole ring behind skips the frames it missed and receives the current
+ * position in a sync frame instead. A viewer never holds back the game or the other viewers.
+ */
+public class SpectatorServer implements GameEventSubscriber, AutoCloseable {
+
+    /**
+     * Size of the ring of frames of a server created without one.
+     */
+    public static final int DEFAULT_RING_BYTES = 1 << 16;
+
+    private static final int BACKLOG = 1024;
+    private static final int PENDING_BYTES = 64;
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Thread thread;
+    private final Queue<Batch> batches = new ConcurrentLinkedQueue<>();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    private volatile int viewerCount;
+    private volatile boolean running = true;
+
+    // State of the encoder, on the thread of the subscription.
+    private long encodedState;
+    private GameModel.GameStatus encodedStatus = GameModel.GameStatus.IN_PROGRESS;
+    private int pendingPiece = -1;
+    private int pendingSquare;
+    private byte pendingFrame;
+
+    // State of the network thread.
+    private final byte[] ring;
+    private final boolean[] frameStarts;
+    private final int mask;
+    private final List<Viewer> viewers = new ArrayList<>();
+    private final ByteBuffer discard = ByteBuffer.allocate(256);
+    private long written;
+    private long state;
+    private GameModel.GameStatus status = GameModel.GameStatus.IN_PROGRESS;
+
+    /**
+     * Frames encoded from a batch of events.
+     * @param frames the frames, back to back.
+     * @param length the number of bytes used.
+     * @param state the position after the frames.
+     * @param status the outcome of the game after the frames.
+     */
+    private record Batch(byte[] frames, int length, long state, GameModel.GameStatus status) {
+    }
+
+    /**
+     * Connection of one viewer.
+     */
+    private final class Viewer {
+
+        private final SocketChannel channel;
+        private final ByteBuffer pending = ByteBuffer.allocate(PENDING_BYTES).flip();
+        private final ByteBuffer head = ByteBuffer.wrap(ring);
+        private final ByteBuffer tail = ByteBuffer.wrap(ring);
+        private final ByteBuffer[] buffers = {pending, head, tail};
+        private SelectionKey key;
+        private long position;
+
+        Viewer(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * Queues bytes ahead of the frames of the ring.
+         * @return false if they do not fit.
+         */
+        boolean prepend(byte[] bytes, int offset, int length) {
+            pending.compact();
+            boolean fits = pending.remaining() >= length;
+            if (fits) {
+                pending.put(bytes, offset, length);
+            }
+            pending.flip();
+            return fits;
+        }
+    }
+
+    /**
+     * Starts a server with a ring of {@link #DEFAULT_RING_BYTES}.
+     * @param address the address to listen on, port 0 for any free port.
+     * @throws IOException if the address cannot be bound.
+     */
+    public SpectatorServer(InetSocketAddress address) throws IOException {
+        this(address, DEFAULT_RING_BYTES);
+    }
+
+    /**
+     * Starts a server.
+     * @param address the address to listen on, port 0 for any free port.
+     * @param ringBytes the size of the ring of frames, a power of two; a viewer further behind is resynchronized.
+     * @throws IOException if the address cannot be bound.
+     */
+    public SpectatorServer(InetSocketAddress address, int ringBytes) throws IOException {
+        if (ringBytes < DeltaFrames.SYNC_LENGTH || Integer.bitCount(ringBytes) != 1) {
+            throw new IllegalArgumentException();
+        }
+        ring = new byte[ringBytes];
+        frameStarts = new boolean[ringBytes];
+        mask = ringBytes - 1;
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(address, BACKLOG);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        thread = new Thread(this::run, "spectators");
+        thread.setDaemon(true);
+        thread.start();
+        Logger.info("Broadcasting games on {}", server.getLocalAddress());
+    }
+
+    /**
+     * Starts a server on the loopback port named by the {@code chasegame.spectators} system property.
+     * @return the server, or an empty {@code Optional} if the property is not set.
+     * @throws UncheckedIOException if the port cannot be bound.
+     */
+    public static Optional<SpectatorServer> fromSystemProperty() {
+        return Optional.ofNullable(System.getProperty("chasegame.spectators")).map(port -> {
+            try {
+                return new SpectatorServer(new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                        Integer.parseInt(port)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Returns the port the server listens on.
+     * @return the local port.
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    public int getViewerCount() {
+        return viewerCount;
+    }
+
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+
+    /**
+     * Returns the number of writes to viewers, lower than the number of frames times the number of
+     * viewers when frames were coalesced.
+     * @return the number of socket writes.
+     */
+    public long getWrites() {
+        return writes.get();
+    }
+
+    /**
+     * Returns the number of times a viewer fell a whole ring behind and was sent the position instead.
+     * @return the number of resynchronizations.
+     */
+    public long getResyncs() {
+        return resyncs.get();
+    }
+
+    /**
+     * Encodes the events into frames and hands them to the network thread. A move is held back until
+     * the turn changes, so that the frame of the move carries the side to move after it.
+     * @param events the events of a batch.
+     */
+    @Override
+    public void onEvents(List<GameEvent> events) {
+        byte[] frames = new byte[events.size() * (DeltaFrames.SYNC_LENGTH + 1)];
+        int length = 0;
+        for (var event : events) {
+            if (event instanceof GameEvent.MoveMade move) {
+                length = flushMove(frames, length, PackedState.isFoxToMove(encodedState));
+                Position from = move.from();
+                Position to = move.to();
+                pendingPiece = move.pieceNumber();
+                pendingSquare = to.row() * GameModel.BOARD_SIZE + to.col();
+                pendingFrame = DeltaFrames.move(pendingPiece, FoxDirection.of(to.row() - from.row(),
+                        to.col() - from.col()), false);
+            } else if (event instanceof GameEvent.TurnChanged turn) {
+                boolean foxToMove = turn.turnOrder() == GameModel.TurnOrder.FOX;
+                if (pendingPiece >= 0) {
+                    length = flushMove(frames, length, foxToMove);
+                } else {
+                    frames[length++] = DeltaFrames.turn(foxToMove);
+                }
+                encodedState = foxToMove ? encodedState | PackedState.FOX_TO_MOVE
+                        : encodedState & ~PackedState.FOX_TO_MOVE;
+            } else if (event instanceof GameEvent.GameOver gameOver) {
+                length = flushMove(frames, length, PackedState.isFoxToMove(encodedState));
+                frames[length++] = DeltaFrames.gameOver(gameOver.status());
+                encodedStatus = gameOver.status();
+            } else if (event instanceof GameEvent.GameStarted started) {
+                pendingPiece = -1;
+                encodedState = started.state();
+                encodedStatus = GameModel.GameStatus.IN_PROGRESS;
+                length += DeltaFrames.sync(encodedState, frames, length);
+            }
+        }
+        if (length > 0) {
+            batches.add(new Batch(frames, length, encodedState, encodedStatus));
+            selector.wakeup();
+        }
+    }
+
+    private int flushMove(byte[] frames, int length, boolean foxToMove) {
+        if (pendingPiece < 0) {
+            return length;
+        }
+        frames[length] = (byte) (pendingFrame | (foxToMove ? 1 : 0));
+        encodedState = PackedState.withSquare(encodedState, pendingPiece, pendingSquare);
+        pendingPiece = -1;
+        return length + 1;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                selector.select();
+                for (var key : selector.selectedKeys()) {
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        var viewer = (Viewer) key.attachment();
+                        if (key.isReadable()) {
+                            read(viewer);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(viewer);
+                        }
+                    }
+                }
+                selector.selectedKeys().clear();
+                boolean appended = false;
+                for (Batch batch = batches.poll(); batch != null; batch = batches.poll()) {
+                    append(batch);
+                    appended = true;
+                }
+                if (appended) {
+                    for (int i = viewers.size() - 1; i >= 0; i--) {
+                        flush(viewers.get(i));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            Logger.error(e, "Broadcast stopped");
+        } finally {
+            for (var viewer : viewers) {
+                closeQuietly(viewer);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        var viewer = new Viewer(channel);
+        viewer.position = written;
+        if (state != 0) {
+            prependPosition(viewer);
+        }
+        viewer.key = channel.register(selector, SelectionKey.OP_READ, viewer);
+        viewers.add(viewer);
+        viewerCount = viewers.size();
+        flush(viewer);
+    }
+
+    private void append(Batch batch) {
+        int next = 0;
+        for (int i = 0; i < batch.length(); i++) {
+            int slot = (int) written & mask;
+            ring[slot] = batch.frames()[i];
+            frameStarts[slot] = i == next;
+            if (i == next) {
+                next += DeltaFrames.length(batch.frames()[i]);
+            }
+            written++;
+        }
+        state = batch.state();
+        status = batch.status();
+    }
+
+    /**
+     * Queues the current position for a viewer, and the outcome if the game is over, which the sync
+     * frame alone would reset.
+     * @return false if they do not fit.
+     */
+    private boolean prependPosition(Viewer viewer) {
+        byte[] frames = new byte[DeltaFrames.SYNC_LENGTH + 1];
+        int length = DeltaFrames.sync(state, frames, 0);
+        if (status != GameModel.GameStatus.IN_PROGRESS) {
+            frames[length++] = DeltaFrames.gameOver(status);
+        }
+        return viewer.prepend(frames, 0, length);
+    }
+
+    /**
+     * Viewers send nothing; reading only notices that a viewer has gone.
+     */
+    private void read(Viewer viewer) {
+        try {
+            discard.clear();
+            if (viewer.channel.read(discard) < 0) {
+                close(viewer);
+            }
+        } catch (IOException e) {
+            close(viewer);
+        }
+    }
+
+    /**
+     * Writes everything a viewer has not received yet, in one gathering write.
+     */
+    private void flush(Viewer viewer) {
+        if (!viewer.key.isValid()) {
+            return;
+        }
+        if (written - viewer.position > ring.length) {
+            if (!prependPosition(viewer)) {
+                close(viewer);
+                return;
+            }
+            viewer.position = written;
+            resyncs.incrementAndGet();
+        }
+        int from = (int) viewer.position & mask;
+        int available = (int) (written - viewer.position);
+        int first = Math.min(available, ring.length - from);
+        viewer.head.limit(from + first).position(from);
+        viewer.tail.limit(available - first).position(0);
+        long sent;
+        try {
+            sent = viewer.channel.write(viewer.buffers);
+        } catch (IOException e) {
+            close(viewer);
+            return;
+        }
+        bytesSent.addAndGet(sent);
+        writes.incrementAndGet();
+        viewer.position += viewer.head.position() - from + viewer.tail.position();
+        if (viewer.position < written && !frameStarts[(int) viewer.position & mask]) {
+            // Keep the rest of a frame cut short, so that the viewer can be resynchronized between frames.
+            int start = (int) viewer.position & mask;
+            int length = 1;
+            while (viewer.position + length < written && !frameStarts[start + length & mask]) {
+                length++;
+            }
+            for (int i = 0; i < length; i++) {
+                viewer.prepend(ring, start + i & mask, 1);
+            }
+            viewer.position += length;
+        }
+        boolean behind = viewer.pending.hasRemaining() || viewer.position < written;
+        viewer.key.interestOps(behind ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    }
+
+    private void close(Viewer viewer) {
+        closeQuietly(viewer);
+        viewers.remove(viewer);
+        viewerCount = viewers.size();
+    }
+
+    private static void closeQuietly(Viewer viewer) {
+        try {
+            if (viewer.key != null) {
+                viewer.key.cancel();
+            }
+            viewer.channel.close();
+        } catch (IOException e) {
+            Logger.debug("Closing a viewer failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Disconnects every viewer and stops listening. The subscription must have stopped before.
+     */
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+            server.close();
+            selector.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package chasegame.broadcast;
+
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The game as seen by one viewer, rebuilt from the frames of a {@link SpectatorServer}.
+ */
+public class SpectatorView {
+
+    private long state;
+    private GameModel.GameStatus status = GameModel.GameStatus.IN_PROGRESS;
+    private long moves;
+    private long syncs;
+
+    /**
+     * Applies every complete frame of a buffer.
+     * @param in the received bytes, in read mode; a frame cut short is left in the buffer.
+     * @return the number of moves applied.
+     */
+    public int decode(ByteBuffer in) {
+        int applied = 0;
+        while (in.hasRemaining()) {
+            byte frame = in.get(in.position());
+            if (in.remaining() < DeltaFrames.length(frame)) {
+                break;
+            }
+            in.get();
+            if (DeltaFrames.isMove(frame)) {
+                int piece = DeltaFrames.piece(frame);
+                var direction = DeltaFrames.direction(frame);
+                int square = PackedState.square(state, piece)
+                        + direction.getRowChange() * GameModel.BOARD_SIZE + direction.getColChange();
+                state = turn(PackedState.withSquare(state, piece, square), DeltaFrames.isFoxToMove(frame));
+                moves++;
+                applied++;
+            } else if (DeltaFrames.isTurn(frame)) {
+                state = turn(state, DeltaFrames.isFoxToMove(frame));
+            } else if (DeltaFrames.isGameOver(frame)) {
+                status = DeltaFrames.status(frame);
+            } else {
+                state = DeltaFrames.state(in.getInt());
+                status = GameModel.GameStatus.IN_PROGRESS;
+                syncs++;
+            }
+        }
+        return applied;
+    }
+
+    private static long turn(long state, boolean foxToMove) {
+        return foxToMove ? state | PackedState.FOX_TO_MOVE : state & ~PackedState.FOX_TO_MOVE;
+    }
+
+    /**
+     * Returns the position seen.
+     * @return the encoded state, 0 before the first sync.
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Returns the outcome of the game seen.
+     * @return the status sent by the server, {@code IN_PROGRESS} until the game is over.
+     */
+    public GameModel.GameStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Returns the number of moves received.
+     * @return the number of move frames applied.
+     */
+    public long getMoves() {
+        return moves;
+    }
+
+    /**
+     * Returns the number of whole positions received, one when joining, one for every new game and
+     * one every time the viewer fell too far behind.
+     * @return the number of sync frames applied.
+     */
+    public long getSyncs() {
+        return syncs;
+    }
+}
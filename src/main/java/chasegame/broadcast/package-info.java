@@ -0,0 +1,4 @@
+/**
+ * Broadcast of the game being played to spectators over TCP, as a stream of small delta frames.
+ */
+package chasegame.broadcast;
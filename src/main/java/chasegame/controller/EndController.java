@@ -1,35 +1,48 @@
 package chasegame.controller;
 
 import chasegame.results.GameResult;
-import chasegame.results.GameResultDao;
+import chasegame.results.LeaderboardService;
+import chasegame.results.Ranking;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
+import javafx.geometry.Orientation;
+import javafx.scene.control.ChoiceBox;
+import javafx.scene.control.ScrollBar;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.stage.Stage;
 import org.apache.commons.lang3.time.DurationFormatUtils;
 import org.tinylog.Logger;
 
 import javax.inject.Inject;
-import java.io.IOException;
 import java.time.Duration;
 import java.util.List;
 
 public class EndController {
 
     @Inject
-    private FXMLLoader fxmlLoader;
+    private SceneNavigator sceneNavigator;
+
+    private static final int PAGE_SIZE = 25;
 
     @Inject
-    private GameResultDao gameResultDao;
+    private LeaderboardService leaderboardService;
+
+    private final ObservableList<GameResult> observableResult = FXCollections.observableArrayList();
+
+    private boolean lastPageLoaded;
+
+    @FXML
+    private ChoiceBox<Ranking> rankingChoice;
+
+    @FXML
+    private ChoiceBox<String> sideChoice;
+
+    @FXML
+    private ChoiceBox<LeaderboardService.Window> windowChoice;
 
     @FXML
     private TableView<GameResult> highScoreTable;
@@ -48,12 +61,10 @@ public class EndController {
 
     @FXML
     private void initialize() {
-        Logger.debug("Loading high scores...");
-        List<GameResult> highScoreList = gameResultDao.findBest(10);
-
         player.setCellValueFactory(new PropertyValueFactory<>("player"));
         rounds.setCellValueFactory(new PropertyValueFactory<>("rounds"));
         duration.setCellValueFactory(new PropertyValueFactory<>("duration"));
+        winnerType.setCellValueFactory(new PropertyValueFactory<>("winnerType"));
 
         duration.setCellFactory(column -> {
             TableCell<GameResult, Duration> cell = new TableCell<GameResult, Duration>() {
@@ -70,23 +81,66 @@ public class EndController {
             return cell;
         });
 
-        ObservableList<GameResult> observableResult = FXCollections.observableArrayList();
-        observableResult.addAll(highScoreList);
+        rankingChoice.getItems().setAll(Ranking.values());
+        rankingChoice.setValue(Ranking.FEWEST_ROUNDS);
+        sideChoice.getItems().setAll("All", "Fox", "Dogs");
+        sideChoice.setValue("All");
+        windowChoice.getItems().setAll(LeaderboardService.Window.values());
+        windowChoice.setValue(LeaderboardService.Window.ALL_TIME);
+        rankingChoice.valueProperty().addListener(observable -> loadHighScores());
+        sideChoice.valueProperty().addListener(observable -> loadHighScores());
+        windowChoice.valueProperty().addListener(observable -> loadHighScores());
 
         highScoreTable.setItems(observableResult);
+        highScoreTable.skinProperty().addListener(observable -> listenToScrolling());
+    }
+
+    /**
+     * Loads the next page whenever the vertical scroll bar of the table reaches the bottom.
+     */
+    private void listenToScrolling() {
+        for (var node : highScoreTable.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar scrollBar && scrollBar.getOrientation() == Orientation.VERTICAL) {
+                scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+                    if (newValue.doubleValue() >= scrollBar.getMax() && !lastPageLoaded) {
+                        loadNextPage();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Reloads the first page of the selected leaderboard into the table.
+     */
+    public void loadHighScores() {
+        Logger.debug("Loading high scores...");
+        observableResult.clear();
+        lastPageLoaded = false;
+        loadNextPage();
+    }
+
+    /**
+     * Appends the page after the last result shown to the table.
+     */
+    private void loadNextPage() {
+        GameResult after = observableResult.isEmpty() ? null : observableResult.get(observableResult.size() - 1);
+        String side = sideChoice.getValue().equals("All") ? null : sideChoice.getValue();
+        List<GameResult> page = leaderboardService.page(rankingChoice.getValue(), side, windowChoice.getValue(), after, PAGE_SIZE);
+        Logger.debug("Loaded {} results after {}", page.size(), after == null ? null : after.getId());
+        lastPageLoaded = page.size() < PAGE_SIZE;
+        observableResult.addAll(page);
     }
 
     /**
      * Defines action for the back button on the high score scene.
+     * Starts a new game with the same players.
      * @param actionEvent event fired when the button is clicked
-     * @throws IOException occurs if the {@link FXMLLoader} can't find a file.
      */
 
-    public void handleBackButton(ActionEvent actionEvent) throws IOException {
-        fxmlLoader.setLocation(getClass().getResource("/fxml/game.fxml"));
-        Parent root = fxmlLoader.load();
-        Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-        stage.setScene(new Scene(root));
-        stage.show();
+    public void handleBackButton(ActionEvent actionEvent) {
+        GameController gameController = sceneNavigator.getController(SceneNavigator.View.GAME);
+        gameController.newGame();
+        sceneNavigator.show(SceneNavigator.View.GAME);
     }
 }
@@ -1,5 +1,6 @@
 package chasegame.controller;
 
+import chasegame.events.GameEventBus;
 import chasegame.model.*;
 import chasegame.results.GameResult;
 import chasegame.results.GameResultDao;
@@ -7,26 +8,22 @@ import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.SimpleIntegerProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.beans.property.StringProperty;
+import javafx.application.Platform;
 import javafx.beans.value.ObservableValue;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.DialogPane;
 import javafx.scene.control.Label;
+import javafx.scene.control.ToggleButton;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
-import javafx.stage.Stage;
 import org.tinylog.Logger;
 
 import javax.inject.Inject;
-import java.io.IOException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
@@ -75,14 +72,25 @@ public class GameController {
 
     private Position selected;
 
-    private GameModel model = new GameModel();
+    private GameModel model;
 
     @Inject
-    private FXMLLoader fxmlLoader;
+    private SceneNavigator sceneNavigator;
 
     @Inject
     private GameResultDao gameResultDao;
 
+    @Inject
+    private HintService hintService;
+
+    private HintService.Hint hint;
+
+    @Inject
+    private GameJournal gameJournal;
+
+    @Inject
+    private GameEventBus gameEventBus;
+
     @FXML
     private GridPane board;
 
@@ -92,15 +100,80 @@ public class GameController {
     @FXML
     private Label turnLabel;
 
+    @FXML
+    private ToggleButton hintToggle;
+
     @FXML
     private void initialize() {
         createBoard();
-        createPieces();
-        startTime = Instant.now();
         roundsLabel.textProperty().bind(rounds.asString());
         turnLabel.textProperty().bind(turnText);
+        hintToggle.selectedProperty().addListener((observable, wasSelected, selected) -> {
+            if (selected) {
+                ponder();
+            } else {
+                hintService.cancel();
+                showHint(null);
+            }
+        });
+        newGame();
+    }
+
+    /**
+     * Resets the model and the pieces to the starting state, keeping the squares of the board.
+     */
+    public void newGame() {
+        startGame(new GameModel(), 1, 0, Instant.now());
+        turnText.set("Dog's turn!");
+    }
+
+    /**
+     * Continues a game recorded by the {@link GameJournal}, with the clock running from the time
+     * played until the game was last recorded.
+     *
+     * @param snapshot the last record of the game.
+     */
+    public void resumeGame(GameJournal.Snapshot snapshot) {
+        playerName = snapshot.dogPlayer();
+        playerName1 = snapshot.foxPlayer();
+        var resumed = snapshot.toModel();
+        startGame(resumed, snapshot.roundCounter(), snapshot.rounds(), Instant.now().minus(snapshot.elapsed()));
+        turnText.set(resumed.getTurnOrder() == GameModel.TurnOrder.DOG ? "Dog turn!" : "Fox turn!");
+        Logger.info("Resumed game of {} and {} after {} rounds", playerName, playerName1, snapshot.rounds());
+    }
+
+    /**
+     * Replaces the model and the pieces, keeping the squares of the board, and records the start of the
+     * game once the players are known.
+     */
+    private void startGame(GameModel newModel, int newRoundCounter, int newRounds, Instant newStartTime) {
+        hintService.cancel();
+        showHint(null);
+        hideSelectablePositions();
+        if (selected != null) {
+            deselectSelectedPosition();
+        }
+        if (model != null) {
+            model.setEventSink(null);
+            for (int i = 0; i < model.getPieceCount(); i++) {
+                getSquare(model.getPiecePosition(i)).getChildren().clear();
+            }
+        }
+        model = newModel;
+        model.setEventSink(gameEventBus);
+        gameEventBus.publish(new GameEvent.GameStarted(PackedState.of(model)));
+        createPieces();
+        selectionPhase = SelectionPhase.SELECT_FROM;
+        roundCounter = newRoundCounter;
+        rounds.set(newRounds);
+        winnerType = null;
+        startTime = newStartTime;
+        if (playerName != null) {
+            gameJournal.begin(playerName, playerName1, startTime, model, roundCounter, rounds.get());
+        }
         setSelectablePositions();
         showSelectablePositions();
+        ponder();
     }
 
     /**
@@ -161,8 +234,10 @@ public class GameController {
         var square = (StackPane) event.getSource();
         var row = GridPane.getRowIndex(square);
         var col = GridPane.getColumnIndex(square);
-        var position = new Position(row, col);
-        Logger.debug("Click on square {}", position);
+        var position = Position.of(row, col);
+        if (Logger.isDebugEnabled()) {
+            Logger.debug("Click on square {}", position);
+        }
         handleClickOnSquare(position);
     }
 
@@ -172,6 +247,9 @@ public class GameController {
      * @param position the square's position that was clicked
      */
     private void handleClickOnSquare(Position position) {
+        if (model.getStatus() != GameModel.GameStatus.IN_PROGRESS) {
+            return;
+        }
         switch (selectionPhase) {
             case SELECT_FROM -> {
                 if (selectablePositions.contains(position)) {
@@ -195,40 +273,43 @@ public class GameController {
                         direction = FoxDirection.of(position.row() - selected.row(), position.col() - selected.col());
                     }
 
-                    Logger.debug("Moving piece {} {}", pieceNumber, direction);
+                    if (Logger.isDebugEnabled()) {
+                        Logger.debug("Moving piece {} {}", pieceNumber, direction);
+                    }
                     model.move(pieceNumber, direction);
                     deselectSelectedPosition();
                     model.changeTurnOrder();
-                    Logger.debug("{} Turn now!", model.getTurnOrder());
-                    alterSelectionPhase();
-                    if (isFoxWin()) {
-                        Logger.debug("Fox Wins!");
-                        gameOverDialog("Fox");
-                        winnerType = "Fox";
-                        gameResultDao.persist(createGameResult());
+                    gameJournal.move(model, roundCounter, rounds.get());
+                    if (Logger.isDebugEnabled()) {
+                        Logger.debug("{} Turn now!", model.getTurnOrder());
                     }
+                    alterSelectionPhase();
+                    checkGameOver();
                 }
             }
         }
     }
 
     /**
-     * Handles win condition for the Fox.
-     *
-     * @return true if the Fox won the game.
+     * Ends the game if the last move decided it.
      */
-    private boolean isFoxWin() {
-        List<Position> positions = model.getAllPiecesPositions();
-        int counter = 0;
-        for (int i = 1; i < positions.size(); i++) {
-            if (positions.get(0).row() > positions.get(i).row()) {
-                counter++;
+    private void checkGameOver() {
+        switch (model.getStatus()) {
+            case FOX_WON -> {
+                Logger.debug("Fox Wins!");
+                gameJournal.end();
+                gameOverDialog("Fox");
+                winnerType = "Fox";
+                gameResultDao.persist(createGameResult());
+            }
+            case DOGS_WON -> {
+                Logger.debug("Dogs Win!");
+                gameJournal.end();
+                gameOverDialog("Dogs");
+                winnerType = "Dogs";
+                gameResultDao.persist(createGameResult());
             }
         }
-        if (positions.get(0).row() == 7) {
-            return true;
-        }
-        return counter > 3;
     }
 
     /**
@@ -294,12 +375,6 @@ public class GameController {
                     for (var direction : model.getValidFoxMoves(pieceNumber)) {
                         selectablePositions.add(selected.moveTo(direction));
                     }
-                    if (model.getValidFoxMoves(pieceNumber).size() == 0) {
-                        Logger.debug("Dogs Win!");
-                        gameOverDialog("Dogs");
-                        winnerType = "Dogs";
-                        gameResultDao.persist(createGameResult());
-                    }
                 }
             }
         }
@@ -349,26 +424,53 @@ public class GameController {
      * @param newPosition desired position after moving.
      */
     private void piecePositionChange(ObservableValue<? extends Position> observable, Position oldPosition, Position newPosition) {
-        Logger.debug("Move: {} -> {}", oldPosition, newPosition);
+        if (Logger.isDebugEnabled()) {
+            Logger.debug("Move: {} -> {}", oldPosition, newPosition);
+        }
         StackPane oldSquare = getSquare(oldPosition);
         StackPane newSquare = getSquare(newPosition);
         newSquare.getChildren().addAll(oldSquare.getChildren());
         oldSquare.getChildren().clear();
+        hintService.cancel();
+        showHint(null);
+        Platform.runLater(this::ponder);
+    }
+
+    /**
+     * Restarts the background search of a hint for the current position while hints are switched on.
+     * Called once the move being handled has also passed the turn, so the search starts from the right side.
+     */
+    private void ponder() {
+        if (hintToggle.isSelected()) {
+            hintService.ponder(model, this::showHint);
+        }
+    }
+
+    /**
+     * Replaces the highlighted hint, shown only while hints are switched on.
+     *
+     * @param newHint the hint to show, or {@code null} to clear it.
+     */
+    private void showHint(HintService.Hint newHint) {
+        if (hint != null) {
+            getSquare(hint.from()).getStyleClass().remove("hint");
+            getSquare(hint.to()).getStyleClass().remove("hint");
+        }
+        hint = newHint;
+        if (hint != null && hintToggle.isSelected()) {
+            getSquare(hint.from()).getStyleClass().add("hint");
+            getSquare(hint.to()).getStyleClass().add("hint");
+        }
     }
 
     /**
      * Loads HighScore scene.
      *
      * @param actionEvent click event from the highscore button.
-     * @throws IOException occurs when {@link FXMLLoader} can't find a file.
      */
-    public void seeHighScores(ActionEvent actionEvent) throws IOException {
+    public void seeHighScores(ActionEvent actionEvent) {
         Logger.info("Loading high scores scene...");
-        fxmlLoader.setLocation(getClass().getResource("/fxml/highscore.fxml"));
-        Parent root = fxmlLoader.load();
-        Stage stage = (Stage) ((Node) actionEvent.getSource()).getScene().getWindow();
-        stage.setScene(new Scene(root));
-        stage.show();
+        sceneNavigator.showHighScores();
     }
 
     /**
@@ -380,12 +482,16 @@ public class GameController {
         if (winnerType.equals("Fox")) {
             return GameResult.builder()
                     .player(playerName1)
+                    .opponent(playerName)
+                    .winnerType(winnerType)
                     .duration(Duration.between(startTime, Instant.now()))
                     .rounds(rounds.get())
                     .build();
         } else if (winnerType.equals("Dogs")) {
             return GameResult.builder()
                     .player(playerName)
+                    .opponent(playerName1)
+                    .winnerType(winnerType)
                     .duration(Duration.between(startTime, Instant.now()))
                     .rounds(rounds.get())
                     .build();
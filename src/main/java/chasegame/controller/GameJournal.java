@@ -0,0 +1,373 @@
+package chasegame.controller;
+
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.tinylog.Logger;
+
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Write-ahead log of the game being played, so that a game survives a crash of the application.
+ * Every change of the game is a fixed size record holding the whole state of the game, written to the
+ * next slot of a small ring of records in a file. Recording only encodes the record into memory; a
+ * background thread writes the changed slots and forces them to disk in batches, and periodically
+ * records the running game again so that the clock loses at most one period. Recovery takes the valid
+ * record with the highest sequence number, so a torn last write only loses that record.
+ */
+@Singleton
+public class GameJournal {
+
+    /**
+     * Size of a record in bytes.
+     */
+    public static final int RECORD_SIZE = 128;
+
+    /**
+     * Number of records in the ring.
+     */
+    public static final int SLOTS = 256;
+
+    private static final int MAGIC = 0x43474A31;
+    private static final int CHECKED_FROM = 8;
+    private static final int NAME_BYTES = 35;
+    private static final int DOG_NAME_OFFSET = 56;
+    private static final int FOX_NAME_OFFSET = DOG_NAME_OFFSET + NAME_BYTES + 1;
+
+    /**
+     * The reason a record was written.
+     */
+    public enum Kind {
+        /**
+         * A new game was started.
+         */
+        BEGIN,
+        /**
+         * A move was made.
+         */
+        MOVE,
+        /**
+         * The game is still running, the record only refreshes the clock.
+         */
+        CLOCK,
+        /**
+         * The game was decided, there is nothing to resume.
+         */
+        END
+    }
+
+    /**
+     * The state of a game as recorded.
+     * @param sequence the number of the record, increasing with every record.
+     * @param kind the reason the record was written.
+     * @param state the board and the side to move, as encoded by {@link PackedState}.
+     * @param roundCounter the round counter of the controller.
+     * @param rounds the rounds shown to the players.
+     * @param dogPlayer the name of the dogs player, truncated to 35 bytes of UTF-8.
+     * @param foxPlayer the name of the fox player, truncated to 35 bytes of UTF-8.
+     * @param startTime the start of the game.
+     * @param writtenAt the time the record was written.
+     */
+    public record Snapshot(long sequence, Kind kind, long state, int roundCounter, int rounds,
+                           String dogPlayer, String foxPlayer, Instant startTime, Instant writtenAt) {
+
+        /**
+         * Returns the time played until the record was written.
+         * @return the elapsed time of the game.
+         */
+        public Duration elapsed() {
+            return Duration.between(startTime, writtenAt);
+        }
+
+        /**
+         * Rebuilds the board of the recorded game.
+         * @return a new model with the recorded positions and side to move.
+         */
+        public GameModel toModel() {
+            return PackedState.toModel(state);
+        }
+    }
+
+    private final Path file;
+    private final Duration flushInterval;
+    private final Duration clockInterval;
+    private final byte[] ring = new byte[SLOTS * RECORD_SIZE];
+    private final ByteBuffer encoder = ByteBuffer.wrap(ring);
+    private final ByteBuffer staging = ByteBuffer.allocateDirect(SLOTS * RECORD_SIZE);
+    private final CRC32C crc = new CRC32C();
+    private final Object writeLock = new Object();
+    private long sequence;
+    private long flushed;
+    private byte[] dogPlayer = new byte[0];
+    private byte[] foxPlayer = new byte[0];
+    private long startMillis;
+    private long state;
+    private int roundCounter;
+    private int rounds;
+    private boolean running;
+    private FileChannel channel;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a journal in the file named by the {@code chasegame.journal} system property, by default
+     * {@code ~/.chasegame/journal.wal}, forced to disk every 100 ms and refreshing the clock every second.
+     */
+    public GameJournal() {
+        this(Path.of(System.getProperty("chasegame.journal",
+                        Path.of(System.getProperty("user.home"), ".chasegame", "journal.wal").toString())),
+                Duration.ofMillis(100), Duration.ofSeconds(1));
+    }
+
+    /**
+     * Creates a journal.
+     * @param file the file of the log.
+     * @param flushInterval the time between two batches forced to disk.
+     * @param clockInterval the time between two records of a running game without moves.
+     */
+    public GameJournal(Path file, Duration flushInterval, Duration clockInterval) {
+        this.file = file;
+        this.flushInterval = flushInterval;
+        this.clockInterval = clockInterval;
+    }
+
+    /**
+     * Opens the log and starts writing in the background. Records made before are kept in memory.
+     * @return the last game of the log if it was not finished.
+     */
+    public synchronized Optional<Snapshot> start() {
+        if (channel != null) {
+            return Optional.empty();
+        }
+        Optional<Snapshot> last;
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            last = read(file);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long recovered = last.map(Snapshot::sequence).orElse(0L);
+        if (recovered >= sequence) {
+            sequence = recovered;
+            flushed = recovered;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::tick, clockInterval.toMillis(), clockInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        Logger.debug("Opened game journal {}", file);
+        return last.filter(snapshot -> snapshot.kind() != Kind.END);
+    }
+
+    /**
+     * Records the start of a game.
+     * @param dogPlayer the name of the dogs player.
+     * @param foxPlayer the name of the fox player.
+     * @param startTime the start of the game, earlier than now if a game is resumed.
+     * @param model the board at the start.
+     * @param roundCounter the round counter of the controller.
+     * @param rounds the rounds shown to the players.
+     */
+    public synchronized void begin(String dogPlayer, String foxPlayer, Instant startTime, GameModel model,
+                                   int roundCounter, int rounds) {
+        this.dogPlayer = truncate(dogPlayer);
+        this.foxPlayer = truncate(foxPlayer);
+        this.startMillis = startTime.toEpochMilli();
+        this.state = PackedState.of(model);
+        this.roundCounter = roundCounter;
+        this.rounds = rounds;
+        running = true;
+        append(Kind.BEGIN);
+    }
+
+    /**
+     * Records the state after a move.
+     * @param model the board after the move, with the turn already passed.
+     * @param roundCounter the round counter of the controller.
+     * @param rounds the rounds shown to the players.
+     */
+    public synchronized void move(GameModel model, int roundCounter, int rounds) {
+        this.state = PackedState.of(model);
+        this.roundCounter = roundCounter;
+        this.rounds = rounds;
+        append(Kind.MOVE);
+    }
+
+    /**
+     * Records that the game was decided.
+     */
+    public synchronized void end() {
+        running = false;
+        append(Kind.END);
+    }
+
+    private void tick() {
+        synchronized (this) {
+            if (running) {
+                append(Kind.CLOCK);
+            }
+        }
+    }
+
+    /**
+     * Encodes a record of the current game into its slot of the ring in memory.
+     */
+    private void append(Kind kind) {
+        sequence++;
+        int offset = (int) (sequence % SLOTS) * RECORD_SIZE;
+        encoder.putInt(offset, MAGIC)
+                .putLong(offset + 8, sequence)
+                .putInt(offset + 16, kind.ordinal())
+                .putInt(offset + 20, roundCounter)
+                .putInt(offset + 24, rounds)
+                .putInt(offset + 28, 0)
+                .putLong(offset + 32, state)
+                .putLong(offset + 40, startMillis)
+                .putLong(offset + 48, System.currentTimeMillis());
+        putName(offset + DOG_NAME_OFFSET, dogPlayer);
+        putName(offset + FOX_NAME_OFFSET, foxPlayer);
+        crc.reset();
+        crc.update(ring, offset + CHECKED_FROM, RECORD_SIZE - CHECKED_FROM);
+        encoder.putInt(offset + 4, (int) crc.getValue());
+    }
+
+    private void putName(int offset, byte[] name) {
+        ring[offset] = (byte) name.length;
+        System.arraycopy(name, 0, ring, offset + 1, name.length);
+        Arrays.fill(ring, offset + 1 + name.length, offset + 1 + NAME_BYTES, (byte) 0);
+    }
+
+    private static byte[] truncate(String name) {
+        String text = name == null ? "" : name;
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        while (bytes.length > NAME_BYTES) {
+            text = text.substring(0, text.length() - 1);
+            bytes = text.getBytes(StandardCharsets.UTF_8);
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the records made since the last flush to their slots of the file and forces them to disk.
+     * @throws IOException if the file can not be written.
+     */
+    public void flush() throws IOException {
+        synchronized (writeLock) {
+            long from;
+            long to;
+            synchronized (this) {
+                if (channel == null || sequence == flushed) {
+                    return;
+                }
+                from = Math.max(flushed + 1, sequence - SLOTS + 1);
+                to = sequence;
+                staging.clear();
+                for (long record = from; record <= to; record++) {
+                    staging.put(ring, (int) (record % SLOTS) * RECORD_SIZE, RECORD_SIZE);
+                }
+                staging.flip();
+                flushed = to;
+            }
+            for (long record = from; record <= to; record++) {
+                staging.limit(staging.position() + RECORD_SIZE);
+                long position = (record % SLOTS) * RECORD_SIZE;
+                while (staging.hasRemaining()) {
+                    position += channel.write(staging, position);
+                }
+            }
+            channel.force(false);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException e) {
+            Logger.error(e, "Writing the game journal failed");
+        }
+    }
+
+    /**
+     * Stops the background thread and forces the last records to disk.
+     */
+    public void close() {
+        ScheduledExecutorService stopping;
+        synchronized (this) {
+            stopping = scheduler;
+            scheduler = null;
+        }
+        if (stopping == null) {
+            return;
+        }
+        stopping.shutdownNow();
+        try {
+            stopping.awaitTermination(5, TimeUnit.SECONDS);
+            flush();
+            synchronized (this) {
+                channel.close();
+                channel = null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            Logger.error(e, "Closing the game journal failed");
+        }
+    }
+
+    /**
+     * Reads the newest valid record of a log.
+     * @param file the file of the log.
+     * @return the record with the highest sequence number and a correct checksum, if any.
+     * @throws IOException if the file can not be read.
+     */
+    public static Optional<Snapshot> read(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return Optional.empty();
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        var buffer = ByteBuffer.wrap(bytes);
+        var checksum = new CRC32C();
+        Snapshot newest = null;
+        for (int offset = 0; offset + RECORD_SIZE <= bytes.length; offset += RECORD_SIZE) {
+            checksum.reset();
+            checksum.update(bytes, offset + CHECKED_FROM, RECORD_SIZE - CHECKED_FROM);
+            if (buffer.getInt(offset) != MAGIC || buffer.getInt(offset + 4) != (int) checksum.getValue()) {
+                continue;
+            }
+            long sequence = buffer.getLong(offset + 8);
+            if (newest == null || sequence > newest.sequence()) {
+                newest = new Snapshot(sequence, Kind.values()[buffer.getInt(offset + 16)],
+                        buffer.getLong(offset + 32), buffer.getInt(offset + 20), buffer.getInt(offset + 24),
+                        getName(bytes, offset + DOG_NAME_OFFSET), getName(bytes, offset + FOX_NAME_OFFSET),
+                        Instant.ofEpochMilli(buffer.getLong(offset + 40)),
+                        Instant.ofEpochMilli(buffer.getLong(offset + 48)));
+            }
+        }
+        return Optional.ofNullable(newest);
+    }
+
+    private static String getName(byte[] bytes, int offset) {
+        return new String(bytes, offset + 1, Math.min(bytes[offset], NAME_BYTES), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,125 @@
+package chasegame.controller;
+
+import chasegame.engine.AlphaBetaSearch;
+import chasegame.engine.Move;
+import chasegame.engine.SearchBudget;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import chasegame.model.Position;
+import javafx.application.Platform;
+import org.tinylog.Logger;
+
+import javax.inject.Singleton;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Searches the best move of the side to move on a background thread while the player thinks.
+ * Every new position cancels the running search and starts a new one. The best move of each finished
+ * depth is handed to the UI thread, unless a newer position was given in the meantime.
+ */
+@Singleton
+public class HintService {
+
+    /**
+     * A suggested move.
+     * @param move the move.
+     * @param from the square of the moving piece.
+     * @param to the square the piece moves to.
+     * @param depth the number of plies searched.
+     * @param latencyMillis the time from the start of the search to this result.
+     */
+    public record Hint(Move move, Position from, Position to, int depth, long latencyMillis) {
+    }
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hint-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Executor publisher;
+    private final AtomicLong generation = new AtomicLong();
+    private Future<?> running;
+
+    /**
+     * Creates a service publishing hints on the JavaFX application thread.
+     */
+    public HintService() {
+        this(Platform::runLater);
+    }
+
+    /**
+     * Creates a service.
+     * @param publisher runs the delivery of hints to the listener.
+     */
+    public HintService(Executor publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * Starts pondering a position, cancelling the previous search. Does nothing more if the game is over.
+     * @param model the position, read on the calling thread only.
+     * @param listener receives the hint of every finished depth through the publisher.
+     */
+    public synchronized void ponder(GameModel model, Consumer<Hint> listener) {
+        cancel();
+        if (model.getStatus() != GameModel.GameStatus.IN_PROGRESS) {
+            return;
+        }
+        long state = PackedState.of(model);
+        long current = generation.get();
+        long start = System.nanoTime();
+        running = executor.submit(() -> {
+            var search = new AlphaBetaSearch(SearchBudget.ofMillis(Long.MAX_VALUE));
+            try {
+                search.search(state, Long.MAX_VALUE, result -> {
+                    if (generation.get() != current) {
+                        throw new CancellationException();
+                    }
+                    var hint = toHint(state, result, (System.nanoTime() - start) / 1_000_000);
+                    if (result.depth() == 1) {
+                        Logger.debug("First hint after {} ms", hint.latencyMillis());
+                    }
+                    publisher.execute(() -> {
+                        if (generation.get() == current) {
+                            listener.accept(hint);
+                        }
+                    });
+                });
+            } catch (CancellationException e) {
+                Logger.trace("Hint search cancelled");
+            }
+        });
+    }
+
+    private static Hint toHint(long state, AlphaBetaSearch.Result result, long latencyMillis) {
+        var move = Move.decode(result.move());
+        int square = PackedState.square(state, move.pieceNumber());
+        var from = Position.of(square / GameModel.BOARD_SIZE, square % GameModel.BOARD_SIZE);
+        return new Hint(move, from, from.moveTo(move.direction()), result.depth(), latencyMillis);
+    }
+
+    /**
+     * Stops the running search and discards its pending hints.
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (running != null) {
+            running.cancel(true);
+            running = null;
+        }
+    }
+
+    /**
+     * Stops the search thread.
+     */
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,128 @@
+package chasegame.controller;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+import org.tinylog.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Loads every fxml view once and switches between them by swapping the root of a single {@link Scene}.
+ */
+@Singleton
+public class SceneNavigator {
+
+    /**
+     * The views of the application and their fxml templates.
+     */
+    public enum View {
+        LANDING("/fxml/landing.fxml"),
+        GAME("/fxml/game.fxml"),
+        HIGH_SCORES("/fxml/highscore.fxml");
+
+        private final String location;
+
+        View(String location) {
+            this.location = location;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+    }
+
+    private final Map<View, Parent> roots = new EnumMap<>(View.class);
+    private final Map<View, Object> controllers = new EnumMap<>(View.class);
+
+    @Inject
+    private Provider<FXMLLoader> fxmlLoaderProvider;
+
+    private Stage stage;
+    private Scene scene;
+
+    /**
+     * Parses all fxml templates and shows the landing view on the given stage.
+     *
+     * @param stage the primary stage of the application.
+     * @throws IOException occurs if the {@link FXMLLoader} can't find a file.
+     */
+    public void init(Stage stage) throws IOException {
+        long start = System.nanoTime();
+        for (var view : View.values()) {
+            var fxmlLoader = fxmlLoaderProvider.get();
+            fxmlLoader.setLocation(getClass().getResource(view.getLocation()));
+            roots.put(view, fxmlLoader.load());
+            controllers.put(view, fxmlLoader.getController());
+        }
+        Logger.debug("Loaded {} views in {} ms", roots.size(), (System.nanoTime() - start) / 1_000_000);
+        this.stage = stage;
+        this.scene = new Scene(roots.get(View.LANDING));
+        stage.setScene(scene);
+    }
+
+    /**
+     * Returns the controller created for a view.
+     *
+     * @param view the view whose controller is requested.
+     * @param <T> the type of the controller.
+     * @return the controller instance of the view.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getController(View view) {
+        return (T) controllers.get(view);
+    }
+
+    /**
+     * Shows an already loaded view on the stage.
+     *
+     * @param view the view to be shown.
+     */
+    public void show(View view) {
+        long start = System.nanoTime();
+        scene.setRoot(roots.get(view));
+        stage.sizeToScene();
+        stage.show();
+        Logger.debug("Switched to {} in {} us", view, (System.nanoTime() - start) / 1_000);
+    }
+
+    /**
+     * Resets the game view to a new game for the given players and shows it.
+     *
+     * @param dogPlayer name of the player moving the dogs.
+     * @param foxPlayer name of the player moving the fox.
+     */
+    public void showNewGame(String dogPlayer, String foxPlayer) {
+        GameController gameController = getController(View.GAME);
+        gameController.setPlayerName(dogPlayer);
+        gameController.setPlayerName1(foxPlayer);
+        gameController.newGame();
+        show(View.GAME);
+    }
+
+    /**
+     * Continues a game interrupted by the end of the application and shows it.
+     *
+     * @param snapshot the last record of the game.
+     */
+    public void showResumedGame(GameJournal.Snapshot snapshot) {
+        GameController gameController = getController(View.GAME);
+        gameController.resumeGame(snapshot);
+        show(View.GAME);
+    }
+
+    /**
+     * Reloads the high scores and shows the high score view.
+     */
+    public void showHighScores() {
+        EndController endController = getController(View.HIGH_SCORES);
+        endController.loadHighScores();
+        show(View.HIGH_SCORES);
+    }
+}
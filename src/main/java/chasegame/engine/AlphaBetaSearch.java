@@ -0,0 +1,185 @@
+package chasegame.engine;
+
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+
+/**
+ * Iterative deepening alpha-beta search over packed states, scored by an {@link Evaluator} from the point
+ * of view of the fox. Every finished depth is reported, and the best move of one depth is searched first
+ * at the next. The search stops at the end of its budget, when the result is a forced win, or when the
+ * running thread is interrupted.
+ */
+public class AlphaBetaSearch implements Player {
+
+    /**
+     * Score of a won position, from the point of view of the fox. Faster wins score higher.
+     */
+    public static final float WIN_SCORE = 1000;
+
+    private static final int MAX_DEPTH = 64;
+    private static final int CHECK_INTERVAL = 1 << 10;
+
+    /**
+     * Outcome of one finished depth.
+     * @param move the best packed move.
+     * @param score the score of the move, from the point of view of the fox.
+     * @param depth the number of plies searched.
+     * @param nodes the number of states visited so far.
+     */
+    public record Result(int move, float score, int depth, long nodes) {
+
+        /**
+         * Checks if the score is a forced win for either side.
+         * @return true if deeper searches cannot change the outcome.
+         */
+        public boolean isDecided() {
+            return Math.abs(score) >= WIN_SCORE;
+        }
+    }
+
+    private final MoveGenerator generator;
+    private final Evaluator evaluator;
+    private final SearchBudget budget;
+    private final int maxDepth;
+    private long nodes;
+    private long deadline;
+
+    /**
+     * Creates a search with the bitboard rules and the default evaluation.
+     * @param budget the time allowed for {@link #chooseMove(GameModel)}; playouts are ignored.
+     */
+    public AlphaBetaSearch(SearchBudget budget) {
+        this(new BitboardMoveGenerator(), Evaluator.DEFAULT, budget);
+    }
+
+    /**
+     * Creates a search.
+     * @param generator the move generation rules.
+     * @param evaluator evaluation of the leaves.
+     * @param budget the time allowed for {@link #chooseMove(GameModel)}; playouts are ignored.
+     */
+    public AlphaBetaSearch(MoveGenerator generator, Evaluator evaluator, SearchBudget budget) {
+        this(generator, evaluator, budget, MAX_DEPTH);
+    }
+
+    /**
+     * Creates a search limited in depth as well as in time.
+     * @param generator the move generation rules.
+     * @param evaluator evaluation of the leaves.
+     * @param budget the time allowed for {@link #chooseMove(GameModel)}; playouts are ignored.
+     * @param maxDepth the deepest number of plies searched.
+     */
+    public AlphaBetaSearch(MoveGenerator generator, Evaluator evaluator, SearchBudget budget, int maxDepth) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH) {
+            throw new IllegalArgumentException();
+        }
+        this.generator = generator;
+        this.evaluator = evaluator;
+        this.budget = budget;
+        this.maxDepth = maxDepth;
+    }
+
+    @Override
+    public Move chooseMove(GameModel model) {
+        return Move.decode(search(PackedState.of(model), budget.millis(), result -> { }).move());
+    }
+
+    /**
+     * Searches a state with increasing depth.
+     * @param state the encoded state, with the game in progress.
+     * @param millis the time limit, {@link Long#MAX_VALUE} to search until interrupted or decided.
+     * @param onDepth called with the result of every finished depth, on the searching thread.
+     * @return the result of the deepest finished depth.
+     * @throws CancellationException if the thread was interrupted before the first depth finished.
+     */
+    public Result search(long state, long millis, Consumer<Result> onDepth) {
+        long start = System.nanoTime();
+        deadline = millis == Long.MAX_VALUE ? Long.MAX_VALUE : start + millis * 1_000_000;
+        nodes = 0;
+        Result best = null;
+        int firstMove = -1;
+        for (int depth = 1; depth <= maxDepth; depth++) {
+            Result result;
+            try {
+                result = searchRoot(state, depth, firstMove);
+            } catch (CancellationException e) {
+                if (best == null) {
+                    throw e;
+                }
+                break;
+            }
+            best = result;
+            firstMove = result.move();
+            onDepth.accept(result);
+            if (result.isDecided() || System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    private Result searchRoot(long state, int depth, int firstMove) {
+        boolean fox = PackedState.isFoxToMove(state);
+        int legal = generator.legalMoves(state);
+        if (legal == 0 || generator.status(state) != GameModel.GameStatus.IN_PROGRESS) {
+            throw new IllegalArgumentException("Game is over");
+        }
+        float alpha = Float.NEGATIVE_INFINITY;
+        float beta = Float.POSITIVE_INFINITY;
+        int best = firstMove >= 0 ? firstMove : Integer.numberOfTrailingZeros(legal);
+        float bestScore = fox ? alpha : beta;
+        int remaining = legal & ~(1 << best);
+        int move = best;
+        while (true) {
+            float score = alphaBeta(generator.play(state, move), depth - 1, alpha, beta);
+            if (fox ? score > bestScore : score < bestScore) {
+                bestScore = score;
+                best = move;
+            }
+            if (fox) {
+                alpha = Math.max(alpha, score);
+            } else {
+                beta = Math.min(beta, score);
+            }
+            if (remaining == 0) {
+                break;
+            }
+            move = Integer.numberOfTrailingZeros(remaining);
+            remaining &= remaining - 1;
+        }
+        return new Result(best, bestScore, depth, nodes);
+    }
+
+    private float alphaBeta(long state, int remaining, float alpha, float beta) {
+        if (++nodes % CHECK_INTERVAL == 0
+                && (Thread.currentThread().isInterrupted() || System.nanoTime() >= deadline)) {
+            throw new CancellationException();
+        }
+        var status = generator.status(state);
+        if (status != GameModel.GameStatus.IN_PROGRESS) {
+            return status == GameModel.GameStatus.FOX_WON ? WIN_SCORE + remaining : -WIN_SCORE - remaining;
+        }
+        if (remaining <= 0) {
+            return (float) evaluator.evaluate(PackedState.square(state, 0), PackedState.dogMask(state));
+        }
+        boolean fox = PackedState.isFoxToMove(state);
+        float best = fox ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+        for (int legal = generator.legalMoves(state); legal != 0; legal &= legal - 1) {
+            float score = alphaBeta(generator.play(state, Integer.numberOfTrailingZeros(legal)), remaining - 1, alpha, beta);
+            if (fox) {
+                best = Math.max(best, score);
+                alpha = Math.max(alpha, score);
+            } else {
+                best = Math.min(best, score);
+                beta = Math.min(beta, score);
+            }
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return best;
+    }
+}
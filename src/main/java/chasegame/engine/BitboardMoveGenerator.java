@@ -0,0 +1,95 @@
+package chasegame.engine;
+
+import chasegame.model.DogDirection;
+import chasegame.model.FoxDirection;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+
+/**
+ * Scalar {@link MoveGenerator} using tables of the target square of every direction from every square.
+ * A move is legal if the single bit of its target square is not in the occupancy mask; moves leaving
+ * the board have an empty target mask, so no bounds checks are needed.
+ */
+public class BitboardMoveGenerator implements MoveGenerator {
+
+    private static final int SIZE = GameModel.BOARD_SIZE;
+    private static final int SQUARES = SIZE * SIZE;
+    private static final int FOX_DIRECTIONS = FoxDirection.values().length;
+    private static final int DOG_DIRECTIONS = DogDirection.values().length;
+
+    private static final long[] FOX_TARGET = new long[FOX_DIRECTIONS * SQUARES];
+    private static final long[] DOG_TARGET = new long[DOG_DIRECTIONS * SQUARES];
+    private static final int[] ROW = new int[SQUARES];
+
+    static {
+        if (SQUARES > Long.SIZE) {
+            throw new ExceptionInInitializerError("Board does not fit in a long: " + SQUARES + " squares");
+        }
+        for (int square = 0; square < SQUARES; square++) {
+            ROW[square] = square / SIZE;
+            for (var direction : FoxDirection.values()) {
+                FOX_TARGET[direction.ordinal() * SQUARES + square] = target(square, direction.getRowChange(), direction.getColChange());
+            }
+            for (var direction : DogDirection.values()) {
+                DOG_TARGET[direction.ordinal() * SQUARES + square] = target(square, direction.getRowChange(), direction.getColChange());
+            }
+        }
+    }
+
+    private static long target(int square, int rowChange, int colChange) {
+        int row = square / SIZE + rowChange;
+        int col = square % SIZE + colChange;
+        return 0 <= row && row < SIZE && 0 <= col && col < SIZE ? 1L << (row * SIZE + col) : 0;
+    }
+
+    /**
+     * Returns 1 if the target bit is set and free, 0 otherwise.
+     * @param target the target mask of a move.
+     * @param occupied the occupied squares.
+     * @return 1 for a legal move.
+     */
+    private static int free(long target, long occupied) {
+        long free = target & ~occupied;
+        return (int) ((free | -free) >>> 63);
+    }
+
+    @Override
+    public int legalMoves(long state) {
+        int fox = PackedState.square(state, 0);
+        long dogs = PackedState.dogMask(state);
+        long occupied = dogs | 1L << fox;
+        if (PackedState.isFoxToMove(state)) {
+            return free(FOX_TARGET[fox], occupied)
+                    | free(FOX_TARGET[SQUARES + fox], occupied) << 1
+                    | free(FOX_TARGET[2 * SQUARES + fox], occupied) << 2
+                    | free(FOX_TARGET[3 * SQUARES + fox], occupied) << 3;
+        }
+        int moves = 0;
+        for (int dog = 1; dog < PackedState.PIECES; dog++) {
+            int square = PackedState.square(state, dog);
+            moves |= (free(DOG_TARGET[square], occupied) | free(DOG_TARGET[SQUARES + square], occupied) << 1) << (dog << 2);
+        }
+        return moves;
+    }
+
+    @Override
+    public long play(long state, int move) {
+        int piece = Move.pieceOf(move);
+        int square = PackedState.square(state, piece);
+        long target = piece == 0 ? FOX_TARGET[(move & 3) * SQUARES + square] : DOG_TARGET[(move & 3) * SQUARES + square];
+        return PackedState.withSquare(state, piece, Long.numberOfTrailingZeros(target)) ^ PackedState.FOX_TO_MOVE;
+    }
+
+    @Override
+    public GameModel.GameStatus status(long state) {
+        int foxRow = ROW[PackedState.square(state, 0)];
+        int rearRow = ROW[63 - Long.numberOfLeadingZeros(PackedState.dogMask(state))];
+        if (foxRow == SIZE - 1 || foxRow > rearRow) {
+            return GameModel.GameStatus.FOX_WON;
+        }
+        if (legalMoves(state) == 0) {
+            return PackedState.isFoxToMove(state) ? GameModel.GameStatus.DOGS_WON : GameModel.GameStatus.FOX_WON;
+        }
+        return GameModel.GameStatus.IN_PROGRESS;
+    }
+}
@@ -0,0 +1,188 @@
+package chasegame.engine;
+
+import chasegame.model.GameModel;
+import org.tinylog.Logger;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Offline harness fitting the weights of {@link Evaluator} to the results of self-play games.
+ * Every position of every game is labelled with the winner, and the weights are fitted by logistic
+ * regression: the evaluation is treated as the log-odds of a fox win. The gradient of each epoch and the
+ * loss are summed over fixed chunks of the samples in parallel and the chunks are added up in order, so
+ * the fitted weights do not depend on the number of threads.
+ */
+public class EvaluationTuner {
+
+    private static final int CHUNK = 4096;
+
+    private final float[] features;
+    private final byte[] foxWins;
+    private final int samples;
+
+    /**
+     * Creates a tuner over recorded samples.
+     * @param features {@link Evaluator#FEATURES} values for each sample.
+     * @param foxWins 1 if the fox won the game of the sample, 0 otherwise.
+     * @param samples number of samples.
+     */
+    public EvaluationTuner(float[] features, byte[] foxWins, int samples) {
+        this.features = features;
+        this.foxWins = foxWins;
+        this.samples = samples;
+    }
+
+    /**
+     * Records self-play games with seed 0, see {@link #fromSelfPlay(int, int, long)}.
+     * @param games number of games.
+     * @param playouts playouts per move of both players.
+     * @return the tuner over the recorded samples.
+     */
+    public static EvaluationTuner fromSelfPlay(int games, int playouts) {
+        return fromSelfPlay(games, playouts, 0);
+    }
+
+    /**
+     * Plays games between two MCTS players and records every position reached.
+     * Games run in parallel, each with its own single threaded players seeded from the number of the
+     * game, so the samples are the same with any number of threads.
+     * @param games number of games.
+     * @param playouts playouts per move of both players.
+     * @param seed the seed of the self-play.
+     * @return the tuner over the recorded samples.
+     */
+    public static EvaluationTuner fromSelfPlay(int games, int playouts, long seed) {
+        int maxPlies = 4 * GameModel.BOARD_SIZE * GameModel.BOARD_SIZE;
+        float[][] gameFeatures = new float[games][];
+        byte[][] gameLabels = new byte[games][];
+        IntStream.range(0, games).parallel().forEach(game -> {
+            float[] recorded = new float[maxPlies * Evaluator.FEATURES];
+            int plies = 0;
+            var model = new GameModel();
+            try (var player = new MctsPlayer(1, 100_000, SearchBudget.ofPlayouts(playouts),
+                    Seeds.derive(seed, game))) {
+                while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                    Evaluator.features(Evaluator.foxSquare(model), Evaluator.dogMask(model), recorded,
+                            plies++ * Evaluator.FEATURES);
+                    Moves.play(model, player.chooseMove(model).encode());
+                }
+            }
+            byte[] labels = new byte[plies];
+            Arrays.fill(labels, (byte) (model.getStatus() == GameModel.GameStatus.FOX_WON ? 1 : 0));
+            gameFeatures[game] = Arrays.copyOf(recorded, plies * Evaluator.FEATURES);
+            gameLabels[game] = labels;
+        });
+        int samples = Arrays.stream(gameLabels).mapToInt(labels -> labels.length).sum();
+        float[] features = new float[samples * Evaluator.FEATURES];
+        byte[] foxWins = new byte[samples];
+        int offset = 0;
+        for (int game = 0; game < games; game++) {
+            System.arraycopy(gameFeatures[game], 0, features, offset * Evaluator.FEATURES, gameFeatures[game].length);
+            System.arraycopy(gameLabels[game], 0, foxWins, offset, gameLabels[game].length);
+            offset += gameLabels[game].length;
+        }
+        return new EvaluationTuner(features, foxWins, samples);
+    }
+
+    public int getSampleCount() {
+        return samples;
+    }
+
+    /**
+     * Fits the weights by full batch gradient descent on the logistic loss.
+     * @param initial weights to start from.
+     * @param epochs number of gradient steps.
+     * @param learningRate step size.
+     * @return the fitted evaluator.
+     */
+    public Evaluator tune(Evaluator initial, int epochs, double learningRate) {
+        double[] weights = initial.getWeights();
+        int chunks = (samples + CHUNK - 1) / CHUNK;
+        double[][] partial = new double[chunks][Evaluator.FEATURES];
+        for (int epoch = 0; epoch < epochs; epoch++) {
+            double[] current = weights.clone();
+            IntStream.range(0, chunks).parallel().forEach(chunk -> gradient(current, chunk, partial[chunk]));
+            for (int f = 0; f < Evaluator.FEATURES; f++) {
+                double sum = 0;
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    sum += partial[chunk][f];
+                }
+                weights[f] -= learningRate * sum / samples;
+            }
+        }
+        return new Evaluator(weights);
+    }
+
+    /**
+     * Sums the gradient of the logistic loss over one chunk of the samples.
+     * @param weights the current weights.
+     * @param chunk index of the chunk.
+     * @param out array receiving the gradient, overwritten.
+     */
+    private void gradient(double[] weights, int chunk, double[] out) {
+        Arrays.fill(out, 0);
+        int end = Math.min(samples, (chunk + 1) * CHUNK);
+        for (int i = chunk * CHUNK; i < end; i++) {
+            int base = i * Evaluator.FEATURES;
+            double error = sigmoid(dot(weights, base)) - foxWins[i];
+            for (int f = 0; f < Evaluator.FEATURES; f++) {
+                out[f] += error * features[base + f];
+            }
+        }
+    }
+
+    /**
+     * Computes the mean logistic loss of the samples.
+     * @param weights the weights to measure.
+     * @return the mean loss.
+     */
+    public double loss(double[] weights) {
+        int chunks = (samples + CHUNK - 1) / CHUNK;
+        double[] partial = new double[chunks];
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            double sum = 0;
+            for (int i = chunk * CHUNK, end = Math.min(samples, (chunk + 1) * CHUNK); i < end; i++) {
+                double p = sigmoid(dot(weights, i * Evaluator.FEATURES));
+                p = Math.min(Math.max(p, 1e-12), 1 - 1e-12);
+                sum += foxWins[i] == 1 ? -Math.log(p) : -Math.log(1 - p);
+            }
+            partial[chunk] = sum;
+        });
+        double sum = 0;
+        for (double chunkLoss : partial) {
+            sum += chunkLoss;
+        }
+        return sum / samples;
+    }
+
+    private double dot(double[] weights, int base) {
+        double sum = 0;
+        for (int f = 0; f < Evaluator.FEATURES; f++) {
+            sum += weights[f] * features[base + f];
+        }
+        return sum;
+    }
+
+    private static double sigmoid(double x) {
+        return 1 / (1 + Math.exp(-x));
+    }
+
+    /**
+     * Runs self-play and prints the fitted weights.
+     * @param args number of games, playouts per move, epochs and seed, all optional.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int playouts = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int epochs = args.length > 2 ? Integer.parseInt(args[2]) : 2000;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        long start = System.nanoTime();
+        var tuner = fromSelfPlay(games, playouts, seed);
+        Logger.info("Recorded {} positions from {} games in {} ms", tuner.getSampleCount(), games,
+                (System.nanoTime() - start) / 1_000_000);
+        var tuned = tuner.tune(Evaluator.DEFAULT, epochs, 0.05);
+        Logger.info("Loss {} -> {}", tuner.loss(Evaluator.DEFAULT.getWeights()), tuner.loss(tuned.getWeights()));
+        Logger.info("Tuned weights: {}", Arrays.toString(tuned.getWeights()));
+    }
+}
@@ -0,0 +1,177 @@
+package chasegame.engine;
+
+import chasegame.model.GameModel;
+
+/**
+ * Linear evaluation of positions from the point of view of the fox.
+ * Squares are numbered {@code row * BOARD_SIZE + col} and the dogs are given as a bit mask of their
+ * squares, so the board must have at most 64 squares. Every feature is read from tables built once
+ * per board size, and evaluating a position allocates nothing.
+ */
+public class Evaluator {
+
+    /**
+     * Number of features, including the constant bias feature.
+     */
+    public static final int FEATURES = 5;
+
+    /**
+     * Index of the feature measuring how far the fox has got past the rearmost dog.
+     */
+    public static final int ADVANCE = 0;
+
+    /**
+     * Index of the feature counting the free squares next to the fox.
+     */
+    public static final int FOX_MOBILITY = 1;
+
+    /**
+     * Index of the feature counting the lanes of the board that no dog covers.
+     */
+    public static final int LANE_GAPS = 2;
+
+    /**
+     * Index of the feature measuring the row difference between the front and the rear dog.
+     */
+    public static final int DOG_SPREAD = 3;
+
+    /**
+     * Index of the constant feature.
+     */
+    public static final int BIAS = 4;
+
+    /**
+     * Hand-tuned weights, used until better ones are fitted by {@link EvaluationTuner}.
+     */
+    public static final Evaluator DEFAULT = new Evaluator(new double[]{0.9, 0.35, 0.6, 0.25, -1.5});
+
+    private static final int SQUARES = GameModel.BOARD_SIZE * GameModel.BOARD_SIZE;
+    private static final int LANES = (GameModel.BOARD_SIZE + 1) / 2;
+
+    private static final int[] ROW = new int[SQUARES];
+    private static final long[] FOX_NEIGHBORS = new long[SQUARES];
+    private static final long[] LANE_MASK = new long[LANES];
+
+    static {
+        if (SQUARES > Long.SIZE) {
+            throw new ExceptionInInitializerError("Board does not fit in a long: " + SQUARES + " squares");
+        }
+        int size = GameModel.BOARD_SIZE;
+        for (int square = 0; square < SQUARES; square++) {
+            int row = square / size;
+            int col = square % size;
+            ROW[square] = row;
+            LANE_MASK[col / 2] |= 1L << square;
+            for (int rowChange = -1; rowChange <= 1; rowChange += 2) {
+                for (int colChange = -1; colChange <= 1; colChange += 2) {
+                    int r = row + rowChange;
+                    int c = col + colChange;
+                    if (0 <= r && r < size && 0 <= c && c < size) {
+                        FOX_NEIGHBORS[square] |= 1L << (r * size + c);
+                    }
+                }
+            }
+        }
+    }
+
+    private final double[] weights;
+
+    /**
+     * Creates an evaluator.
+     * @param weights one weight for each feature, indexed by the feature constants.
+     */
+    public Evaluator(double[] weights) {
+        if (weights.length != FEATURES) {
+            throw new IllegalArgumentException();
+        }
+        this.weights = weights.clone();
+    }
+
+    /**
+     * Returns a copy of the weights.
+     * @return the weights indexed by the feature constants.
+     */
+    public double[] getWeights() {
+        return weights.clone();
+    }
+
+    /**
+     * Evaluates a position given by squares.
+     * @param fox square of the fox.
+     * @param dogs bit mask of the squares of the dogs.
+     * @return the score, positive if the fox is better.
+     */
+    public double evaluate(int fox, long dogs) {
+        int rearRow = ROW[63 - Long.numberOfLeadingZeros(dogs)];
+        int frontRow = ROW[Long.numberOfTrailingZeros(dogs)];
+        return weights[ADVANCE] * (ROW[fox] - rearRow)
+                + weights[FOX_MOBILITY] * Long.bitCount(FOX_NEIGHBORS[fox] & ~dogs)
+                + weights[LANE_GAPS] * laneGaps(dogs)
+                + weights[DOG_SPREAD] * (rearRow - frontRow)
+                + weights[BIAS];
+    }
+
+    /**
+     * Evaluates the current state of a model.
+     * @param model the game state.
+     * @return the score, positive if the fox is better.
+     */
+    public double evaluate(GameModel model) {
+        return evaluate(foxSquare(model), dogMask(model));
+    }
+
+    /**
+     * Writes the features of a position, the values the weights are multiplied with.
+     * @param fox square of the fox.
+     * @param dogs bit mask of the squares of the dogs.
+     * @param out array receiving {@link #FEATURES} values.
+     * @param offset index of the first value in the array.
+     */
+    public static void features(int fox, long dogs, float[] out, int offset) {
+        int rearRow = ROW[63 - Long.numberOfLeadingZeros(dogs)];
+        int frontRow = ROW[Long.numberOfTrailingZeros(dogs)];
+        out[offset + ADVANCE] = ROW[fox] - rearRow;
+        out[offset + FOX_MOBILITY] = Long.bitCount(FOX_NEIGHBORS[fox] & ~dogs);
+        out[offset + LANE_GAPS] = laneGaps(dogs);
+        out[offset + DOG_SPREAD] = rearRow - frontRow;
+        out[offset + BIAS] = 1;
+    }
+
+    /**
+     * Counts the lanes, pairs of neighbouring columns, that contain no dog.
+     * @param dogs bit mask of the squares of the dogs.
+     * @return the number of open lanes.
+     */
+    private static int laneGaps(long dogs) {
+        int gaps = LANES;
+        for (int lane = 0; lane < LANES; lane++) {
+            long covered = dogs & LANE_MASK[lane];
+            gaps -= (int) ((covered | -covered) >>> 63);
+        }
+        return gaps;
+    }
+
+    /**
+     * Returns the square of the fox in a model.
+     * @param model the game state.
+     * @return the square index.
+     */
+    public static int foxSquare(GameModel model) {
+        var position = model.getPiecePosition(0);
+        return position.row() * GameModel.BOARD_SIZE + position.col();
+    }
+
+    /**
+     * Returns the squares of the dogs in a model as a bit mask.
+     * @param model the game state.
+     * @return the bit mask.
+     */
+    public static long dogMask(GameModel model) {
+        long dogs = 0;
+        for (int i = 1; i < model.getPieceCount(); i++) {
+            var position = model.getPiecePosition(i);
+            dogs |= 1L << (position.row() * GameModel.BOARD_SIZE + position.col());
+        }
+        return dogs;
+    }
+}
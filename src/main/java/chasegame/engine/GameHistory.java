@@ -0,0 +1,153 @@
+package chasegame.engine;
+
+import chasegame.model.DogDirection;
+import chasegame.model.GameModel;
+import chasegame.model.Piece;
+import chasegame.model.Position;
+
+import java.util.Arrays;
+
+/**
+ * Full move history of one game, stored in primitive arrays. Every ply takes a {@code short} holding the
+ * packed move, and at a fixed interval of plies the squares of all pieces and the side to move are
+ * stored in an {@code int} arena, so the position after any ply is rebuilt by replaying fewer moves than
+ * the interval. A history can be {@linkplain #reset(GameModel) reset} and reused
+ * for the next game without giving back its arrays.
+ */
+public class GameHistory {
+
+    /**
+     * Default number of plies between two snapshots.
+     */
+    public static final int SNAPSHOT_INTERVAL = 64;
+
+    private final int interval;
+    private short[] moves;
+    private int[] snapshots = new int[0];
+    private Piece.PieceColor[] colors;
+    private int stride;
+    private int size;
+
+    /**
+     * Creates a history starting from a position.
+     * @param start the position before the first ply, left unchanged.
+     */
+    public GameHistory(GameModel start) {
+        this(start, SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Creates a history starting from a position.
+     * @param start the position before the first ply, left unchanged.
+     * @param interval number of plies between two snapshots.
+     */
+    public GameHistory(GameModel start, int interval) {
+        if (interval < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.interval = interval;
+        moves = new short[Math.max(16, interval)];
+        reset(start);
+    }
+
+    /**
+     * Empties the history and sets a new start position, keeping the arrays for reuse.
+     * @param start the position before the first ply, left unchanged.
+     */
+    public void reset(GameModel start) {
+        if (Move.encode(start.getPieceCount() - 1, DogDirection.UP_RIGHT) > Short.MAX_VALUE) {
+            throw new IllegalArgumentException();
+        }
+        colors = new Piece.PieceColor[start.getPieceCount()];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = start.getPieceColor(i);
+        }
+        stride = colors.length + 1;
+        if (snapshots.length < stride) {
+            snapshots = new int[stride * 4];
+        }
+        size = 0;
+        snapshot(start);
+    }
+
+    /**
+     * Appends a ply.
+     * @param move the packed move played.
+     * @param after the position after the move, read only when a snapshot is due.
+     */
+    public void record(int move, GameModel after) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = (short) move;
+        if (size % interval == 0) {
+            snapshot(after);
+        }
+    }
+
+    private void snapshot(GameModel model) {
+        int offset = size / interval * stride;
+        if (offset + stride > snapshots.length) {
+            snapshots = Arrays.copyOf(snapshots, snapshots.length * 2);
+        }
+        snapshots[offset] = model.getTurnOrder().ordinal();
+        for (int i = 0; i < colors.length; i++) {
+            var position = model.getPiecePosition(i);
+            snapshots[offset + 1 + i] = position.row() * GameModel.BOARD_SIZE + position.col();
+        }
+    }
+
+    /**
+     * Returns the number of plies recorded.
+     * @return the length of the history.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the move of a ply.
+     * @param ply index of the ply, from 0.
+     * @return the packed move.
+     */
+    public int moveAt(int ply) {
+        if (ply < 0 || ply >= size) {
+            throw new IndexOutOfBoundsException(ply);
+        }
+        return moves[ply];
+    }
+
+    /**
+     * Rebuilds the position after a number of plies from the nearest snapshot.
+     * @param ply number of plies played, from 0 for the start position to {@link #size()}.
+     * @return a new model of the position.
+     */
+    public GameModel positionAt(int ply) {
+        if (ply < 0 || ply > size) {
+            throw new IndexOutOfBoundsException(ply);
+        }
+        int base = ply / interval;
+        int offset = base * stride;
+        Piece[] pieces = new Piece[colors.length];
+        for (int i = 0; i < pieces.length; i++) {
+            int square = snapshots[offset + 1 + i];
+            pieces[i] = new Piece(colors[i], Position.of(square / GameModel.BOARD_SIZE, square % GameModel.BOARD_SIZE));
+        }
+        var model = new GameModel(pieces);
+        if (model.getTurnOrder().ordinal() != snapshots[offset]) {
+            model.changeTurnOrder();
+        }
+        for (int i = base * interval; i < ply; i++) {
+            Moves.play(model, moves[i]);
+        }
+        return model;
+    }
+
+    /**
+     * Returns the memory held by the arrays of the history.
+     * @return the size of the arrays in bytes, including array headers.
+     */
+    public long getMemoryBytes() {
+        return 16 + (long) moves.length * Short.BYTES + 16 + (long) snapshots.length * Integer.BYTES;
+    }
+}
@@ -0,0 +1,301 @@
+package chasegame.engine;
+
+import chasegame.model.GameModel;
+import org.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Monte Carlo tree search player using UCT selection and random playouts.
+ * Every worker thread searches its own tree from the same root (root parallelism) and the visit
+ * counts of the root moves are summed at the end. The trees are kept between moves and re-rooted
+ * at the position reached, so earlier playouts are not thrown away.
+ * Every worker has its own generator derived from the seed of the player, so with a budget of playouts
+ * a seeded player makes the same moves in every run; a budget of time depends on the speed of the run.
+ */
+public class MctsPlayer implements Player, AutoCloseable {
+
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    private final SearchBudget budget;
+    private final Worker[] workers;
+    private final ExecutorService executor;
+
+    private GameModel lastRoot;
+    private long lastPlayouts;
+    private long lastNanos;
+
+    /**
+     * Creates the player with a seed of its own.
+     * @param threads number of worker threads, each with its own tree.
+     * @param nodesPerTree capacity of the tree of each worker.
+     * @param budget limit of a search for one move.
+     */
+    public MctsPlayer(int threads, int nodesPerTree, SearchBudget budget) {
+        this(threads, nodesPerTree, budget, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Creates the player.
+     * @param threads number of worker threads, each with its own tree.
+     * @param nodesPerTree capacity of the tree of each worker.
+     * @param budget limit of a search for one move.
+     * @param seed the seed from which the generators of the workers are derived.
+     */
+    public MctsPlayer(int threads, int nodesPerTree, SearchBudget budget, long seed) {
+        this.budget = budget;
+        this.workers = new Worker[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Worker(nodesPerTree, Seeds.random(seed, i));
+        }
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mcts-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Move chooseMove(GameModel model) {
+        int[] path = findPath(lastRoot, model);
+        for (var worker : workers) {
+            worker.reroot(path);
+        }
+        lastRoot = model.copy();
+
+        long start = System.nanoTime();
+        var workerBudget = new SearchBudget(budget.playouts() == Long.MAX_VALUE
+                ? Long.MAX_VALUE : Math.max(1, budget.playouts() / workers.length), budget.millis());
+        List<Future<Long>> futures = new ArrayList<>(workers.length);
+        for (var worker : workers) {
+            var root = model.copy();
+            futures.add(executor.submit(() -> worker.search(root, workerBudget, start)));
+        }
+        long playouts = 0;
+        for (var future : futures) {
+            try {
+                playouts += future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        lastPlayouts = playouts;
+        lastNanos = System.nanoTime() - start;
+
+        int best = bestRootMove();
+        if (Logger.isDebugEnabled()) {
+            Logger.debug("MCTS chose {} after {} playouts ({} playouts/s)", Move.decode(best), playouts,
+                    (long) getPlayoutsPerSecond());
+        }
+        return Move.decode(best);
+    }
+
+    /**
+     * Sums the visits of the root moves over all trees and picks the most visited move.
+     * @return the packed move.
+     */
+    private int bestRootMove() {
+        var first = workers[0].tree;
+        int best = first.move[first.firstChild[0]];
+        long bestVisits = -1;
+        for (int child = first.firstChild[0]; child < first.firstChild[0] + first.childCount[0]; child++) {
+            long visits = 0;
+            for (var worker : workers) {
+                int node = worker.tree.findChild(0, first.move[child]);
+                if (node >= 0) {
+                    visits += worker.tree.visits[node];
+                }
+            }
+            if (visits > bestVisits) {
+                bestVisits = visits;
+                best = first.move[child];
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the one or two moves leading from the previous root to the current state.
+     * @param from the previous root, or null.
+     * @param to the current state.
+     * @return the packed moves, or null if the state is not reachable in two moves.
+     */
+    private static int[] findPath(GameModel from, GameModel to) {
+        if (from == null) {
+            return null;
+        }
+        var model = from.copy();
+        int[] moves = new int[Moves.MAX_MOVES];
+        int[] replies = new int[Moves.MAX_MOVES];
+        int count = Moves.generate(model, moves);
+        for (int i = 0; i < count; i++) {
+            Moves.play(model, moves[i]);
+            if (Moves.samePosition(model, to)) {
+                return new int[]{moves[i]};
+            }
+            int replyCount = model.getStatus() == GameModel.GameStatus.IN_PROGRESS ? Moves.generate(model, replies) : 0;
+            for (int j = 0; j < replyCount; j++) {
+                Moves.play(model, replies[j]);
+                boolean found = Moves.samePosition(model, to);
+                Moves.takeBack(model, replies[j]);
+                if (found) {
+                    return new int[]{moves[i], replies[j]};
+                }
+            }
+            Moves.takeBack(model, moves[i]);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the playout rate of the last search, summed over all workers.
+     * @return playouts per second.
+     */
+    public double getPlayoutsPerSecond() {
+        return lastNanos == 0 ? 0 : lastPlayouts * 1e9 / lastNanos;
+    }
+
+    /**
+     * Returns the number of nodes currently stored in all trees.
+     * @return the node count.
+     */
+    public long getTreeNodeCount() {
+        long nodes = 0;
+        for (var worker : workers) {
+            nodes += worker.tree.size;
+        }
+        return nodes;
+    }
+
+    /**
+     * Returns the memory allocated for the trees of all workers.
+     * @return size of the node arrays in bytes.
+     */
+    public long getTreeMemoryBytes() {
+        long bytes = 0;
+        for (var worker : workers) {
+            bytes += worker.tree.memoryBytes() + worker.spare.memoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Stops the worker threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Search state of one thread: its tree, a spare tree used for re-rooting and move buffers.
+     */
+    private static final class Worker {
+
+        private SearchTree tree;
+        private SearchTree spare;
+        private final int[] moves = new int[Moves.MAX_MOVES];
+        private final int[] path;
+        private final int[] played;
+        private final SplittableRandom random;
+
+        Worker(int capacity, SplittableRandom random) {
+            this.random = random;
+            tree = new SearchTree(capacity);
+            spare = new SearchTree(capacity);
+            int maxPlies = 4 * GameModel.BOARD_SIZE * GameModel.BOARD_SIZE;
+            path = new int[maxPlies];
+            played = new int[maxPlies];
+        }
+
+        /**
+         * Keeps the subtree reached by the given moves, or starts from an empty tree.
+         * @param moves packed moves from the old root, or null.
+         */
+        void reroot(int[] moves) {
+            int node = moves == null ? -1 : 0;
+            for (int i = 0; moves != null && i < moves.length && node >= 0; i++) {
+                node = tree.findChild(node, moves[i]);
+            }
+            if (node <= 0) {
+                tree.clear();
+                return;
+            }
+            tree.copySubtree(node, spare);
+            var swap = tree;
+            tree = spare;
+            spare = swap;
+        }
+
+        /**
+         * Runs playouts until the budget is used up.
+         * @param model copy of the root state owned by this worker.
+         * @param budget limit of the search of this worker.
+         * @param startNanos start of the search.
+         * @return the number of playouts made.
+         */
+        long search(GameModel model, SearchBudget budget, long startNanos) {
+            long done = 0;
+            while (done == 0 || !budget.isExhausted(done, startNanos) && !Thread.currentThread().isInterrupted()) {
+                playout(model);
+                done++;
+            }
+            return done;
+        }
+
+        /**
+         * Selects a leaf, expands it, plays randomly to the end and updates the visited nodes.
+         * @param model the root state, restored before returning.
+         */
+        private void playout(GameModel model) {
+            int depth = 0;
+            int node = 0;
+            path[depth++] = node;
+            while (tree.isExpanded(node) && model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                node = tree.selectChild(node, EXPLORATION);
+                Moves.play(model, tree.move[node]);
+                path[depth++] = node;
+            }
+            if (model.getStatus() == GameModel.GameStatus.IN_PROGRESS && (node == 0 || tree.visits[node] > 0)) {
+                byte side = (byte) model.getTurnOrder().ordinal();
+                int count = Moves.generate(model, moves);
+                if (tree.expand(node, moves, count, side)) {
+                    node = tree.firstChild[node] + random.nextInt(count);
+                    Moves.play(model, tree.move[node]);
+                    path[depth++] = node;
+                }
+            }
+            int plies = 0;
+            while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                int count = Moves.generate(model, moves);
+                played[plies] = moves[random.nextInt(count)];
+                Moves.play(model, played[plies++]);
+            }
+            byte winner = (byte) (model.getStatus() == GameModel.GameStatus.FOX_WON
+                    ? GameModel.TurnOrder.FOX.ordinal() : GameModel.TurnOrder.DOG.ordinal());
+            while (plies > 0) {
+                Moves.takeBack(model, played[--plies]);
+            }
+            for (int i = depth - 1; i >= 0; i--) {
+                int visited = path[i];
+                tree.visits[visited]++;
+                if (tree.mover[visited] == winner) {
+                    tree.wins[visited]++;
+                }
+                if (i > 0) {
+                    Moves.takeBack(model, tree.move[visited]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package chasegame.engine;
+
+import chasegame.model.Direction;
+import chasegame.model.DogDirection;
+import chasegame.model.FoxDirection;
+
+/**
+ * A move of one piece in a direction.
+ * Moves can be packed into an {@code int} to be stored in primitive arrays.
+ */
+public record Move(int pieceNumber, Direction direction) {
+
+    /**
+     * Packs the move into an {@code int}.
+     * @return the piece number shifted left by two, combined with the ordinal of the direction.
+     */
+    public int encode() {
+        return encode(pieceNumber, direction);
+    }
+
+    /**
+     * Packs a move into an {@code int}.
+     * @param pieceNumber id of the moving piece.
+     * @param direction direction of the move.
+     * @return the packed move.
+     */
+    public static int encode(int pieceNumber, Direction direction) {
+        return pieceNumber << 2 | ((Enum<?>) direction).ordinal();
+    }
+
+    /**
+     * Unpacks a move created by {@link #encode()}.
+     * @param code the packed move.
+     * @return the move.
+     */
+    public static Move decode(int code) {
+        return new Move(pieceOf(code), directionOf(code));
+    }
+
+    /**
+     * Returns the piece of a packed move.
+     * @param code the packed move.
+     * @return id of the moving piece.
+     */
+    public static int pieceOf(int code) {
+        return code >>> 2;
+    }
+
+    /**
+     * Returns the direction of a packed move. Piece 0 is the fox, every other piece is a dog.
+     * @param code the packed move.
+     * @return the direction of the move.
+     */
+    public static Direction directionOf(int code) {
+        return code >>> 2 == 0 ? FoxDirection.values()[code & 3] : DogDirection.values()[code & 3];
+    }
+
+    public String toString() {
+        return pieceNumber + " " + direction;
+    }
+}
@@ -0,0 +1,78 @@
+package chasegame.engine;
+
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.tinylog.Logger;
+
+/**
+ * Move generation rules over states encoded by {@link PackedState}.
+ * Moves are packed as by {@link Move#encode()}, and the legal moves of a state are returned as a bit
+ * mask with the bit of each legal packed move set.
+ */
+public interface MoveGenerator {
+
+    /**
+     * Returns the fastest rules for large batches of states: {@link VectorMoveGenerator} if the JVM was
+     * started with {@code --add-modules jdk.incubator.vector}, {@link BitboardMoveGenerator} otherwise.
+     * @return the move generation rules.
+     */
+    static MoveGenerator forBatches() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (MoveGenerator) Class.forName("chasegame.engine.VectorMoveGenerator")
+                        .getConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                Logger.warn(e, "Vector move generation is not available");
+            }
+        }
+        return new BitboardMoveGenerator();
+    }
+
+    /**
+     * Returns the legal moves of the side to move.
+     * @param state the encoded state.
+     * @return bit mask of the legal packed moves.
+     */
+    int legalMoves(long state);
+
+    /**
+     * Makes a legal move and passes the turn.
+     * @param state the encoded state.
+     * @param move the packed move.
+     * @return the encoded state after the move.
+     */
+    long play(long state, int move);
+
+    /**
+     * Decides the outcome of a state with the same rules as {@link GameModel#getStatus()}.
+     * @param state the encoded state.
+     * @return the status of the game.
+     */
+    GameModel.GameStatus status(long state);
+
+    /**
+     * Computes the legal moves of a range of states.
+     * @param states the encoded states.
+     * @param from index of the first state.
+     * @param to index after the last state.
+     * @param out array receiving the move masks at the same indices.
+     */
+    default void legalMoves(long[] states, int from, int to, int[] out) {
+        for (int i = from; i < to; i++) {
+            out[i] = legalMoves(states[i]);
+        }
+    }
+
+    /**
+     * Computes the status of a range of states.
+     * @param states the encoded states.
+     * @param from index of the first state.
+     * @param to index after the last state.
+     * @param out array receiving the {@link GameModel.GameStatus} ordinals at the same indices.
+     */
+    default void status(long[] states, int from, int to, byte[] out) {
+        for (int i = from; i < to; i++) {
+            out[i] = (byte) status(states[i]).ordinal();
+        }
+    }
+}
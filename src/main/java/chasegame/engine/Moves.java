@@ -0,0 +1,69 @@
+package chasegame.engine;
+
+import chasegame.model.GameModel;
+
+/**
+ * Generates and plays packed moves on a {@link GameModel}.
+ */
+public final class Moves {
+
+    /**
+     * Upper bound of the number of moves in any position: four for the fox, two for each dog.
+     */
+    public static final int MAX_MOVES = 16;
+
+    private Moves() {
+    }
+
+    /**
+     * Collects the valid moves of the side to move.
+     * @param model the game state.
+     * @param buffer array receiving the packed moves, at least {@link #MAX_MOVES} long.
+     * @return the number of moves written to the buffer.
+     */
+    public static int generate(GameModel model, int[] buffer) {
+        int count = 0;
+        if (model.getTurnOrder() == GameModel.TurnOrder.FOX) {
+            for (var direction : model.getValidFoxMoves(0)) {
+                buffer[count++] = Move.encode(0, direction);
+            }
+        } else {
+            for (int i = 1; i < model.getPieceCount(); i++) {
+                for (var direction : model.getValidDogMoves(i)) {
+                    buffer[count++] = Move.encode(i, direction);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Makes a packed move and passes the turn to the other side.
+     * @param model the game state.
+     * @param move the packed move.
+     */
+    public static void play(GameModel model, int move) {
+        model.move(Move.pieceOf(move), Move.directionOf(move));
+        model.changeTurnOrder();
+    }
+
+    /**
+     * Takes back a packed move made with {@link #play(GameModel, int)}.
+     * @param model the game state.
+     * @param move the packed move.
+     */
+    public static void takeBack(GameModel model, int move) {
+        model.changeTurnOrder();
+        model.unmove(Move.pieceOf(move), Move.directionOf(move));
+    }
+
+    /**
+     * Checks if two models hold the same pieces on the same squares with the same side to move.
+     * @param a the first game state.
+     * @param b the second game state.
+     * @return true if the states are equal.
+     */
+    public static boolean samePosition(GameModel a, GameModel b) {
+        return a.getTurnOrder() == b.getTurnOrder() && a.getAllPiecesPositions().equals(b.getAllPiecesPositions());
+    }
+}
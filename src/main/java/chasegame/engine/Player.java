@@ -0,0 +1,16 @@
+package chasegame.engine;
+
+import chasegame.model.GameModel;
+
+/**
+ * A computer player that picks a move for the side to move.
+ */
+public interface Player {
+
+    /**
+     * Chooses a move in the given state. The model must be left unchanged.
+     * @param model the game state, with at least one valid move for the side to move.
+     * @return the chosen move.
+     */
+    Move chooseMove(GameModel model);
+}
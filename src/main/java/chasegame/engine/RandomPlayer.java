@@ -0,0 +1,27 @@
+package chasegame.engine;
+
+import chasegame.model.GameModel;
+
+import java.util.SplittableRandom;
+
+/**
+ * Player choosing uniformly among the valid moves, the weakest baseline of comparisons.
+ */
+public class RandomPlayer implements Player {
+
+    private final SplittableRandom random;
+    private final int[] moves = new int[Moves.MAX_MOVES];
+
+    /**
+     * Creates a player with its own random generator.
+     * @param seed the seed of the generator.
+     */
+    public RandomPlayer(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public Move chooseMove(GameModel model) {
+        return Move.decode(moves[random.nextInt(Moves.generate(model, moves))]);
+    }
+}
@@ -0,0 +1,35 @@
+package chasegame.engine;
+
+/**
+ * Limits how long a search runs, either by the number of playouts or by wall clock time.
+ */
+public record SearchBudget(long playouts, long millis) {
+
+    /**
+     * Budget stopping after a fixed number of playouts.
+     * @param playouts the number of playouts.
+     * @return the budget.
+     */
+    public static SearchBudget ofPlayouts(long playouts) {
+        return new SearchBudget(playouts, Long.MAX_VALUE);
+    }
+
+    /**
+     * Budget stopping after a fixed amount of time.
+     * @param millis the time limit in milliseconds.
+     * @return the budget.
+     */
+    public static SearchBudget ofMillis(long millis) {
+        return new SearchBudget(Long.MAX_VALUE, millis);
+    }
+
+    /**
+     * Checks if the search must stop.
+     * @param done playouts finished so far.
+     * @param startNanos {@link System#nanoTime()} at the start of the search.
+     * @return true if the budget is used up.
+     */
+    public boolean isExhausted(long done, long startNanos) {
+        return done >= playouts || (millis != Long.MAX_VALUE && System.nanoTime() - startNanos >= millis * 1_000_000);
+    }
+}
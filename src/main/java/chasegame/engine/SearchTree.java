@@ -0,0 +1,153 @@
+package chasegame.engine;
+
+/**
+ * Monte Carlo search tree stored in primitive arrays. The children of a node occupy consecutive slots.
+ */
+final class SearchTree {
+
+    /**
+     * Bytes used by one node in the arrays.
+     */
+    static final int BYTES_PER_NODE = 4 * Integer.BYTES + Float.BYTES + 1;
+
+    final int[] firstChild;
+    final int[] childCount;
+    final int[] move;
+    final int[] visits;
+    final float[] wins;
+    final byte[] mover;
+    int size;
+
+    SearchTree(int capacity) {
+        firstChild = new int[capacity];
+        childCount = new int[capacity];
+        move = new int[capacity];
+        visits = new int[capacity];
+        wins = new float[capacity];
+        mover = new byte[capacity];
+        clear();
+    }
+
+    int capacity() {
+        return visits.length;
+    }
+
+    long memoryBytes() {
+        return (long) capacity() * BYTES_PER_NODE;
+    }
+
+    /**
+     * Drops every node except an empty root.
+     */
+    void clear() {
+        size = 1;
+        childCount[0] = 0;
+        visits[0] = 0;
+        wins[0] = 0;
+    }
+
+    boolean isExpanded(int node) {
+        return childCount[node] > 0;
+    }
+
+    /**
+     * Adds the children of a node.
+     * @param node the node to expand.
+     * @param moves the packed moves leading to the children.
+     * @param count the number of moves.
+     * @param side the side making the moves.
+     * @return false if the tree has no room for the children.
+     */
+    boolean expand(int node, int[] moves, int count, byte side) {
+        if (size + count > capacity()) {
+            return false;
+        }
+        firstChild[node] = size;
+        for (int i = 0; i < count; i++) {
+            int child = size + i;
+            move[child] = moves[i];
+            mover[child] = side;
+            childCount[child] = 0;
+            visits[child] = 0;
+            wins[child] = 0;
+        }
+        childCount[node] = count;
+        size += count;
+        return true;
+    }
+
+    /**
+     * Picks the child with the highest upper confidence bound.
+     * @param node an expanded node.
+     * @param exploration the exploration constant.
+     * @return the selected child.
+     */
+    int selectChild(int node, double exploration) {
+        int first = firstChild[node];
+        double logVisits = Math.log(visits[node]);
+        int best = first;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int child = first; child < first + childCount[node]; child++) {
+            if (visits[child] == 0) {
+                return child;
+            }
+            double value = wins[child] / visits[child] + exploration * Math.sqrt(logVisits / visits[child]);
+            if (value > bestValue) {
+                bestValue = value;
+                best = child;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the child reached by a move.
+     * @param node the parent node.
+     * @param code the packed move.
+     * @return the child, or -1 if the node has no such child.
+     */
+    int findChild(int node, int code) {
+        int first = firstChild[node];
+        for (int child = first; child < first + childCount[node]; child++) {
+            if (move[child] == code) {
+                return child;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies the subtree of a node into another tree, making the node its root.
+     * @param node the new root.
+     * @param target the tree receiving the nodes, cleared first.
+     */
+    void copySubtree(int node, SearchTree target) {
+        target.clear();
+        target.visits[0] = visits[node];
+        target.wins[0] = wins[node];
+        target.mover[0] = mover[node];
+        target.move[0] = move[node];
+        int[] queue = new int[size];
+        int tail = 0;
+        queue[tail++] = node;
+        for (int head = 0; head < tail; head++) {
+            int source = queue[head];
+            int count = childCount[source];
+            target.childCount[head] = 0;
+            if (count > 0 && target.size + count <= target.capacity()) {
+                target.firstChild[head] = target.size;
+                target.childCount[head] = count;
+                for (int i = 0; i < count; i++) {
+                    int child = firstChild[source] + i;
+                    int copy = target.size + i;
+                    target.move[copy] = move[child];
+                    target.mover[copy] = mover[child];
+                    target.visits[copy] = visits[child];
+                    target.wins[copy] = wins[child];
+                    queue[tail++] = child;
+                }
+                target.size += count;
+            }
+        }
+    }
+}
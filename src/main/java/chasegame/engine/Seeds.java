@@ -0,0 +1,49 @@
+package chasegame.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Derives the seeds of randomized players and workloads from a single root seed.
+ * A seed is derived from the root and the path of indexes leading to its user, such as the number of a
+ * game and of a side, and never from the order in which threads happen to ask for it, so a parallel
+ * run makes the same random choices with any number of threads. Mixing uses the finalizer of
+ * SplitMix64, the generator behind {@link SplittableRandom}, so seeds of neighbouring indexes give
+ * unrelated streams.
+ */
+public final class Seeds {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private Seeds() {
+    }
+
+    /**
+     * Derives the seed of one user of randomness.
+     * @param root the seed of the whole run.
+     * @param path the indexes identifying the user within the run.
+     * @return the seed, always the same for the same root and path.
+     */
+    public static long derive(long root, long... path) {
+        long seed = mix(root);
+        for (long index : path) {
+            seed = mix(seed + GOLDEN_GAMMA * (index + 1));
+        }
+        return seed;
+    }
+
+    /**
+     * Creates the generator of one user of randomness.
+     * @param root the seed of the whole run.
+     * @param path the indexes identifying the user within the run.
+     * @return a generator seeded with {@link #derive(long, long...)}.
+     */
+    public static SplittableRandom random(long root, long... path) {
+        return new SplittableRandom(derive(root, path));
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,176 @@
+package chasegame.engine;
+
+import chasegame.model.Direction;
+import chasegame.model.DogDirection;
+import chasegame.model.FoxDirection;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link MoveGenerator} computing the legal moves and the status of many states at once with the
+ * incubating Vector API, one state per lane of the widest vector of the platform. Targets are found by
+ * shifting bitboards, with the columns that would wrap around the board masked off, so there are no
+ * table lookups and no branches per lane. Single states and the states left over after the last full
+ * vector use the scalar rules it extends.
+ * Requires {@code --add-modules jdk.incubator.vector}; use {@link MoveGenerator#forBatches()} to get
+ * it only where it is available.
+ */
+public class VectorMoveGenerator extends BitboardMoveGenerator {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INT_SPECIES = VectorSpecies.of(int.class,
+            VectorShape.forBitSize(SPECIES.vectorBitSize() / 2));
+
+    private static final int SIZE = GameModel.BOARD_SIZE;
+    private static final int SQUARES = SIZE * SIZE;
+    private static final long BOARD = SQUARES == Long.SIZE ? -1L : (1L << SQUARES) - 1;
+    private static final long FIRST_COL;
+    private static final long LAST_COL;
+    private static final long UP_LEFT_ON_BOARD;
+    private static final long UP_RIGHT_ON_BOARD;
+    private static final long DOWN_RIGHT_ON_BOARD;
+    private static final long DOWN_LEFT_ON_BOARD;
+    private static final long SQUARE_MASK = (1L << 6) - 1;
+    private static final int ROW_MULTIPLIER = (65536 + SIZE - 1) / SIZE;
+    private static final byte IN_PROGRESS = (byte) GameModel.GameStatus.IN_PROGRESS.ordinal();
+    private static final byte FOX_WON = (byte) GameModel.GameStatus.FOX_WON.ordinal();
+    private static final byte DOGS_WON = (byte) GameModel.GameStatus.DOGS_WON.ordinal();
+
+    static {
+        long first = 0;
+        for (int row = 0; row < SIZE; row++) {
+            first |= 1L << (row * SIZE);
+        }
+        FIRST_COL = first;
+        LAST_COL = first << (SIZE - 1);
+        UP_LEFT_ON_BOARD = BOARD & ~LAST_COL;
+        UP_RIGHT_ON_BOARD = BOARD & ~FIRST_COL;
+        DOWN_RIGHT_ON_BOARD = BOARD & ~FIRST_COL;
+        DOWN_LEFT_ON_BOARD = BOARD & ~LAST_COL;
+        for (int square = 0; square < SQUARES; square++) {
+            if (square * ROW_MULTIPLIER >>> 16 != square / SIZE) {
+                throw new ExceptionInInitializerError("No row multiplier for board size " + SIZE);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * The free squares are shifted once per direction so that the bit of every square tells if its
+     * target in that direction is on the board and free, and each move is then a single bit of one of
+     * those masks. The whole computation stays in the loop so that the compiler keeps the vectors in
+     * registers instead of boxing them for a call.
+     */
+    @Override
+    public void legalMoves(long[] states, int from, int to, int[] out) {
+        var zero = LongVector.zero(SPECIES);
+        var one = LongVector.broadcast(SPECIES, 1);
+        var squareMask = LongVector.broadcast(SPECIES, SQUARE_MASK);
+        var upLeftOnBoard = LongVector.broadcast(SPECIES, UP_LEFT_ON_BOARD);
+        var upRightOnBoard = LongVector.broadcast(SPECIES, UP_RIGHT_ON_BOARD);
+        var downRightOnBoard = LongVector.broadcast(SPECIES, DOWN_RIGHT_ON_BOARD);
+        var downLeftOnBoard = LongVector.broadcast(SPECIES, DOWN_LEFT_ON_BOARD);
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            var state = LongVector.fromArray(SPECIES, states, i);
+            var fox = state.and(squareMask);
+            var dog1 = state.lanewise(VectorOperators.LSHR, 6).and(squareMask);
+            var dog2 = state.lanewise(VectorOperators.LSHR, 12).and(squareMask);
+            var dog3 = state.lanewise(VectorOperators.LSHR, 18).and(squareMask);
+            var dog4 = state.lanewise(VectorOperators.LSHR, 24).and(squareMask);
+            var free = one.lanewise(VectorOperators.LSHL, fox)
+                    .or(one.lanewise(VectorOperators.LSHL, dog1))
+                    .or(one.lanewise(VectorOperators.LSHL, dog2))
+                    .or(one.lanewise(VectorOperators.LSHL, dog3))
+                    .or(one.lanewise(VectorOperators.LSHL, dog4))
+                    .not();
+            var upLeft = free.and(upLeftOnBoard).lanewise(VectorOperators.LSHL, SIZE + 1);
+            var upRight = free.and(upRightOnBoard).lanewise(VectorOperators.LSHL, SIZE - 1);
+            var downRight = free.and(downRightOnBoard).lanewise(VectorOperators.LSHR, SIZE + 1);
+            var downLeft = free.and(downLeftOnBoard).lanewise(VectorOperators.LSHR, SIZE - 1);
+            var foxMoves = upLeft.lanewise(VectorOperators.LSHR, fox).and(one).lanewise(VectorOperators.LSHL, FoxDirection.UP_LEFT.ordinal())
+                    .or(upRight.lanewise(VectorOperators.LSHR, fox).and(one).lanewise(VectorOperators.LSHL, FoxDirection.UP_RIGHT.ordinal()))
+                    .or(downRight.lanewise(VectorOperators.LSHR, fox).and(one).lanewise(VectorOperators.LSHL, FoxDirection.DOWN_RIGHT.ordinal()))
+                    .or(downLeft.lanewise(VectorOperators.LSHR, fox).and(one).lanewise(VectorOperators.LSHL, FoxDirection.DOWN_LEFT.ordinal()));
+            var dogMoves = upLeft.lanewise(VectorOperators.LSHR, dog1).and(one).lanewise(VectorOperators.LSHL, 1 << 2 | DogDirection.UP_LEFT.ordinal())
+                    .or(upRight.lanewise(VectorOperators.LSHR, dog1).and(one).lanewise(VectorOperators.LSHL, 1 << 2 | DogDirection.UP_RIGHT.ordinal()))
+                    .or(upLeft.lanewise(VectorOperators.LSHR, dog2).and(one).lanewise(VectorOperators.LSHL, 2 << 2 | DogDirection.UP_LEFT.ordinal()))
+                    .or(upRight.lanewise(VectorOperators.LSHR, dog2).and(one).lanewise(VectorOperators.LSHL, 2 << 2 | DogDirection.UP_RIGHT.ordinal()))
+                    .or(upLeft.lanewise(VectorOperators.LSHR, dog3).and(one).lanewise(VectorOperators.LSHL, 3 << 2 | DogDirection.UP_LEFT.ordinal()))
+                    .or(upRight.lanewise(VectorOperators.LSHR, dog3).and(one).lanewise(VectorOperators.LSHL, 3 << 2 | DogDirection.UP_RIGHT.ordinal()))
+                    .or(upLeft.lanewise(VectorOperators.LSHR, dog4).and(one).lanewise(VectorOperators.LSHL, 4 << 2 | DogDirection.UP_LEFT.ordinal()))
+                    .or(upRight.lanewise(VectorOperators.LSHR, dog4).and(one).lanewise(VectorOperators.LSHL, 4 << 2 | DogDirection.UP_RIGHT.ordinal()));
+            ((IntVector) dogMoves.blend(foxMoves, state.compare(VectorOperators.LT, zero))
+                    .convertShape(VectorOperators.L2I, INT_SPECIES, 0))
+                    .intoArray(out, i);
+        }
+        for (; i < to; i++) {
+            out[i] = legalMoves(states[i]);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * Whether the side to move is stuck only needs the targets of all its pieces together, not every
+     * move.
+     */
+    @Override
+    public void status(long[] states, int from, int to, byte[] out) {
+        var zero = LongVector.zero(SPECIES);
+        var one = LongVector.broadcast(SPECIES, 1);
+        var squareMask = LongVector.broadcast(SPECIES, SQUARE_MASK);
+        var upLeftOnBoard = LongVector.broadcast(SPECIES, UP_LEFT_ON_BOARD);
+        var upRightOnBoard = LongVector.broadcast(SPECIES, UP_RIGHT_ON_BOARD);
+        var downRightOnBoard = LongVector.broadcast(SPECIES, DOWN_RIGHT_ON_BOARD);
+        var downLeftOnBoard = LongVector.broadcast(SPECIES, DOWN_LEFT_ON_BOARD);
+        var lastRow = LongVector.broadcast(SPECIES, SIZE - 1);
+        var rowMultiplier = LongVector.broadcast(SPECIES, ROW_MULTIPLIER);
+        var dogsWonStatus = LongVector.broadcast(SPECIES, DOGS_WON);
+        var inProgress = LongVector.broadcast(SPECIES, IN_PROGRESS);
+        var foxWonStatus = LongVector.broadcast(SPECIES, FOX_WON);
+        long[] lanes = new long[SPECIES.length()];
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            var state = LongVector.fromArray(SPECIES, states, i);
+            var fox = state.and(squareMask);
+            var dog1 = state.lanewise(VectorOperators.LSHR, 6).and(squareMask);
+            var dog2 = state.lanewise(VectorOperators.LSHR, 12).and(squareMask);
+            var dog3 = state.lanewise(VectorOperators.LSHR, 18).and(squareMask);
+            var dog4 = state.lanewise(VectorOperators.LSHR, 24).and(squareMask);
+            var foxBit = one.lanewise(VectorOperators.LSHL, fox);
+            var dogBits = one.lanewise(VectorOperators.LSHL, dog1)
+                    .or(one.lanewise(VectorOperators.LSHL, dog2))
+                    .or(one.lanewise(VectorOperators.LSHL, dog3))
+                    .or(one.lanewise(VectorOperators.LSHL, dog4));
+            var foxTargets = foxBit.lanewise(VectorOperators.LSHR, SIZE + 1).and(upLeftOnBoard)
+                    .or(foxBit.lanewise(VectorOperators.LSHR, SIZE - 1).and(upRightOnBoard))
+                    .or(foxBit.lanewise(VectorOperators.LSHL, SIZE + 1).and(downRightOnBoard))
+                    .or(foxBit.lanewise(VectorOperators.LSHL, SIZE - 1).and(downLeftOnBoard));
+            var dogTargets = dogBits.lanewise(VectorOperators.LSHR, SIZE + 1).and(upLeftOnBoard)
+                    .or(dogBits.lanewise(VectorOperators.LSHR, SIZE - 1).and(upRightOnBoard));
+            VectorMask<Long> foxToMove = state.compare(VectorOperators.LT, zero);
+            VectorMask<Long> stuck = dogTargets.blend(foxTargets, foxToMove)
+                    .and(foxBit.or(dogBits).not())
+                    .compare(VectorOperators.EQ, zero);
+            var foxRow = fox.mul(rowMultiplier).lanewise(VectorOperators.LSHR, 16);
+            var rearRow = dog1.max(dog2).max(dog3).max(dog4).mul(rowMultiplier).lanewise(VectorOperators.LSHR, 16);
+            VectorMask<Long> foxWon = foxRow.compare(VectorOperators.EQ, lastRow)
+                    .or(foxRow.compare(VectorOperators.GT, rearRow));
+            inProgress.blend(foxWonStatus.blend(dogsWonStatus, foxToMove), stuck)
+                    .blend(foxWonStatus, foxWon)
+                    .intoArray(lanes, 0);
+            for (int lane = 0; lane < lanes.length; lane++) {
+                out[i + lane] = (byte) lanes[lane];
+            }
+        }
+        for (; i < to; i++) {
+            out[i] = (byte) status(states[i]).ordinal();
+        }
+    }
+}
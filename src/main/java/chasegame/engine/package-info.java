@@ -0,0 +1,4 @@
+/**
+ * Computer players of the game. Searches on top of the move generation of the model.
+ */
+package chasegame.engine;
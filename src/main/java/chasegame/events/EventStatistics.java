@@ -0,0 +1,65 @@
+package chasegame.events;
+
+import chasegame.model.GameEvent;
+import chasegame.model.GameModel;
+import org.tinylog.Logger;
+
+import javax.inject.Singleton;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts the events of the games played, as a lossy subscriber that never slows a game down.
+ */
+@Singleton
+public class EventStatistics implements GameEventSubscriber {
+
+    private final AtomicLong moves = new AtomicLong();
+    private final AtomicLong turns = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLongArray outcomes = new AtomicLongArray(GameModel.GameStatus.values().length);
+
+    @Override
+    public void onEvents(List<GameEvent> events) {
+        batches.incrementAndGet();
+        for (var event : events) {
+            if (event instanceof GameEvent.MoveMade) {
+                moves.incrementAndGet();
+            } else if (event instanceof GameEvent.TurnChanged) {
+                turns.incrementAndGet();
+            } else if (event instanceof GameEvent.GameOver gameOver) {
+                outcomes.incrementAndGet(gameOver.status().ordinal());
+            }
+        }
+    }
+
+    public long getMoves() {
+        return moves.get();
+    }
+
+    public long getTurns() {
+        return turns.get();
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * Returns the number of games that ended with an outcome.
+     * @param status the outcome.
+     * @return the number of games decided that way.
+     */
+    public long getGames(GameModel.GameStatus status) {
+        return outcomes.get(status.ordinal());
+    }
+
+    /**
+     * Logs the counters.
+     */
+    public void log() {
+        Logger.info("Events: {} moves, {} turns, {} fox wins, {} dog wins in {} batches", getMoves(), getTurns(),
+                getGames(GameModel.GameStatus.FOX_WON), getGames(GameModel.GameStatus.DOGS_WON), getBatches());
+    }
+}
@@ -0,0 +1,206 @@
+package chasegame.events;
+
+import chasegame.model.GameEvent;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import chasegame.model.Position;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Traces game events into a compact binary file, for volumes of games that text logging could not
+ * keep up with. Every event is a fixed size record of {@link #RECORD_SIZE} bytes after a header, with
+ * the time it was handled relative to the start of the trace. Records are collected in a buffer and
+ * written once per batch of the subscription, so the cost of a system call is shared by all the
+ * events of a batch; nothing is forced to disk before {@link #close()}.
+ * Subscribe it as a gating subscriber, otherwise events missed by a slow disk are missing from the
+ * trace without notice.
+ */
+public class EventTrace implements GameEventSubscriber, AutoCloseable {
+
+    /**
+     * Size of a record in bytes.
+     */
+    public static final int RECORD_SIZE = 16;
+
+    /**
+     * Size of the header of the file in bytes.
+     */
+    public static final int HEADER_SIZE = 16;
+
+    private static final int MAGIC = 0x43474554;
+    private static final int VERSION = 1;
+    private static final int BUFFER_RECORDS = 4096;
+    private static final byte MOVE_MADE = 0;
+    private static final byte TURN_CHANGED = 1;
+    private static final byte GAME_OVER = 2;
+    private static final byte GAME_STARTED = 3;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(RECORD_SIZE * BUFFER_RECORDS);
+    private final long startNanos = System.nanoTime();
+    private long records;
+
+    /**
+     * A traced event.
+     * @param nanos the time the event was handled, in nanoseconds since the start of the trace.
+     * @param event the event.
+     */
+    public record Entry(long nanos, GameEvent event) {
+    }
+
+    /**
+     * Creates a trace, replacing any file of the same name.
+     * @param file the file to write.
+     * @throws UncheckedIOException if the file cannot be created.
+     */
+    public EventTrace(Path file) {
+        try {
+            var parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis());
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Logger.debug("Tracing game events to {}", file);
+    }
+
+    /**
+     * Creates a trace into the file named by the {@code chasegame.trace} system property.
+     * @return the trace, or an empty {@code Optional} if the property is not set.
+     */
+    public static Optional<EventTrace> fromSystemProperty() {
+        return Optional.ofNullable(System.getProperty("chasegame.trace")).map(Path::of).map(EventTrace::new);
+    }
+
+    @Override
+    public void onEvents(List<GameEvent> events) {
+        long nanos = System.nanoTime() - startNanos;
+        try {
+            for (var event : events) {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    drain();
+                }
+                encode(nanos, event);
+                records++;
+            }
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void encode(long nanos, GameEvent event) {
+        int start = buffer.position();
+        buffer.putLong(nanos);
+        if (event instanceof GameEvent.MoveMade move) {
+            buffer.put(MOVE_MADE).put((byte) move.pieceNumber()).put(square(move.from())).put(square(move.to()));
+        } else if (event instanceof GameEvent.TurnChanged turn) {
+            buffer.put(TURN_CHANGED).put((byte) turn.turnOrder().ordinal());
+        } else if (event instanceof GameEvent.GameOver gameOver) {
+            buffer.put(GAME_OVER).put((byte) gameOver.status().ordinal());
+        } else if (event instanceof GameEvent.GameStarted started) {
+            buffer.put(GAME_STARTED);
+            for (int piece = 0; piece < PackedState.PIECES; piece++) {
+                buffer.put((byte) PackedState.square(started.state(), piece));
+            }
+            buffer.put((byte) (PackedState.isFoxToMove(started.state()) ? 1 : 0));
+        } else {
+            throw new IllegalArgumentException(event.toString());
+        }
+        while (buffer.position() < start + RECORD_SIZE) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    private static byte square(Position position) {
+        return (byte) (position.row() * GameModel.BOARD_SIZE + position.col());
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Returns the number of events traced.
+     * @return the number of records written.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Forces the trace to disk and closes the file. The subscription must have stopped before.
+     */
+    @Override
+    public void close() {
+        try {
+            drain();
+            channel.force(false);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a trace.
+     * @param file the file written by a trace.
+     * @return the events in the order they were traced.
+     * @throws IOException if the file cannot be read or is not a trace.
+     */
+    public static List<Entry> read(Path file) throws IOException {
+        var bytes = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (bytes.remaining() < HEADER_SIZE || bytes.getInt() != MAGIC || bytes.getInt() != VERSION) {
+            throw new IOException("Not an event trace: " + file);
+        }
+        bytes.getLong();
+        List<Entry> entries = new ArrayList<>(bytes.remaining() / RECORD_SIZE);
+        while (bytes.remaining() >= RECORD_SIZE) {
+            int start = bytes.position();
+            long nanos = bytes.getLong();
+            byte kind = bytes.get();
+            GameEvent event = switch (kind) {
+                case MOVE_MADE -> new GameEvent.MoveMade(bytes.get(), position(bytes.get()), position(bytes.get()));
+                case TURN_CHANGED -> new GameEvent.TurnChanged(GameModel.TurnOrder.values()[bytes.get()]);
+                case GAME_OVER -> new GameEvent.GameOver(GameModel.GameStatus.values()[bytes.get()]);
+                case GAME_STARTED -> new GameEvent.GameStarted(readState(bytes));
+                default -> throw new IOException("Unknown event kind " + kind + " at " + start);
+            };
+            entries.add(new Entry(nanos, event));
+            bytes.position(start + RECORD_SIZE);
+        }
+        return entries;
+    }
+
+    private static long readState(ByteBuffer bytes) {
+        long state = 0;
+        for (int piece = 0; piece < PackedState.PIECES; piece++) {
+            state = PackedState.withSquare(state, piece, bytes.get());
+        }
+        return bytes.get() == 1 ? state | PackedState.FOX_TO_MOVE : state;
+    }
+
+    private static Position position(byte square) {
+        return Position.of(square / GameModel.BOARD_SIZE, square % GameModel.BOARD_SIZE);
+    }
+}
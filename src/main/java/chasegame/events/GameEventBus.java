@@ -0,0 +1,312 @@
+package chasegame.events;
+
+import chasegame.model.GameEvent;
+import chasegame.model.GameEventSink;
+import org.tinylog.Logger;
+
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes game events to any number of subscribers through a ring buffer, without locks.
+ * The publisher writes an event into the next slot of the ring and advances a cursor; every
+ * subscription follows the cursor on a thread of its own with its own sequence and takes all events
+ * published since its last batch at once. A gating subscription never misses an event: the publisher
+ * waits when the ring is full of events it has not consumed yet. A lossy subscription never holds the
+ * publisher back, and skips ahead to the oldest event still in the ring when it falls behind.
+ * Events are published by one thread at a time, normally the thread changing the model.
+ */
+@Singleton
+public class GameEventBus implements GameEventSink, AutoCloseable {
+
+    /**
+     * Number of slots of a ring created without a capacity.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int SPINS = 100;
+    private static final int YIELDS = 200;
+    private static final long MAX_PARK_NANOS = 1_000_000;
+
+    private final AtomicReferenceArray<GameEvent> ring;
+    private final int mask;
+    private final AtomicLong cursor = new AtomicLong(-1);
+    private volatile Subscription[] subscriptions = new Subscription[0];
+    private long published = -1;
+    private long gated = -1;
+
+    /**
+     * Creates a bus with {@link #DEFAULT_CAPACITY} slots.
+     */
+    public GameEventBus() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a bus.
+     * @param capacity the number of slots of the ring, a power of two.
+     */
+    public GameEventBus(int capacity) {
+        if (capacity < 1 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException();
+        }
+        ring = new AtomicReferenceArray<>(capacity);
+        mask = capacity - 1;
+    }
+
+    /**
+     * A subscriber attached to the bus, with the thread delivering events to it.
+     */
+    public final class Subscription implements Runnable {
+
+        private final String name;
+        private final GameEventSubscriber subscriber;
+        private final int batchSize;
+        private final boolean lossy;
+        private final AtomicLong sequence = new AtomicLong();
+        private final AtomicLong missed = new AtomicLong();
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private Subscription(String name, GameEventSubscriber subscriber, int batchSize, boolean lossy) {
+            this.name = name;
+            this.subscriber = subscriber;
+            this.batchSize = batchSize;
+            this.lossy = lossy;
+            thread = new Thread(this, "events-" + name);
+            thread.setDaemon(true);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isLossy() {
+            return lossy;
+        }
+
+        /**
+         * Returns the sequence number of the last event handled.
+         * @return the sequence, -1 before the first event of the bus.
+         */
+        public long getSequence() {
+            return sequence.get();
+        }
+
+        /**
+         * Returns the number of events skipped because the subscriber fell behind, always 0 for a
+         * gating subscription.
+         * @return the number of events never delivered.
+         */
+        public long getMissed() {
+            return missed.get();
+        }
+
+        /**
+         * Returns the number of events published but not yet handled.
+         * @return the distance to the cursor of the bus.
+         */
+        public long getLag() {
+            return cursor.get() - sequence.get();
+        }
+
+        /**
+         * Waits until the subscriber has handled every event published before the call, so that a
+         * subscriber writing events out can be closed without losing the last ones.
+         * @param millis the longest time to wait.
+         * @return true if the subscriber caught up, false if it was cancelled, interrupted or too slow.
+         */
+        public boolean drain(long millis) {
+            long target = cursor.get();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+            int idle = 0;
+            while (sequence.getAcquire() < target) {
+                if (!running || Thread.currentThread().isInterrupted() || System.nanoTime() - deadline >= 0) {
+                    return false;
+                }
+                idle = backOff(idle);
+            }
+            return true;
+        }
+
+        /**
+         * Detaches the subscriber. Events already taken are still handled.
+         */
+        public void cancel() {
+            running = false;
+            remove(this);
+            LockSupport.unpark(thread);
+        }
+
+        /**
+         * Waits until the delivery thread has stopped after {@link #cancel()}.
+         * @param millis the longest time to wait.
+         * @throws InterruptedException if interrupted while waiting.
+         */
+        public void join(long millis) throws InterruptedException {
+            thread.join(millis);
+        }
+
+        @Override
+        public void run() {
+            List<GameEvent> batch = new ArrayList<>(batchSize);
+            int idle = 0;
+            while (running) {
+                long next = sequence.get() + 1;
+                long available = cursor.getAcquire();
+                if (available < next) {
+                    idle = backOff(idle);
+                    continue;
+                }
+                idle = 0;
+                if (lossy && available - next >= ring.length()) {
+                    long oldest = available - ring.length() + 1;
+                    missed.addAndGet(oldest - next);
+                    next = oldest;
+                }
+                long last = Math.min(available, next + batchSize - 1);
+                for (long index = next; index <= last; index++) {
+                    batch.add(ring.get((int) index & mask));
+                }
+                if (lossy) {
+                    long overwritten = cursor.getAcquire() + 1 - ring.length();
+                    if (overwritten >= next) {
+                        int stale = (int) Math.min(overwritten - next + 1, batch.size());
+                        batch.subList(0, stale).clear();
+                        missed.addAndGet(stale);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    try {
+                        subscriber.onEvents(batch);
+                    } catch (RuntimeException e) {
+                        Logger.error(e, "Subscriber {} failed to handle {} events", name, batch.size());
+                    }
+                    batch.clear();
+                }
+                sequence.setRelease(last);
+            }
+        }
+    }
+
+    /**
+     * Attaches a subscriber, which receives the events published from now on.
+     * @param name the name of the subscriber, used for its thread.
+     * @param subscriber the consumer of the events.
+     * @param batchSize the most events handed over in one call.
+     * @param lossy true if the subscriber may miss events rather than hold the publisher back.
+     * @return the subscription, already delivering events.
+     */
+    public Subscription subscribe(String name, GameEventSubscriber subscriber, int batchSize, boolean lossy) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException();
+        }
+        var subscription = new Subscription(name, subscriber, batchSize, lossy);
+        subscription.sequence.set(cursor.get());
+        synchronized (this) {
+            Subscription[] current = subscriptions;
+            Subscription[] added = Arrays.copyOf(current, current.length + 1);
+            added[current.length] = subscription;
+            subscriptions = added;
+        }
+        // The publisher may have checked the gates before seeing the new subscription, but never beyond
+        // the cursor it had published, so starting again from the cursor read now is safe.
+        subscription.sequence.set(cursor.get());
+        subscription.thread.start();
+        return subscription;
+    }
+
+    private synchronized void remove(Subscription subscription) {
+        subscriptions = Arrays.stream(subscriptions).filter(s -> s != subscription).toArray(Subscription[]::new);
+    }
+
+    /**
+     * Writes an event into the next slot of the ring and makes it visible to the subscribers. Waits
+     * while a gating subscriber has not yet consumed the event published one ring earlier.
+     * @param event the event.
+     */
+    @Override
+    public void publish(GameEvent event) {
+        long next = published + 1;
+        long wrap = next - ring.length();
+        if (wrap > gated) {
+            gated = awaitGates(wrap);
+        }
+        ring.setPlain((int) next & mask, event);
+        cursor.setRelease(next);
+        published = next;
+    }
+
+    /**
+     * Waits until every gating subscription has consumed an event.
+     * @param wrap the sequence of the event that must have been consumed.
+     * @return the lowest sequence of the gating subscriptions, at least {@code wrap}.
+     */
+    private long awaitGates(long wrap) {
+        int idle = 0;
+        while (true) {
+            long lowest = published;
+            for (var subscription : subscriptions) {
+                if (!subscription.lossy) {
+                    lowest = Math.min(lowest, subscription.sequence.getAcquire());
+                }
+            }
+            if (lowest >= wrap) {
+                return lowest;
+            }
+            idle = backOff(idle);
+        }
+    }
+
+    private static int backOff(int idle) {
+        if (idle < SPINS) {
+            Thread.onSpinWait();
+        } else if (idle < SPINS + YIELDS) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_PARK_NANOS, 1_000L << Math.min(idle - SPINS - YIELDS, 10)));
+        }
+        return idle + 1;
+    }
+
+    /**
+     * Returns the sequence number of the last event published.
+     * @return the cursor, -1 before the first event.
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+
+    /**
+     * Returns the current subscriptions.
+     * @return the attached subscriptions, in the order they were attached.
+     */
+    public List<Subscription> getSubscriptions() {
+        return List.of(subscriptions);
+    }
+
+    /**
+     * Detaches every subscriber and waits briefly for their threads to stop.
+     */
+    @Override
+    public void close() {
+        Subscription[] attached = subscriptions;
+        for (var subscription : attached) {
+            subscription.cancel();
+        }
+        for (var subscription : attached) {
+            try {
+                subscription.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package chasegame.events;
+
+import chasegame.model.GameEvent;
+
+import java.util.List;
+
+/**
+ * Consumes the events of a {@link GameEventBus} in batches, on the thread of its subscription.
+ */
+@FunctionalInterface
+public interface GameEventSubscriber {
+
+    /**
+     * Handles the events published since the last batch, at most the batch size of the subscription.
+     * @param events the events in the order they were published, only valid during the call.
+     */
+    void onEvents(List<GameEvent> events);
+}
@@ -0,0 +1,4 @@
+/**
+ * Delivery of the events of a game to subscribers running on threads of their own.
+ */
+package chasegame.events;
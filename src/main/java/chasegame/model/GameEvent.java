@@ -0,0 +1,38 @@
+package chasegame.model;
+
+/**
+ * A change of the state of a {@link GameModel}, published to the {@link GameEventSink} of the model.
+ */
+public interface GameEvent {
+
+    /**
+     * A game started, or was resumed, from a position. Published by the owner of the model, since the
+     * model does not know when a game starts.
+     * @param state the board and the side to move, as encoded by {@link PackedState}.
+     */
+    record GameStarted(long state) implements GameEvent {
+    }
+
+    /**
+     * A piece was moved, or a move was taken back.
+     * @param pieceNumber id of the moved piece, 0 for the fox.
+     * @param from position before the move.
+     * @param to position after the move.
+     */
+    record MoveMade(int pieceNumber, Position from, Position to) implements GameEvent {
+    }
+
+    /**
+     * The turn passed to the other side.
+     * @param turnOrder the side to move now.
+     */
+    record TurnChanged(GameModel.TurnOrder turnOrder) implements GameEvent {
+    }
+
+    /**
+     * The game was decided by the last turn change.
+     * @param status the outcome of the game.
+     */
+    record GameOver(GameModel.GameStatus status) implements GameEvent {
+    }
+}
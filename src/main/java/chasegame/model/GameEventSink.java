@@ -0,0 +1,14 @@
+package chasegame.model;
+
+/**
+ * Receives the events of a {@link GameModel} on the thread changing the model.
+ */
+@FunctionalInterface
+public interface GameEventSink {
+
+    /**
+     * Takes an event. Called while the model is being changed, so it must return quickly.
+     * @param event the change of the model.
+     */
+    void publish(GameEvent event);
+}
@@ -9,7 +9,10 @@ import java.util.*;
  */
 public class GameModel {
 
-    public static int BOARD_SIZE = 8;
+    public static final int BOARD_SIZE = 8;
+
+    private static final FoxDirection[] FOX_DIRECTIONS = FoxDirection.values();
+    private static final DogDirection[] DOG_DIRECTIONS = DogDirection.values();
 
     private final Piece[] pieces;
 
@@ -28,8 +31,24 @@ public class GameModel {
         }
     }
 
+    /**
+     * Outcome of the game in the current state.
+     */
+    public enum GameStatus {
+        IN_PROGRESS,
+        FOX_WON,
+        DOGS_WON
+    }
+
     private TurnOrder turnOrder = TurnOrder.DOG;
 
+    private final boolean[] occupied;
+    private final int[] dogsPerRow;
+    private int passedDogs;
+    private int foxMobility;
+    private int dogMobility;
+    private GameEventSink eventSink;
+
     public TurnOrder getTurnOrder() {
         return turnOrder;
     }
@@ -39,33 +58,64 @@ public class GameModel {
      */
     public void changeTurnOrder() {
         turnOrder = turnOrder.changeTurn();
+        if (eventSink != null) {
+            eventSink.publish(new GameEvent.TurnChanged(turnOrder));
+            var status = getStatus();
+            if (status != GameStatus.IN_PROGRESS) {
+                eventSink.publish(new GameEvent.GameOver(status));
+            }
+        }
+    }
+
+    /**
+     * Sets the receiver of the changes of this model. Copies of the model are created without one, so
+     * searches on copies publish nothing.
+     * @param eventSink the receiver of the events, or {@code null} to publish nothing.
+     */
+    public void setEventSink(GameEventSink eventSink) {
+        this.eventSink = eventSink;
     }
 
     public GameModel() {
-        this(new Piece(Piece.PieceColor.GREY, new Position(0, 2)),
-                new Piece(Piece.PieceColor.BLACK, new Position(BOARD_SIZE - 1, BOARD_SIZE - 1)),
-                new Piece(Piece.PieceColor.BLACK, new Position(BOARD_SIZE - 1, 5)),
-                new Piece(Piece.PieceColor.BLACK, new Position(BOARD_SIZE - 1, 3)),
-                new Piece(Piece.PieceColor.BLACK, new Position(BOARD_SIZE - 1, 1)));
+        this(new Piece(Piece.PieceColor.GREY, Position.of(0, 2)),
+                new Piece(Piece.PieceColor.BLACK, Position.of(BOARD_SIZE - 1, BOARD_SIZE - 1)),
+                new Piece(Piece.PieceColor.BLACK, Position.of(BOARD_SIZE - 1, 5)),
+                new Piece(Piece.PieceColor.BLACK, Position.of(BOARD_SIZE - 1, 3)),
+                new Piece(Piece.PieceColor.BLACK, Position.of(BOARD_SIZE - 1, 1)));
     }
 
     public GameModel(Piece... pieces) {
-        checkPieces(pieces);
         this.pieces = pieces.clone();
+        occupied = new boolean[BOARD_SIZE * BOARD_SIZE];
+        dogsPerRow = new int[BOARD_SIZE];
+        for (int i = 0; i < pieces.length; i++) {
+            var position = pieces[i].getPosition();
+            if (!isOnBoard(position) || occupied[squareOf(position)]) {
+                throw new IllegalArgumentException();
+            }
+            occupied[squareOf(position)] = true;
+            if (i != 0) {
+                dogsPerRow[position.row()]++;
+                if (position.row() < pieces[0].getPosition().row()) {
+                    passedDogs++;
+                }
+            }
+        }
+        updateMobility();
     }
 
     /**
-     * Checks if pieces are on the board at game start.
-     * @param pieces list of pieces available.
+     * Creates an independent copy of the game state, with new pieces and the same turn order.
+     * @return the copy of the model.
      */
-    private void checkPieces(Piece[] pieces) {
-        var seen = new HashSet<Position>();
-        for (var piece : pieces) {
-            if (!isOnBoard(piece.getPosition()) || seen.contains(piece.getPosition())) {
-                throw new IllegalArgumentException();
-            }
-            seen.add(piece.getPosition());
+    public GameModel copy() {
+        Piece[] copies = new Piece[pieces.length];
+        for (int i = 0; i < pieces.length; i++) {
+            copies[i] = new Piece(pieces[i].getColor(), pieces[i].getPosition());
         }
+        GameModel copy = new GameModel(copies);
+        copy.turnOrder = turnOrder;
+        return copy;
     }
 
     public int getPieceCount() {
@@ -113,7 +163,7 @@ public class GameModel {
      */
     public Set<FoxDirection> getValidFoxMoves(int pieceNumber) {
         EnumSet<FoxDirection> validMoves = EnumSet.noneOf(FoxDirection.class);
-        for (var direction : FoxDirection.values()) {
+        for (var direction : FOX_DIRECTIONS) {
             if (isValidMove(pieceNumber, direction)) {
                 validMoves.add(direction);
             }
@@ -128,7 +178,7 @@ public class GameModel {
      */
     public Set<DogDirection> getValidDogMoves(int pieceNumber) {
         EnumSet<DogDirection> validMoves = EnumSet.noneOf(DogDirection.class);
-        for (var direction : DogDirection.values()) {
+        for (var direction : DOG_DIRECTIONS) {
             if (isValidMove(pieceNumber, direction)) {
                 validMoves.add(direction);
             }
@@ -142,7 +192,150 @@ public class GameModel {
      * @param direction location change in the move.
      */
     public void move(int pieceNumber, Direction direction) {
+        var from = pieces[pieceNumber].getPosition();
+        var to = from.moveTo(direction);
+        applyMove(pieceNumber, from, to);
         pieces[pieceNumber].moveTo(direction);
+        if (eventSink != null) {
+            eventSink.publish(new GameEvent.MoveMade(pieceNumber, from, to));
+        }
+    }
+
+    /**
+     * Takes back a move previously made with {@link #move(int, Direction)}.
+     * @param pieceNumber id of the piece that was moved.
+     * @param direction location change of the move to take back.
+     */
+    public void unmove(int pieceNumber, Direction direction) {
+        var from = pieces[pieceNumber].getPosition();
+        var to = from.moveBack(direction);
+        applyMove(pieceNumber, from, to);
+        pieces[pieceNumber].moveBack(direction);
+        if (eventSink != null) {
+            eventSink.publish(new GameEvent.MoveMade(pieceNumber, from, to));
+        }
+    }
+
+    /**
+     * Updates the occupancy, the passed dog counter and the mobility of both sides for a move.
+     * @param pieceNumber id of the moving piece.
+     * @param from position before the move.
+     * @param to position after the move.
+     */
+    private void applyMove(int pieceNumber, Position from, Position to) {
+        occupied[squareOf(from)] = false;
+        occupied[squareOf(to)] = true;
+        int foxRow = pieces[0].getPosition().row();
+        if (pieceNumber == 0) {
+            if (to.row() > from.row()) {
+                passedDogs += dogsPerRow[from.row()];
+            } else {
+                passedDogs -= dogsPerRow[to.row()];
+            }
+        } else {
+            dogsPerRow[from.row()]--;
+            dogsPerRow[to.row()]++;
+            if (from.row() < foxRow && to.row() >= foxRow) {
+                passedDogs--;
+            } else if (from.row() >= foxRow && to.row() < foxRow) {
+                passedDogs++;
+            }
+        }
+        updateMobility(pieceNumber == 0 ? to : pieces[0].getPosition(), pieceNumber, to);
+    }
+
+    /**
+     * Recounts the moves available to the fox and to the dogs.
+     */
+    private void updateMobility() {
+        updateMobility(pieces[0].getPosition(), -1, null);
+    }
+
+    /**
+     * Recounts the moves available to the fox and to the dogs, with one piece already at its new position.
+     * @param fox position of the fox.
+     * @param movedPiece id of the piece whose new position is given, or -1.
+     * @param movedTo new position of the moved piece.
+     */
+    private void updateMobility(Position fox, int movedPiece, Position movedTo) {
+        foxMobility = 0;
+        for (var direction : FOX_DIRECTIONS) {
+            if (isFree(fox.row() + direction.getRowChange(), fox.col() + direction.getColChange())) {
+                foxMobility++;
+            }
+        }
+        dogMobility = 0;
+        for (int i = 1; i < pieces.length; i++) {
+            var dog = i == movedPiece ? movedTo : pieces[i].getPosition();
+            for (var direction : DOG_DIRECTIONS) {
+                if (isFree(dog.row() + direction.getRowChange(), dog.col() + direction.getColChange())) {
+                    dogMobility++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if a square is on the board and not occupied.
+     * @param row row of the square.
+     * @param col column of the square.
+     * @return true if a piece can move to the square.
+     */
+    private boolean isFree(int row, int col) {
+        return 0 <= row && row < BOARD_SIZE && 0 <= col && col < BOARD_SIZE
+                && !occupied[row * BOARD_SIZE + col];
+    }
+
+    /**
+     * Index of a square in the occupancy table.
+     * @param position position of the square.
+     * @return the index of the square.
+     */
+    private static int squareOf(Position position) {
+        return position.row() * BOARD_SIZE + position.col();
+    }
+
+    /**
+     * Returns the number of dogs the fox has already got past.
+     * @return number of dogs on a lower row index than the fox.
+     */
+    public int getPassedDogCount() {
+        return passedDogs;
+    }
+
+    /**
+     * Returns the number of moves the fox could make.
+     * @return the number of valid fox moves.
+     */
+    public int getFoxMobility() {
+        return foxMobility;
+    }
+
+    /**
+     * Returns the number of moves the dogs could make together.
+     * @return the number of valid dog moves.
+     */
+    public int getDogMobility() {
+        return dogMobility;
+    }
+
+    /**
+     * Decides the outcome of the game from the tracked counters.
+     * The fox wins by reaching the last row or by getting past every dog. The side to move
+     * loses if it has no valid move left.
+     * @return the status of the game.
+     */
+    public GameStatus getStatus() {
+        if (pieces[0].getPosition().row() == BOARD_SIZE - 1 || passedDogs == pieces.length - 1) {
+            return GameStatus.FOX_WON;
+        }
+        if (turnOrder == TurnOrder.FOX && foxMobility == 0) {
+            return GameStatus.DOGS_WON;
+        }
+        if (turnOrder == TurnOrder.DOG && dogMobility == 0) {
+            return GameStatus.FOX_WON;
+        }
+        return GameStatus.IN_PROGRESS;
     }
 
     /**
@@ -0,0 +1,123 @@
+package chasegame.model;
+
+/**
+ * Encodes a game state of the standard setup, one fox and four dogs, in a single {@code long}.
+ * Bits {@code 6 * i} to {@code 6 * i + 5} hold the square of piece {@code i}, numbered
+ * {@code row * BOARD_SIZE + col}, piece 0 being the fox. Bit 63 is set if the fox is to move.
+ * A state takes 8 bytes where a {@link GameModel} with its pieces and their properties takes hundreds,
+ * so positions kept in bulk are stored encoded and only turned into models when they are used.
+ */
+public final class PackedState {
+
+    /**
+     * Number of pieces in an encoded state.
+     */
+    public static final int PIECES = 5;
+
+    /**
+     * Bit set if the fox is to move.
+     */
+    public static final long FOX_TO_MOVE = 1L << 63;
+
+    private static final int BITS = 6;
+    private static final long SQUARE_MASK = (1L << BITS) - 1;
+
+    private PackedState() {
+    }
+
+    /**
+     * Encodes a model. The model must hold {@link #PIECES} pieces on a board of at most 64 squares.
+     * @param model the game state.
+     * @return the encoded state.
+     */
+    public static long of(GameModel model) {
+        if (model.getPieceCount() != PIECES || GameModel.BOARD_SIZE * GameModel.BOARD_SIZE > 64) {
+            throw new IllegalArgumentException();
+        }
+        long state = model.getTurnOrder() == GameModel.TurnOrder.FOX ? FOX_TO_MOVE : 0;
+        for (int i = 0; i < PIECES; i++) {
+            var position = model.getPiecePosition(i);
+            state |= (long) (position.row() * GameModel.BOARD_SIZE + position.col()) << (BITS * i);
+        }
+        return state;
+    }
+
+    /**
+     * Decodes a state into a new model, with the fox grey and the dogs black.
+     * @param state the encoded state.
+     * @return a model with the encoded positions and side to move.
+     * @throws IllegalArgumentException if two pieces share a square or a square is off the board.
+     */
+    public static GameModel toModel(long state) {
+        Piece[] pieces = new Piece[PIECES];
+        for (int i = 0; i < PIECES; i++) {
+            int square = square(state, i);
+            pieces[i] = new Piece(i == 0 ? Piece.PieceColor.GREY : Piece.PieceColor.BLACK,
+                    Position.of(square / GameModel.BOARD_SIZE, square % GameModel.BOARD_SIZE));
+        }
+        var model = new GameModel(pieces);
+        if (isFoxToMove(state)) {
+            model.changeTurnOrder();
+        }
+        return model;
+    }
+
+    /**
+     * Returns the square of a piece.
+     * @param state the encoded state.
+     * @param piece id of the piece, 0 for the fox.
+     * @return the square index.
+     */
+    public static int square(long state, int piece) {
+        return (int) (state >>> (BITS * piece) & SQUARE_MASK);
+    }
+
+    /**
+     * Places a piece on a square.
+     * @param state the encoded state.
+     * @param piece id of the piece.
+     * @param square the new square.
+     * @return the encoded state with the piece moved.
+     */
+    public static long withSquare(long state, int piece, int square) {
+        int shift = BITS * piece;
+        return state & ~(SQUARE_MASK << shift) | (long) square << shift;
+    }
+
+    /**
+     * Checks if the fox is to move.
+     * @param state the encoded state.
+     * @return true if the fox is to move, false if the dogs are.
+     */
+    public static boolean isFoxToMove(long state) {
+        return state < 0;
+    }
+
+    /**
+     * Returns the squares of the dogs.
+     * @param state the encoded state.
+     * @return bit mask of the dog squares.
+     */
+    public static long dogMask(long state) {
+        return 1L << square(state, 1) | 1L << square(state, 2) | 1L << square(state, 3) | 1L << square(state, 4);
+    }
+
+    /**
+     * Orders the dogs by square. The dogs are interchangeable, so states differing only in the order
+     * of the dogs describe the same position.
+     * @param state the encoded state.
+     * @return the state with the dog squares in ascending order.
+     */
+    public static long sortDogs(long state) {
+        int a = Math.min(square(state, 1), square(state, 2));
+        int b = Math.max(square(state, 1), square(state, 2));
+        int c = Math.min(square(state, 3), square(state, 4));
+        int d = Math.max(square(state, 3), square(state, 4));
+        int first = Math.min(a, c);
+        int last = Math.max(b, d);
+        int second = Math.min(Math.max(a, c), Math.min(b, d));
+        int third = Math.max(Math.max(a, c), Math.min(b, d));
+        return state & (FOX_TO_MOVE | SQUARE_MASK) | (long) first << BITS | (long) second << (2 * BITS)
+                | (long) third << (3 * BITS) | (long) last << (4 * BITS);
+    }
+}
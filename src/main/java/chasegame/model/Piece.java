@@ -38,6 +38,14 @@ public class Piece {
         position.set(newPosition);
     }
 
+    /**
+     * Moves the piece back in the opposite of a direction.
+     * @param direction the direction of the move to take back.
+     */
+    public void moveBack(Direction direction) {
+        position.set(position.get().moveBack(direction));
+    }
+
     public ObjectProperty<Position> positionProperty() {
         return position;
     }
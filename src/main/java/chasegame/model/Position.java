@@ -3,15 +3,45 @@ package chasegame.model;
 /**
  * Simple position class for handling moves and current position.
  * Uses {@code Java 16 Record class}.
+ * Positions on the board and on the ring of squares around it are shared instances, obtained with
+ * {@link #of(int, int)}, so moving pieces does not allocate.
  */
 public record Position(int row, int col) {
 
+    private static final int STRIDE = GameModel.BOARD_SIZE + 2;
+    private static final Position[] TABLE = new Position[STRIDE * STRIDE];
+
+    static {
+        for (int row = -1; row <= GameModel.BOARD_SIZE; row++) {
+            for (int col = -1; col <= GameModel.BOARD_SIZE; col++) {
+                TABLE[(row + 1) * STRIDE + col + 1] = new Position(row, col);
+            }
+        }
+    }
+
+    /**
+     * Returns the position of a square, shared if the square is on the board or next to it.
+     * @param row row of the square.
+     * @param col column of the square.
+     * @return the position.
+     */
+    public static Position of(int row, int col) {
+        if (row >= -1 && row < STRIDE - 1 && col >= -1 && col < STRIDE - 1) {
+            return TABLE[(row + 1) * STRIDE + col + 1];
+        }
+        return new Position(row, col);
+    }
+
     public Position moveTo(Direction direction) {
-        return new Position(row + direction.getRowChange(), col + direction.getColChange());
+        return of(row + direction.getRowChange(), col + direction.getColChange());
+    }
+
+    public Position moveBack(Direction direction) {
+        return of(row - direction.getRowChange(), col - direction.getColChange());
     }
 
     public String toString() {
         return String.format("(%d,%d)", row, col);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,98 @@
+package chasegame.results;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.tinylog.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.persistence.EntityManagerFactory;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Hit ratios of the second-level cache of {@link GameResult} and of the leaderboard query cache, read
+ * from the Hibernate statistics. The metrics can be published as the MBean {@value #OBJECT_NAME}.
+ */
+@Singleton
+public class CacheMetrics implements CacheMetricsMXBean {
+
+    /**
+     * Name of the MBean.
+     */
+    public static final String OBJECT_NAME = "chasegame:type=CacheMetrics";
+
+    private static final String RESULT_REGION = GameResult.class.getName();
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Publishes the metrics on the platform MBean server, unless already published.
+     */
+    public void register() {
+        try {
+            var server = ManagementFactory.getPlatformMBeanServer();
+            var name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            Logger.warn(e, "Cache metrics could not be published");
+        }
+    }
+
+    /**
+     * Logs the hit ratios.
+     */
+    public void log() {
+        Logger.info("Result cache: {} hits, {} misses; query cache: {} hits, {} misses",
+                getResultCacheHits(), getResultCacheMisses(), getQueryCacheHits(), getQueryCacheMisses());
+    }
+
+    /**
+     * Resets all statistics to zero.
+     */
+    public void clear() {
+        statistics().clear();
+    }
+
+    @Override
+    public long getResultCacheHits() {
+        return statistics().getDomainDataRegionStatistics(RESULT_REGION).getHitCount();
+    }
+
+    @Override
+    public long getResultCacheMisses() {
+        return statistics().getDomainDataRegionStatistics(RESULT_REGION).getMissCount();
+    }
+
+    @Override
+    public double getResultCacheHitRatio() {
+        return ratio(getResultCacheHits(), getResultCacheMisses());
+    }
+
+    @Override
+    public long getQueryCacheHits() {
+        return statistics().getQueryCacheHitCount();
+    }
+
+    @Override
+    public long getQueryCacheMisses() {
+        return statistics().getQueryCacheMissCount();
+    }
+
+    @Override
+    public double getQueryCacheHitRatio() {
+        return ratio(getQueryCacheHits(), getQueryCacheMisses());
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+    }
+}
@@ -0,0 +1,49 @@
+package chasegame.results;
+
+/**
+ * Management interface of {@link CacheMetrics}, published over JMX.
+ */
+public interface CacheMetricsMXBean {
+
+    /**
+     * Returns the number of results found in the second-level cache.
+     *
+     * @return the number of hits of the result region
+     */
+    long getResultCacheHits();
+
+    /**
+     * Returns the number of results looked up in the second-level cache but not found.
+     *
+     * @return the number of misses of the result region
+     */
+    long getResultCacheMisses();
+
+    /**
+     * Returns the share of result lookups served by the second-level cache.
+     *
+     * @return the hit ratio between 0 and 1, or 0 before the first lookup
+     */
+    double getResultCacheHitRatio();
+
+    /**
+     * Returns the number of cacheable queries answered from the query cache.
+     *
+     * @return the number of query cache hits
+     */
+    long getQueryCacheHits();
+
+    /**
+     * Returns the number of cacheable queries that had to run against the database.
+     *
+     * @return the number of query cache misses
+     */
+    long getQueryCacheMisses();
+
+    /**
+     * Returns the share of cacheable queries answered from the query cache.
+     *
+     * @return the hit ratio between 0 and 1, or 0 before the first query
+     */
+    double getQueryCacheHitRatio();
+}
@@ -0,0 +1,373 @@
+package chasegame.results;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Binary file format for results, written and read one {@link ResultBlock} at a time.
+ * <p>
+ * The file starts with a magic number, followed by blocks. Every block has a header of three ints, the
+ * number of rows, the raw and the compressed length, followed by the deflated payload. A block with no
+ * rows ends the file. The payload stores a dictionary of the strings of the block, then each column in
+ * turn as variable length integers: ids and end times as zigzag deltas, rounds and durations in
+ * milliseconds as zigzag values, and names as dictionary indices with 0 standing for {@code null}.
+ */
+public final class ColumnarResultFormat {
+
+    private static final int MAGIC = 0x43475231;
+    private static final int HEADER = 3 * Integer.BYTES;
+
+    /**
+     * Upper bound on the raw length of a block, far above the few megabytes of a block of the exporter,
+     * so that a corrupt header cannot make the reader allocate an arbitrary amount of memory.
+     */
+    private static final int MAX_RAW_LENGTH = 1 << 28;
+
+    /**
+     * Upper bound on the ratio of the raw and the compressed length, as deflate cannot compress more.
+     */
+    private static final int MAX_RATIO = 1032;
+
+    private ColumnarResultFormat() {
+    }
+
+    /**
+     * Writes blocks to a channel.
+     */
+    public static class Writer implements AutoCloseable {
+
+        private final WritableByteChannel channel;
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private String[] entries = new String[16];
+        private byte[] raw = new byte[1 << 16];
+        private int position;
+        private ByteBuffer out = ByteBuffer.allocateDirect(1 << 16);
+
+        /**
+         * Creates a writer and writes the file header.
+         *
+         * @param channel the channel receiving the file
+         * @throws IOException if writing fails
+         */
+        public Writer(WritableByteChannel channel) throws IOException {
+            this.channel = channel;
+            out.putInt(MAGIC).flip();
+            writeFully(out);
+        }
+
+        /**
+         * Encodes and writes a block.
+         *
+         * @param block the block, left unchanged
+         * @throws IOException if writing fails
+         */
+        public void write(ResultBlock block) throws IOException {
+            if (block.size == 0) {
+                return;
+            }
+            position = 0;
+            dictionary.clear();
+            int count = 0;
+            for (String[] column : new String[][]{block.players, block.opponents, block.winnerTypes}) {
+                for (int i = 0; i < block.size; i++) {
+                    if (column[i] != null && !dictionary.containsKey(column[i])) {
+                        if (count == entries.length) {
+                            entries = Arrays.copyOf(entries, count * 2);
+                        }
+                        entries[count] = column[i];
+                        dictionary.put(column[i], count++);
+                    }
+                }
+            }
+            putVarLong(count);
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = entries[i].getBytes(StandardCharsets.UTF_8);
+                putVarLong(bytes.length);
+                ensure(bytes.length);
+                System.arraycopy(bytes, 0, raw, position, bytes.length);
+                position += bytes.length;
+            }
+            long previous = 0;
+            for (int i = 0; i < block.size; i++) {
+                putVarLong(zigzag(block.ids[i] - previous));
+                previous = block.ids[i];
+            }
+            for (int i = 0; i < block.size; i++) {
+                putVarLong(zigzag(block.rounds[i]));
+            }
+            for (int i = 0; i < block.size; i++) {
+                putVarLong(zigzag(block.durationMillis[i]));
+            }
+            previous = 0;
+            for (int i = 0; i < block.size; i++) {
+                if (block.playedAt[i] == ResultBlock.NO_TIME) {
+                    putVarLong(0);
+                } else {
+                    putVarLong(zigzag(block.playedAt[i] - previous) + 1);
+                    previous = block.playedAt[i];
+                }
+            }
+            for (String[] column : new String[][]{block.players, block.opponents, block.winnerTypes}) {
+                for (int i = 0; i < block.size; i++) {
+                    putVarLong(column[i] == null ? 0 : dictionary.get(column[i]) + 1);
+                }
+            }
+            writeBlock(block.size);
+        }
+
+        private void writeBlock(int rows) throws IOException {
+            deflater.reset();
+            deflater.setInput(raw, 0, position);
+            deflater.finish();
+            int bound = position + position / 1000 + 64 + HEADER;
+            if (out.capacity() < bound) {
+                out = ByteBuffer.allocateDirect(Integer.highestOneBit(bound) << 1);
+            }
+            out.clear();
+            out.position(HEADER);
+            while (!deflater.finished()) {
+                deflater.deflate(out);
+            }
+            int compressed = out.position() - HEADER;
+            out.putInt(0, rows).putInt(Integer.BYTES, position).putInt(2 * Integer.BYTES, compressed);
+            out.flip();
+            writeFully(out);
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > raw.length) {
+                raw = Arrays.copyOf(raw, Math.max(raw.length * 2, position + bytes));
+            }
+        }
+
+        private void putVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                raw[position++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            raw[position++] = (byte) value;
+        }
+
+        /**
+         * Writes the end of file marker. The channel is not closed.
+         *
+         * @throws IOException if writing fails
+         */
+        @Override
+        public void close() throws IOException {
+            out.clear();
+            out.putInt(0).putInt(0).putInt(0).flip();
+            writeFully(out);
+            deflater.end();
+        }
+    }
+
+    /**
+     * Reads blocks from a channel.
+     */
+    public static class Reader implements AutoCloseable {
+
+        private final ReadableByteChannel channel;
+        private final Inflater inflater = new Inflater();
+        private final ByteBuffer header = ByteBuffer.allocate(HEADER);
+        private ByteBuffer in = ByteBuffer.allocateDirect(1 << 16);
+        private byte[] raw = new byte[1 << 16];
+        private String[] entries = new String[16];
+        private int position;
+        private int limit;
+        private boolean finished;
+
+        /**
+         * Creates a reader and checks the file header.
+         *
+         * @param channel the channel of the file
+         * @throws IOException if reading fails or the data is not in this format
+         */
+        public Reader(ReadableByteChannel channel) throws IOException {
+            this.channel = channel;
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+            readFully(magic);
+            if (magic.getInt(0) != MAGIC) {
+                throw new IOException("Not a result export");
+            }
+        }
+
+        /**
+         * Reads the next block.
+         *
+         * @param block the block receiving the results, cleared first
+         * @return false if the end of the file was reached
+         * @throws IOException if reading fails or the data is corrupt
+         */
+        public boolean read(ResultBlock block) throws IOException {
+            block.clear();
+            if (finished) {
+                return false;
+            }
+            header.clear();
+            readFully(header);
+            int rows = header.getInt(0);
+            int rawLength = header.getInt(Integer.BYTES);
+            int compressed = header.getInt(2 * Integer.BYTES);
+            if (rows == 0 && rawLength == 0 && compressed == 0) {
+                finished = true;
+                return false;
+            }
+            if (rows < 0 || rows > block.capacity()) {
+                throw new IOException("Block of " + rows + " rows does not fit in " + block.capacity());
+            }
+            if (rows == 0 || rawLength <= 0 || rawLength > MAX_RAW_LENGTH || compressed <= 0
+                    || rawLength / MAX_RATIO > compressed) {
+                throw new IOException("Invalid block header: " + rows + " rows, " + rawLength + " bytes compressed to "
+                        + compressed);
+            }
+            readCompressed(compressed);
+            if (raw.length < rawLength) {
+                raw = new byte[Integer.highestOneBit(rawLength) << 1];
+            }
+            inflater.reset();
+            inflater.setInput(in);
+            try {
+                int inflated = 0;
+                while (inflated < rawLength && !inflater.finished()) {
+                    int length = inflater.inflate(raw, inflated, rawLength - inflated);
+                    if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    inflated += length;
+                }
+                if (inflated != rawLength) {
+                    throw new IOException("Block inflated to " + inflated + " bytes instead of " + rawLength);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException(e);
+            }
+            limit = rawLength;
+            decode(block, rows);
+            return true;
+        }
+
+        /**
+         * Reads the compressed payload of a block into {@link #in}, growing the buffer only as the data
+         * arrives, so that a length beyond the end of the input fails before it is allocated.
+         */
+        private void readCompressed(int compressed) throws IOException {
+            in.clear().limit(Math.min(compressed, in.capacity()));
+            while (in.position() < compressed) {
+                if (!in.hasRemaining()) {
+                    ByteBuffer larger = ByteBuffer.allocateDirect((int) Math.min(compressed, 2L * in.capacity()));
+                    larger.put(in.flip());
+                    in = larger;
+                }
+                if (channel.read(in) < 0) {
+                    throw new EOFException("Block ends after " + in.position() + " of " + compressed + " bytes");
+                }
+            }
+            in.flip();
+        }
+
+        private void decode(ResultBlock block, int rows) throws IOException {
+            position = 0;
+            long count = getVarLong();
+            if (count < 0 || count > 3L * rows) {
+                throw new IOException("Dictionary of " + count + " names for " + rows + " rows");
+            }
+            if (entries.length < count) {
+                entries = new String[(int) count];
+            }
+            for (int i = 0; i < count; i++) {
+                long length = getVarLong();
+                if (length < 0 || length > limit - position) {
+                    throw new IOException("Name of " + length + " bytes exceeds the block");
+                }
+                entries[i] = new String(raw, position, (int) length, StandardCharsets.UTF_8);
+                position += (int) length;
+            }
+            long previous = 0;
+            for (int i = 0; i < rows; i++) {
+                previous += unzigzag(getVarLong());
+                block.ids[i] = previous;
+            }
+            for (int i = 0; i < rows; i++) {
+                block.rounds[i] = (int) unzigzag(getVarLong());
+            }
+            for (int i = 0; i < rows; i++) {
+                block.durationMillis[i] = unzigzag(getVarLong());
+            }
+            previous = 0;
+            for (int i = 0; i < rows; i++) {
+                long value = getVarLong();
+                if (value == 0) {
+                    block.playedAt[i] = ResultBlock.NO_TIME;
+                } else {
+                    previous += unzigzag(value - 1);
+                    block.playedAt[i] = previous;
+                }
+            }
+            for (String[] column : new String[][]{block.players, block.opponents, block.winnerTypes}) {
+                for (int i = 0; i < rows; i++) {
+                    long index = getVarLong();
+                    if (index < 0 || index > count) {
+                        throw new IOException("Name " + index + " is not in the dictionary of " + count);
+                    }
+                    column[i] = index == 0 ? null : entries[(int) index - 1];
+                }
+            }
+            block.size = rows;
+        }
+
+        private long getVarLong() throws IOException {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (position == limit || shift > 63) {
+                    throw new IOException("Malformed number at byte " + position + " of " + limit);
+                }
+                b = raw[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        private void readFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    throw new EOFException();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            inflater.end();
+        }
+    }
+
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+}
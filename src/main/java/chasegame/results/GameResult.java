@@ -4,12 +4,18 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
 import java.time.Duration;
+import java.time.Instant;
 
 /**
  * Class representing the result of a game played by a specific player.
@@ -19,6 +25,15 @@ import java.time.Duration;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(indexes = {
+        @Index(name = "idx_result_rounds", columnList = "rounds, duration, id"),
+        @Index(name = "idx_result_duration", columnList = "duration, rounds, id"),
+        @Index(name = "idx_result_side_rounds", columnList = "winnerType, rounds, duration, id"),
+        @Index(name = "idx_result_side_duration", columnList = "winnerType, duration, rounds, id"),
+        @Index(name = "idx_result_played_at", columnList = "playedAt")
+})
 public class GameResult {
 
     @Id
@@ -28,9 +43,21 @@ public class GameResult {
     /**
      * The name of the player.
      */
-    @Column
+    @Column(nullable = false)
     private String player;
 
+    /**
+     * The name of the player who lost the game.
+     */
+    @Column
+    private String opponent;
+
+    /**
+     * The side of the winner, {@code "Fox"} or {@code "Dogs"}.
+     */
+    @Column
+    private String winnerType;
+
     /**
      * The number of rounds played.
      */
@@ -41,4 +68,10 @@ public class GameResult {
      */
     @Column(nullable = false)
     private Duration duration;
+
+    /**
+     * The time the game ended.
+     */
+    @Column
+    private Instant playedAt;
 }
@@ -3,17 +3,74 @@ package chasegame.results;
 import com.google.inject.persist.Transactional;
 import dbutils.jpa.GenericJpaDao;
 
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO class for the {@link GameResult} entity.
  */
 public class GameResultDao extends GenericJpaDao<GameResult> {
 
+    @Inject
+    private PlayerStatsDao playerStatsDao;
+
+    @Inject
+    private EntityManagerFactory entityManagerFactory;
+
     public GameResultDao() {
         super(GameResult.class);
     }
 
+    /**
+     * Persists a result and adds it to the summaries of both players in the same transaction.
+     * Missing summaries are created beforehand in transactions of their own, so that concurrent first
+     * games of a player do not collide, and the summaries are locked in the order of the player names.
+     *
+     * @param result the result to be persisted
+     */
+    @Override
+    public void persist(GameResult result) {
+        playerStatsDao.createIfAbsent(result.getPlayer());
+        if (result.getOpponent() != null) {
+            playerStatsDao.createIfAbsent(result.getOpponent());
+        }
+        persistAndRecord(result);
+    }
+
+    /**
+     * Persists a result and updates the existing summaries of its players.
+     *
+     * @param result the result to be persisted
+     */
+    @Transactional
+    protected void persistAndRecord(GameResult result) {
+        if (result.getPlayedAt() == null) {
+            result.setPlayedAt(Instant.now());
+        }
+        super.persist(result);
+        Map<String, PlayerStats> games = new HashMap<>();
+        addGame(games, result.getPlayer(), result.getOpponent(), result.getWinnerType(), result.getRounds(),
+                result.getDuration());
+        playerStatsDao.recordGames(games.values());
+    }
+
     /**
      * Returns the list of {@code n} best results with respect to the time
      * spent for solving the puzzle.
@@ -24,9 +81,180 @@ public class GameResultDao extends GenericJpaDao<GameResult> {
      */
     @Transactional
     public List<GameResult> findBest(int n) {
-        return entityManager.createQuery("SELECT r FROM GameResult r ORDER BY r.rounds ASC, r.duration ASC", GameResult.class)
+        return getEntityManager().createQuery("SELECT r FROM GameResult r ORDER BY r.rounds ASC, r.duration ASC", GameResult.class)
+                .setHint(QueryHints.CACHEABLE, true)
                 .setMaxResults(n)
                 .getResultList();
     }
 
+    /**
+     * Returns one page of results in the order of a ranking, starting after a given result.
+     * Paging by the key of the last result keeps every page as cheap as the first one.
+     *
+     * @param ranking the ordering of the results
+     * @param winnerType the winning side to filter on, or {@code null} for both sides
+     * @param since the earliest end of game to include, or {@code null} for all time
+     * @param after the last result of the previous page, or {@code null} for the first page
+     * @param size the maximum number of results to be returned
+     * @return the results of the page
+     */
+    @Transactional
+    public List<GameResult> findPage(Ranking ranking, String winnerType, Instant since, GameResult after, int size) {
+        String primary = "r." + ranking.getPrimary();
+        String secondary = "r." + ranking.getSecondary();
+        StringBuilder jpql = new StringBuilder("SELECT r FROM GameResult r WHERE 1 = 1");
+        if (winnerType != null) {
+            jpql.append(" AND r.winnerType = :winnerType");
+        }
+        if (since != null) {
+            jpql.append(" AND r.playedAt >= :since");
+        }
+        if (after != null) {
+            jpql.append(" AND (").append(primary).append(" > :primary OR (").append(primary).append(" = :primary AND (")
+                    .append(secondary).append(" > :secondary OR (").append(secondary).append(" = :secondary AND r.id > :id))))");
+        }
+        jpql.append(" ORDER BY ").append(primary).append(" ASC, ").append(secondary).append(" ASC, r.id ASC");
+        TypedQuery<GameResult> query = getEntityManager().createQuery(jpql.toString(), GameResult.class);
+        if (winnerType != null) {
+            query.setParameter("winnerType", winnerType);
+        }
+        if (since != null) {
+            query.setParameter("since", since);
+        }
+        if (after != null) {
+            query.setParameter("primary", Ranking.valueOf(after, ranking.getPrimary()));
+            query.setParameter("secondary", Ranking.valueOf(after, ranking.getSecondary()));
+            query.setParameter("id", after.getId());
+        }
+        return query.setHint(QueryHints.CACHEABLE, true).setMaxResults(size).getResultList();
+    }
+
+    /**
+     * Returns the oldest results that ended before a given time.
+     *
+     * @param cutoff the end of game before which results are returned
+     * @param size the maximum number of results to be returned
+     * @return the results, in ascending order of id
+     */
+    @Transactional
+    public List<GameResult> findPlayedBefore(Instant cutoff, int size) {
+        return getEntityManager().createQuery("SELECT r FROM GameResult r WHERE r.playedAt < :cutoff ORDER BY r.id", GameResult.class)
+                .setParameter("cutoff", cutoff)
+                .setMaxResults(size)
+                .getResultList();
+    }
+
+    /**
+     * Removes results by id.
+     *
+     * @param ids the ids of the results to be removed
+     * @return the number of results removed
+     */
+    @Transactional
+    public int deleteByIds(List<Long> ids) {
+        return getEntityManager().createQuery("DELETE FROM GameResult r WHERE r.id IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    /**
+     * Reads the results following a given id into a block, bypassing the persistence context so that
+     * no entities are created.
+     *
+     * @param afterId the id after which results are read, 0 for the first block
+     * @param block the block receiving the results, cleared first and filled up to its capacity
+     * @return the number of results read
+     */
+    @Transactional
+    public int readBlock(long afterId, ResultBlock block) {
+        block.clear();
+        getEntityManager().unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT id, player, opponent, winnerType, rounds, duration, playedAt FROM GameResult"
+                            + " WHERE id > ? ORDER BY id")) {
+                statement.setLong(1, afterId);
+                statement.setMaxRows(block.capacity());
+                statement.setFetchSize(block.capacity());
+                try (ResultSet rows = statement.executeQuery()) {
+                    while (rows.next()) {
+                        Timestamp playedAt = rows.getTimestamp(7);
+                        block.add(rows.getLong(1), rows.getString(2), rows.getString(3), rows.getString(4),
+                                rows.getInt(5), rows.getLong(6) / 1_000_000,
+                                playedAt == null ? ResultBlock.NO_TIME : playedAt.toInstant().toEpochMilli());
+                    }
+                }
+            }
+        });
+        return block.size();
+    }
+
+    /**
+     * Adds the results of a block to the stored results and to the summaries of their players. The
+     * results get new ids from the sequence of the entity, as the ids of results from another database
+     * would collide with the stored ones, so importing the same results twice stores them twice. Missing
+     * summaries are created first, as in {@link #persist(GameResult)}. The results are inserted with one
+     * batch of plain JDBC statements that bypass Hibernate, so cached leaderboard queries are evicted
+     * once they are committed.
+     *
+     * @param block the results to be written
+     */
+    public void writeBlock(ResultBlock block) {
+        Map<String, PlayerStats> games = new HashMap<>();
+        for (int i = 0; i < block.size(); i++) {
+            addGame(games, block.getPlayer(i), block.getOpponent(i), block.getWinnerType(i), block.getRounds(i),
+                    Duration.ofMillis(block.getDurationMillis(i)));
+        }
+        games.keySet().forEach(playerStatsDao::createIfAbsent);
+        insertBlock(block, games.values());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+    }
+
+    /**
+     * Inserts the results of a block under new ids and adds their games to the existing summaries.
+     *
+     * @param block the results to be inserted
+     * @param games the games of the results, summarized per player
+     */
+    @Transactional
+    protected void insertBlock(ResultBlock block, Collection<PlayerStats> games) {
+        SessionImplementor session = getEntityManager().unwrap(SessionImplementor.class);
+        IdentifierGenerator ids = session.getFactory().getMetamodel().entityPersister(GameResult.class)
+                .getIdentifierGenerator();
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO GameResult (id, player, opponent, winnerType, rounds, duration, playedAt)"
+                            + " VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+                for (int i = 0; i < block.size(); i++) {
+                    statement.setLong(1, (Long) ids.generate(session, null));
+                    statement.setString(2, block.getPlayer(i));
+                    statement.setString(3, block.getOpponent(i));
+                    statement.setString(4, block.getWinnerType(i));
+                    statement.setInt(5, block.getRounds(i));
+                    statement.setLong(6, block.getDurationMillis(i) * 1_000_000);
+                    if (block.getPlayedAt(i) == ResultBlock.NO_TIME) {
+                        statement.setNull(7, Types.TIMESTAMP);
+                    } else {
+                        statement.setTimestamp(7, Timestamp.from(Instant.ofEpochMilli(block.getPlayedAt(i))));
+                    }
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+        playerStatsDao.recordGames(games);
+    }
+
+    /**
+     * Adds a game to the summaries of both of its players, the same way for a stored and an imported result.
+     */
+    private static void addGame(Map<String, PlayerStats> games, String player, String opponent, String winnerType,
+                                int rounds, Duration duration) {
+        games.computeIfAbsent(player, name -> PlayerStats.builder().player(name).build())
+                .addGame(winnerType, rounds, duration);
+        if (opponent != null) {
+            games.computeIfAbsent(opponent, name -> PlayerStats.builder().player(name).build())
+                    .addGame(null, rounds, duration);
+        }
+    }
+
 }
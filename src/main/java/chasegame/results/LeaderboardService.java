@@ -0,0 +1,72 @@
+package chasegame.results;
+
+import javax.inject.Inject;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Serves pages of the leaderboards: by ranking, by winning side and by time window.
+ */
+public class LeaderboardService {
+
+    /**
+     * Calendar periods a leaderboard can be restricted to, in the time zone of the clock.
+     */
+    public enum Window {
+        ALL_TIME("All time"),
+        DAILY("Today"),
+        WEEKLY("This week");
+
+        private final String label;
+
+        Window(String label) {
+            this.label = label;
+        }
+
+        public String toString() {
+            return label;
+        }
+    }
+
+    @Inject
+    private GameResultDao gameResultDao;
+
+    private Clock clock = Clock.systemDefaultZone();
+
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the first instant of a time window.
+     *
+     * @param window the time window
+     * @return the start of the window, or {@code null} for all time
+     */
+    public Instant windowStart(Window window) {
+        LocalDate today = LocalDate.now(clock);
+        return switch (window) {
+            case ALL_TIME -> null;
+            case DAILY -> today.atStartOfDay(clock.getZone()).toInstant();
+            case WEEKLY -> today.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).atStartOfDay(clock.getZone()).toInstant();
+        };
+    }
+
+    /**
+     * Returns one page of a leaderboard.
+     *
+     * @param ranking the ordering of the results
+     * @param winnerType the winning side, or {@code null} for both sides
+     * @param window the time window
+     * @param after the last result of the previous page, or {@code null} for the first page
+     * @param size the page size
+     * @return the results of the page
+     */
+    public List<GameResult> page(Ranking ranking, String winnerType, Window window, GameResult after, int size) {
+        return gameResultDao.findPage(ranking, winnerType, windowStart(window), after, size);
+    }
+}
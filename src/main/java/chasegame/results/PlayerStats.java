@@ -0,0 +1,100 @@
+package chasegame.results;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.Duration;
+
+/**
+ * Summary of all games of a player, kept up to date whenever a {@link GameResult} is stored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+public class PlayerStats {
+
+    /**
+     * The name of the player.
+     */
+    @Id
+    private String player;
+
+    /**
+     * The number of games played.
+     */
+    private int games;
+
+    /**
+     * The number of games won with the fox.
+     */
+    private int foxWins;
+
+    /**
+     * The number of games won with the dogs.
+     */
+    private int dogWins;
+
+    /**
+     * The sum of the rounds of all games, used for the average.
+     */
+    private long totalRounds;
+
+    /**
+     * The duration of the fastest won game.
+     */
+    @Column
+    private Duration bestTime;
+
+    /**
+     * Returns the average number of rounds of the games.
+     *
+     * @return the average, 0 if no game was played
+     */
+    public double getAverageRounds() {
+        return games == 0 ? 0 : (double) totalRounds / games;
+    }
+
+    /**
+     * Adds a game to the summary.
+     *
+     * @param winnerType the winning side if the player won, {@code null} if the player lost
+     * @param rounds the number of rounds of the game
+     * @param duration the duration of the game
+     */
+    public void addGame(String winnerType, int rounds, Duration duration) {
+        games++;
+        totalRounds += rounds;
+        if (winnerType != null) {
+            if (winnerType.equals("Fox")) {
+                foxWins++;
+            } else if (winnerType.equals("Dogs")) {
+                dogWins++;
+            }
+            if (bestTime == null || duration.compareTo(bestTime) < 0) {
+                bestTime = duration;
+            }
+        }
+    }
+
+    /**
+     * Adds the games of another summary of the same player.
+     *
+     * @param other the summary whose games are added, left unchanged
+     */
+    public void addAll(PlayerStats other) {
+        games += other.games;
+        foxWins += other.foxWins;
+        dogWins += other.dogWins;
+        totalRounds += other.totalRounds;
+        if (bestTime == null || other.bestTime != null && other.bestTime.compareTo(bestTime) < 0) {
+            bestTime = other.bestTime;
+        }
+    }
+}
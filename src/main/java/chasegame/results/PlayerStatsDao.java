@@ -0,0 +1,96 @@
+package chasegame.results;
+
+import com.google.inject.persist.Transactional;
+import dbutils.jpa.GenericJpaDao;
+import org.hibernate.exception.ConstraintViolationException;
+import org.tinylog.Logger;
+
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * DAO class for the {@link PlayerStats} entity.
+ */
+public class PlayerStatsDao extends GenericJpaDao<PlayerStats> {
+
+    public PlayerStatsDao() {
+        super(PlayerStats.class);
+    }
+
+    /**
+     * Creates an empty summary for a player who has none yet. Called outside a transaction, the summary
+     * is committed right away, and a summary created at the same time by another thread is not an error.
+     *
+     * @param player the name of the player
+     * @throws PersistenceException if the summary cannot be created for any other reason
+     */
+    public void createIfAbsent(String player) {
+        try {
+            insertIfAbsent(player);
+        } catch (PersistenceException e) {
+            if (!isConstraintViolation(e)) {
+                throw e;
+            }
+            Logger.debug("Summary of {} was created concurrently", player);
+        }
+    }
+
+    private static boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Inserts an empty summary for a player who has none yet.
+     *
+     * @param player the name of the player
+     */
+    @Transactional
+    protected void insertIfAbsent(String player) {
+        if (getEntityManager().find(PlayerStats.class, player) == null) {
+            getEntityManager().persist(PlayerStats.builder().player(player).build());
+        }
+    }
+
+    /**
+     * Adds games to the summaries of their players, creating the summaries of first games. The
+     * summaries are locked in the order of the player names, so that concurrent calls cannot deadlock.
+     *
+     * @param games the games to be added, summarized per player by {@link PlayerStats#addGame}
+     */
+    @Transactional
+    public void recordGames(Collection<PlayerStats> games) {
+        games.stream()
+                .sorted(Comparator.comparing(PlayerStats::getPlayer))
+                .forEach(added -> lock(added.getPlayer()).addAll(added));
+    }
+
+    private PlayerStats lock(String player) {
+        PlayerStats stats = getEntityManager().find(PlayerStats.class, player, LockModeType.PESSIMISTIC_WRITE);
+        if (stats == null) {
+            stats = PlayerStats.builder().player(player).build();
+            getEntityManager().persist(stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the players with the most wins.
+     *
+     * @param n the maximum number of players to be returned
+     * @return the summaries of the {@code n} players with the most wins
+     */
+    @Transactional
+    public List<PlayerStats> findMostWins(int n) {
+        return getEntityManager().createQuery("SELECT s FROM PlayerStats s ORDER BY s.foxWins + s.dogWins DESC, s.bestTime ASC", PlayerStats.class)
+                .setMaxResults(n)
+                .getResultList();
+    }
+}
@@ -0,0 +1,43 @@
+package chasegame.results;
+
+/**
+ * Orderings of the leaderboard. Ties are broken by the other measure and finally by id, so every
+ * ordering is total and can be paged with a keyset.
+ */
+public enum Ranking {
+    FEWEST_ROUNDS("Fewest rounds", "rounds", "duration"),
+    FASTEST("Fastest", "duration", "rounds");
+
+    private final String label;
+    private final String primary;
+    private final String secondary;
+
+    Ranking(String label, String primary, String secondary) {
+        this.label = label;
+        this.primary = primary;
+        this.secondary = secondary;
+    }
+
+    public String getPrimary() {
+        return primary;
+    }
+
+    public String getSecondary() {
+        return secondary;
+    }
+
+    /**
+     * Returns the value of an ordering column of a result.
+     *
+     * @param result the result
+     * @param column {@code "rounds"} or {@code "duration"}
+     * @return the value of the column
+     */
+    static Object valueOf(GameResult result, String column) {
+        return column.equals("rounds") ? (Object) result.getRounds() : result.getDuration();
+    }
+
+    public String toString() {
+        return label;
+    }
+}
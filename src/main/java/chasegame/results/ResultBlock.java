@@ -0,0 +1,111 @@
+package chasegame.results;
+
+import java.util.Arrays;
+
+/**
+ * A block of results stored column by column, reused for every block of an export or import so that
+ * streaming any number of results needs constant memory.
+ */
+public class ResultBlock {
+
+    /**
+     * Value of {@link #playedAt} for results without a timestamp.
+     */
+    public static final long NO_TIME = Long.MIN_VALUE;
+
+    final long[] ids;
+    final int[] rounds;
+    final long[] durationMillis;
+    final long[] playedAt;
+    final String[] players;
+    final String[] opponents;
+    final String[] winnerTypes;
+    int size;
+
+    /**
+     * Creates an empty block.
+     *
+     * @param capacity the maximum number of results in the block
+     */
+    public ResultBlock(int capacity) {
+        ids = new long[capacity];
+        rounds = new int[capacity];
+        durationMillis = new long[capacity];
+        playedAt = new long[capacity];
+        players = new String[capacity];
+        opponents = new String[capacity];
+        winnerTypes = new String[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return ids.length;
+    }
+
+    public boolean isFull() {
+        return size == ids.length;
+    }
+
+    /**
+     * Appends a result to the block.
+     *
+     * @param id the id of the result
+     * @param player the name of the winner
+     * @param opponent the name of the loser
+     * @param winnerType the winning side
+     * @param rounds the number of rounds
+     * @param durationMillis the duration in milliseconds
+     * @param playedAt the end of the game in epoch milliseconds, or {@link #NO_TIME}
+     */
+    public void add(long id, String player, String opponent, String winnerType, int rounds, long durationMillis, long playedAt) {
+        ids[size] = id;
+        players[size] = player;
+        opponents[size] = opponent;
+        winnerTypes[size] = winnerType;
+        this.rounds[size] = rounds;
+        this.durationMillis[size] = durationMillis;
+        this.playedAt[size] = playedAt;
+        size++;
+    }
+
+    /**
+     * Empties the block, keeping its arrays.
+     */
+    public void clear() {
+        Arrays.fill(players, 0, size, null);
+        Arrays.fill(opponents, 0, size, null);
+        Arrays.fill(winnerTypes, 0, size, null);
+        size = 0;
+    }
+
+    public long getId(int index) {
+        return ids[index];
+    }
+
+    public String getPlayer(int index) {
+        return players[index];
+    }
+
+    public String getOpponent(int index) {
+        return opponents[index];
+    }
+
+    public String getWinnerType(int index) {
+        return winnerTypes[index];
+    }
+
+    public int getRounds(int index) {
+        return rounds[index];
+    }
+
+    public long getDurationMillis(int index) {
+        return durationMillis[index];
+    }
+
+    public long getPlayedAt(int index) {
+        return playedAt[index];
+    }
+}
@@ -0,0 +1,73 @@
+package chasegame.results;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Aggregate of the results of one player and winning side in one time bucket, kept after the raw
+ * results of the bucket have been compacted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"bucketStart", "player", "winnerType"}),
+        indexes = @Index(name = "idx_bucket_player", columnList = "player, bucketStart"))
+public class ResultBucket {
+
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    /**
+     * The start of the time bucket.
+     */
+    @Column(nullable = false)
+    private Instant bucketStart;
+
+    /**
+     * The name of the winning player.
+     */
+    @Column
+    private String player;
+
+    /**
+     * The winning side.
+     */
+    @Column
+    private String winnerType;
+
+    /**
+     * The number of results in the bucket.
+     */
+    private int games;
+
+    /**
+     * The sum of the rounds of the results.
+     */
+    private long totalRounds;
+
+    /**
+     * The fewest rounds of any result.
+     */
+    private int bestRounds;
+
+    /**
+     * The shortest duration of any result.
+     */
+    @Column
+    private Duration bestDuration;
+}
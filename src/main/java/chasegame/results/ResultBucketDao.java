@@ -0,0 +1,69 @@
+package chasegame.results;
+
+import com.google.inject.persist.Transactional;
+import dbutils.jpa.GenericJpaDao;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DAO class for the {@link ResultBucket} entity.
+ */
+public class ResultBucketDao extends GenericJpaDao<ResultBucket> {
+
+    public ResultBucketDao() {
+        super(ResultBucket.class);
+    }
+
+    /**
+     * Adds results to the aggregate of a bucket, creating the aggregate if needed.
+     *
+     * @param delta the aggregate of the results to add, without id
+     */
+    @Transactional
+    public void add(ResultBucket delta) {
+        List<ResultBucket> existing = getEntityManager().createQuery("SELECT b FROM ResultBucket b WHERE b.bucketStart = :bucketStart"
+                        + " AND b.player = :player AND b.winnerType = :winnerType", ResultBucket.class)
+                .setParameter("bucketStart", delta.getBucketStart())
+                .setParameter("player", delta.getPlayer())
+                .setParameter("winnerType", delta.getWinnerType())
+                .getResultList();
+        if (existing.isEmpty()) {
+            getEntityManager().persist(delta);
+            return;
+        }
+        ResultBucket bucket = existing.get(0);
+        bucket.setGames(bucket.getGames() + delta.getGames());
+        bucket.setTotalRounds(bucket.getTotalRounds() + delta.getTotalRounds());
+        bucket.setBestRounds(Math.min(bucket.getBestRounds(), delta.getBestRounds()));
+        if (delta.getBestDuration().compareTo(bucket.getBestDuration()) < 0) {
+            bucket.setBestDuration(delta.getBestDuration());
+        }
+    }
+
+    /**
+     * Returns the aggregates of a player in ascending order of time.
+     *
+     * @param player the name of the player
+     * @return the aggregates of the player
+     */
+    @Transactional
+    public List<ResultBucket> findByPlayer(String player) {
+        return getEntityManager().createQuery("SELECT b FROM ResultBucket b WHERE b.player = :player ORDER BY b.bucketStart", ResultBucket.class)
+                .setParameter("player", player)
+                .getResultList();
+    }
+
+    /**
+     * Removes the aggregates of the buckets starting before a given time.
+     *
+     * @param cutoff the earliest bucket start to keep
+     * @return the number of aggregates removed
+     */
+    @Transactional
+    public int deleteBefore(Instant cutoff) {
+        return getEntityManager().createQuery("DELETE FROM ResultBucket b WHERE b.bucketStart < :cutoff")
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,162 @@
+package chasegame.results;
+
+import com.google.inject.persist.Transactional;
+import com.google.inject.persist.UnitOfWork;
+import org.tinylog.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolls raw results older than the retention period into {@link ResultBucket} aggregates and prunes
+ * expired aggregates, so the {@link GameResult} table only holds recent games.
+ * Only whole buckets are compacted, one batch of results per transaction, and every batch runs in a
+ * unit of work of its own, so the compacting thread never shares an {@code EntityManager} and does not
+ * keep the compacted results in its persistence context.
+ */
+@Singleton
+public class ResultCompactor {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Inject
+    private GameResultDao gameResultDao;
+
+    @Inject
+    private ResultBucketDao resultBucketDao;
+
+    @Inject
+    private UnitOfWork unitOfWork;
+
+    private RetentionPolicy policy;
+
+    private Clock clock = Clock.systemUTC();
+
+    private ScheduledExecutorService scheduler;
+
+    private record BucketKey(Instant bucketStart, String player, String winnerType) {
+    }
+
+    public void setPolicy(RetentionPolicy policy) {
+        this.policy = policy;
+    }
+
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Runs compaction in a background thread, first right away and then periodically.
+     *
+     * @param interval the time between two runs
+     */
+    public synchronized void start(Duration interval) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "result-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                compact();
+            } catch (RuntimeException e) {
+                Logger.error(e, "Compaction of results failed");
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the background compaction.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Compacts every expired result and removes every expired aggregate. Must not be called within a
+     * unit of work.
+     *
+     * @return the number of results compacted
+     * @throws IllegalStateException if no policy was set
+     */
+    public int compact() {
+        if (policy == null) {
+            throw new IllegalStateException("No retention policy");
+        }
+        Instant now = clock.instant();
+        Instant cutoff = policy.bucketStart(now.minus(policy.keepResults()));
+        int compacted = 0;
+        int batch;
+        do {
+            unitOfWork.begin();
+            try {
+                batch = compactBatch(cutoff);
+            } finally {
+                unitOfWork.end();
+            }
+            compacted += batch;
+        } while (batch == BATCH_SIZE);
+        int pruned;
+        unitOfWork.begin();
+        try {
+            pruned = resultBucketDao.deleteBefore(policy.bucketStart(now.minus(policy.keepBuckets())));
+        } finally {
+            unitOfWork.end();
+        }
+        Logger.debug("Compacted {} results before {}, pruned {} aggregates", compacted, cutoff, pruned);
+        return compacted;
+    }
+
+    /**
+     * Aggregates and removes one batch of the oldest results ending before the cutoff.
+     *
+     * @param cutoff the start of the first bucket to keep raw
+     * @return the number of results compacted
+     */
+    @Transactional
+    public int compactBatch(Instant cutoff) {
+        List<GameResult> results = gameResultDao.findPlayedBefore(cutoff, BATCH_SIZE);
+        if (results.isEmpty()) {
+            return 0;
+        }
+        Map<BucketKey, ResultBucket> buckets = new LinkedHashMap<>();
+        List<Long> ids = new ArrayList<>(results.size());
+        for (var result : results) {
+            ids.add(result.getId());
+            Instant bucketStart = policy.bucketStart(result.getPlayedAt());
+            var key = new BucketKey(bucketStart, result.getPlayer(), result.getWinnerType());
+            ResultBucket bucket = buckets.computeIfAbsent(key, k -> ResultBucket.builder()
+                    .bucketStart(bucketStart)
+                    .player(result.getPlayer())
+                    .winnerType(result.getWinnerType())
+                    .bestRounds(Integer.MAX_VALUE)
+                    .bestDuration(result.getDuration())
+                    .build());
+            bucket.setGames(bucket.getGames() + 1);
+            bucket.setTotalRounds(bucket.getTotalRounds() + result.getRounds());
+            bucket.setBestRounds(Math.min(bucket.getBestRounds(), result.getRounds()));
+            if (result.getDuration().compareTo(bucket.getBestDuration()) < 0) {
+                bucket.setBestDuration(result.getDuration());
+            }
+        }
+        buckets.values().forEach(resultBucketDao::add);
+        gameResultDao.deleteByIds(ids);
+        return results.size();
+    }
+}
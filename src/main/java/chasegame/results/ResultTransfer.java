@@ -0,0 +1,96 @@
+package chasegame.results;
+
+import com.google.inject.Guice;
+import dbutils.guice.PersistenceModule;
+import org.tinylog.Logger;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Moves all results between the database and files in the {@link ColumnarResultFormat}, for backups
+ * and for offline analysis on another machine. Results are streamed one block at a time, each block in
+ * its own transaction, so memory use does not depend on the number of results.
+ */
+public class ResultTransfer {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+
+    @Inject
+    private GameResultDao gameResultDao;
+
+    /**
+     * Writes all results to a file, in ascending order of id.
+     *
+     * @param file the file to be created or replaced
+     * @return the number of results written
+     * @throws IOException if writing the file fails
+     */
+    public long exportTo(Path file) throws IOException {
+        long start = System.nanoTime();
+        long count = 0;
+        ResultBlock block = new ResultBlock(BLOCK_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             var writer = new ColumnarResultFormat.Writer(channel)) {
+            long lastId = 0;
+            while (gameResultDao.readBlock(lastId, block) > 0) {
+                writer.write(block);
+                count += block.size();
+                lastId = block.getId(block.size() - 1);
+            }
+        }
+        log("Exported", count, start);
+        return count;
+    }
+
+    /**
+     * Reads results from a file and adds them to the stored results under new ids.
+     *
+     * @param file the file to be read
+     * @return the number of results read
+     * @throws IOException if reading the file fails or the file is corrupt
+     */
+    public long importFrom(Path file) throws IOException {
+        long start = System.nanoTime();
+        long count = 0;
+        ResultBlock block = new ResultBlock(BLOCK_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             var reader = new ColumnarResultFormat.Reader(channel)) {
+            while (reader.read(block)) {
+                gameResultDao.writeBlock(block);
+                count += block.size();
+            }
+        }
+        log("Imported", count, start);
+        return count;
+    }
+
+    private static void log(String action, long count, long start) {
+        long nanos = Math.max(1, System.nanoTime() - start);
+        Logger.info("{} {} results in {} ms, {} results/s", action, count, nanos / 1_000_000,
+                count * 1_000_000_000 / nanos);
+    }
+
+    /**
+     * Exports or imports the results of the game database.
+     *
+     * @param args {@code export} or {@code import}, followed by the path of the file
+     * @throws IOException if the transfer fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 || !args[0].equals("export") && !args[0].equals("import")) {
+            System.err.println("Usage: ResultTransfer export|import <file>");
+            return;
+        }
+        var transfer = Guice.createInjector(new PersistenceModule("chase-game")).getInstance(ResultTransfer.class);
+        if (args[0].equals("export")) {
+            transfer.exportTo(Path.of(args[1]));
+        } else {
+            transfer.importFrom(Path.of(args[1]));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package chasegame.results;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Says how long raw results and their aggregates are kept.
+ *
+ * @param bucket the length of the time buckets results are aggregated into
+ * @param keepResults how long raw results are kept before being compacted
+ * @param keepBuckets how long aggregates are kept before being removed
+ */
+public record RetentionPolicy(Duration bucket, Duration keepResults, Duration keepBuckets) {
+
+    /**
+     * Reads the policy from the {@code chasegame.retention.bucket}, {@code chasegame.retention.results}
+     * and {@code chasegame.retention.buckets} system properties, given as ISO-8601 durations.
+     * Results are only compacted when {@code chasegame.retention.results} is set, since the all time
+     * leaderboard and the best results only read raw results; buckets are daily and aggregates are
+     * kept for a year unless set otherwise.
+     *
+     * @return the policy, or an empty {@code Optional} if raw results are kept forever
+     */
+    public static Optional<RetentionPolicy> fromSystemProperties() {
+        return Optional.ofNullable(System.getProperty("chasegame.retention.results")).map(keepResults ->
+                new RetentionPolicy(
+                        Duration.parse(System.getProperty("chasegame.retention.bucket", "P1D")),
+                        Duration.parse(keepResults),
+                        Duration.parse(System.getProperty("chasegame.retention.buckets", "P365D"))));
+    }
+
+    /**
+     * Returns the start of the bucket containing a time.
+     *
+     * @param time the time
+     * @return the start of its bucket
+     */
+    public Instant bucketStart(Instant time) {
+        long length = bucket.toMillis();
+        return Instant.ofEpochMilli(Math.floorDiv(time.toEpochMilli(), length) * length);
+    }
+}
@@ -0,0 +1,85 @@
+package chasegame.results;
+
+import com.google.inject.persist.Transactional;
+import org.hibernate.Session;
+import org.tinylog.Logger;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Brings a database created by an earlier version of the game up to the current schema. Schema
+ * generation creates the tables that are missing at startup but never alters existing ones, so the
+ * columns and indexes added to {@link GameResult} since the first version are added here, and the
+ * {@link PlayerStats} summaries of a database that already held results are filled from them.
+ * Every step can be repeated, so the migration runs at every startup.
+ */
+@Singleton
+public class SchemaMigration {
+
+    private static final List<String> STATEMENTS = List.of(
+            "ALTER TABLE GameResult ADD COLUMN IF NOT EXISTS opponent VARCHAR(255)",
+            "ALTER TABLE GameResult ADD COLUMN IF NOT EXISTS winnerType VARCHAR(255)",
+            "ALTER TABLE GameResult ADD COLUMN IF NOT EXISTS playedAt TIMESTAMP",
+            "CREATE INDEX IF NOT EXISTS idx_result_rounds ON GameResult (rounds, duration, id)",
+            "CREATE INDEX IF NOT EXISTS idx_result_duration ON GameResult (duration, rounds, id)",
+            "CREATE INDEX IF NOT EXISTS idx_result_side_rounds ON GameResult (winnerType, rounds, duration, id)",
+            "CREATE INDEX IF NOT EXISTS idx_result_side_duration ON GameResult (winnerType, duration, rounds, id)",
+            "CREATE INDEX IF NOT EXISTS idx_result_played_at ON GameResult (playedAt)");
+
+    /**
+     * Counts every result once for its player and once for its opponent, the same way as
+     * {@link PlayerStats#addGame}.
+     */
+    private static final String FILL_PLAYER_STATS =
+            "INSERT INTO PlayerStats (player, games, foxWins, dogWins, totalRounds, bestTime)"
+                    + " SELECT player, COUNT(*), SUM(foxWin), SUM(dogWin), SUM(rounds), MIN(wonIn) FROM ("
+                    + " SELECT player, rounds,"
+                    + " CASE WHEN winnerType = 'Fox' THEN 1 ELSE 0 END AS foxWin,"
+                    + " CASE WHEN winnerType = 'Dogs' THEN 1 ELSE 0 END AS dogWin,"
+                    + " CASE WHEN winnerType IS NOT NULL THEN duration END AS wonIn FROM GameResult"
+                    + " UNION ALL SELECT opponent, rounds, 0, 0, NULL FROM GameResult WHERE opponent IS NOT NULL"
+                    + ") AS played GROUP BY player";
+
+    @Inject
+    private Provider<EntityManager> entityManagerProvider;
+
+    /**
+     * Migrates the database of the persistence unit.
+     */
+    @Transactional
+    public void migrate() {
+        entityManagerProvider.get().unwrap(Session.class).doWork(SchemaMigration::migrate);
+    }
+
+    /**
+     * Migrates a database whose tables were created by any version of the game.
+     *
+     * @param connection the connection to the database, committed by the caller
+     * @throws SQLException if a statement fails
+     */
+    public static void migrate(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : STATEMENTS) {
+                statement.execute(sql);
+            }
+            if (isEmpty(statement, "PlayerStats") && !isEmpty(statement, "GameResult")) {
+                int players = statement.executeUpdate(FILL_PLAYER_STATS);
+                Logger.info("Created the summaries of {} players from their results", players);
+            }
+        }
+    }
+
+    private static boolean isEmpty(Statement statement, String table) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("SELECT 1 FROM " + table + " LIMIT 1")) {
+            return !rows.next();
+        }
+    }
+}
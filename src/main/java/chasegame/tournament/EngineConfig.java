@@ -0,0 +1,109 @@
+package chasegame.tournament;
+
+import chasegame.engine.AlphaBetaSearch;
+import chasegame.engine.BitboardMoveGenerator;
+import chasegame.engine.Evaluator;
+import chasegame.engine.MctsPlayer;
+import chasegame.engine.Player;
+import chasegame.engine.RandomPlayer;
+import chasegame.engine.SearchBudget;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Settings of a tournament participant, from which a fresh single threaded player is built for every game.
+ * @param name the name shown in standings and stored in results.
+ * @param kind the kind of engine.
+ * @param depth the deepest alpha-beta search, in plies.
+ * @param millis the time per move.
+ * @param playouts the MCTS playouts per move.
+ * @param weights the evaluation weights of the alpha-beta search, copied in and out so that a configuration
+ *                never changes.
+ */
+public record EngineConfig(String name, Kind kind, int depth, long millis, long playouts, double[] weights) {
+
+    /**
+     * The kinds of engine.
+     */
+    public enum Kind {
+        ALPHA_BETA,
+        MCTS,
+        RANDOM
+    }
+
+    /**
+     * Creates a configuration.
+     */
+    public EngineConfig {
+        weights = weights == null ? null : weights.clone();
+    }
+
+    @Override
+    public double[] weights() {
+        return weights == null ? null : weights.clone();
+    }
+
+    /**
+     * An alpha-beta search limited by depth and time.
+     * @param name the name of the participant.
+     * @param depth the deepest search in plies.
+     * @param millis the time per move.
+     * @param weights the evaluation weights, {@link Evaluator#FEATURES} values.
+     * @return the configuration.
+     */
+    public static EngineConfig alphaBeta(String name, int depth, long millis, double[] weights) {
+        return new EngineConfig(name, Kind.ALPHA_BETA, depth, millis, 0, weights);
+    }
+
+    /**
+     * A Monte Carlo tree search with a fixed number of playouts.
+     * @param name the name of the participant.
+     * @param playouts the playouts per move.
+     * @return the configuration.
+     */
+    public static EngineConfig mcts(String name, long playouts) {
+        return new EngineConfig(name, Kind.MCTS, 0, Long.MAX_VALUE, playouts, null);
+    }
+
+    /**
+     * A player choosing random valid moves.
+     * @param name the name of the participant.
+     * @return the configuration.
+     */
+    public static EngineConfig random(String name) {
+        return new EngineConfig(name, Kind.RANDOM, 0, 0, 0, null);
+    }
+
+    /**
+     * Builds a player for one game.
+     * @param seed the seed of any randomness of the player.
+     * @return the player, to be closed after the game if it is {@link AutoCloseable}.
+     */
+    public Player create(long seed) {
+        return switch (kind) {
+            case ALPHA_BETA -> new AlphaBetaSearch(new BitboardMoveGenerator(), new Evaluator(weights),
+                    SearchBudget.ofMillis(millis), depth);
+            case MCTS -> new MctsPlayer(1, 1 << 18, SearchBudget.ofPlayouts(playouts), seed);
+            case RANDOM -> new RandomPlayer(seed);
+        };
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof EngineConfig config && name.equals(config.name) && kind == config.kind
+                && depth == config.depth && millis == config.millis && playouts == config.playouts
+                && Arrays.equals(weights, config.weights);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, kind, depth, millis, playouts, Arrays.hashCode(weights));
+    }
+
+    @Override
+    public String toString() {
+        return "EngineConfig[name=" + name + ", kind=" + kind + ", depth=" + depth + ", millis=" + millis
+                + ", playouts=" + playouts + ", weights=" + Arrays.toString(weights) + "]";
+    }
+}
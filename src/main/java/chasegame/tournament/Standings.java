@@ -0,0 +1,24 @@
+package chasegame.tournament;
+
+/**
+ * Results of one participant so far.
+ * @param name the name of the participant.
+ * @param games the number of games played.
+ * @param wins the number of games won.
+ * @param elo the performance rating against the opponents met, relative to their average.
+ * @param eloError the half width of the 95% confidence interval of the rating.
+ */
+public record Standings(String name, int games, int wins, double elo, double eloError) {
+
+    /**
+     * Returns the share of games won.
+     * @return the score between 0 and 1, or 0.5 before the first game.
+     */
+    public double score() {
+        return games == 0 ? 0.5 : (double) wins / games;
+    }
+
+    public String toString() {
+        return String.format("%-16s %5d games %5.1f%% %+7.1f Elo +/- %.1f", name, games, 100 * score(), elo, eloError);
+    }
+}
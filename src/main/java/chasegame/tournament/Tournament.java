@@ -0,0 +1,261 @@
+package chasegame.tournament;
+
+import chasegame.engine.Evaluator;
+import chasegame.engine.Moves;
+import chasegame.engine.Player;
+import chasegame.engine.Seeds;
+import chasegame.model.GameModel;
+import chasegame.results.GameResult;
+import chasegame.results.GameResultDao;
+import org.tinylog.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Plays games between engine configurations on a pool of worker threads, one game per task and one
+ * single threaded player per side, so that every core plays its own game. Every pairing is played the
+ * same number of times with each side. Standings are updated after every game, and the whole
+ * tournament can be paused between two moves and resumed.
+ * The players of a game are seeded from the seed of the tournament and the number of the game, so
+ * players limited by depth or playouts play the same games with any number of threads.
+ */
+public class Tournament {
+
+    /**
+     * Who plays whom.
+     */
+    public enum Format {
+        /**
+         * Every participant against every other.
+         */
+        ROUND_ROBIN,
+        /**
+         * The first participant against every other.
+         */
+        GAUNTLET
+    }
+
+    /**
+     * Outcome of one game.
+     * @param dogs the name of the dogs player.
+     * @param fox the name of the fox player.
+     * @param winnerType {@code "Fox"} or {@code "Dogs"}.
+     * @param rounds the number of fox moves.
+     * @param duration the time the game took.
+     */
+    public record GameRecord(String dogs, String fox, String winnerType, int rounds, Duration duration) {
+    }
+
+    private static final double Z_95 = 1.96;
+
+    private final List<EngineConfig> players;
+    private final Format format;
+    private final int gamesPerSide;
+    private final int threads;
+    private final GameResultDao gameResultDao;
+    private final int[] games;
+    private final int[] wins;
+    private boolean paused;
+    private long seed;
+    private Consumer<GameRecord> listener = record -> { };
+
+    /**
+     * Creates a tournament.
+     * @param players the participants, with distinct names.
+     * @param format who plays whom.
+     * @param gamesPerSide games of each pairing with each participant on each side.
+     * @param threads number of games played at the same time.
+     * @param gameResultDao the store of the results, or {@code null} to keep them in memory only.
+     */
+    public Tournament(List<EngineConfig> players, Format format, int gamesPerSide, int threads, GameResultDao gameResultDao) {
+        if (players.size() < 2 || gamesPerSide < 1 || threads < 1) {
+            throw new IllegalArgumentException();
+        }
+        this.players = List.copyOf(players);
+        this.format = format;
+        this.gamesPerSide = gamesPerSide;
+        this.threads = threads;
+        this.gameResultDao = gameResultDao;
+        games = new int[players.size()];
+        wins = new int[players.size()];
+    }
+
+    public void setListener(Consumer<GameRecord> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets the root of the seeds of the players, 0 unless set.
+     * @param seed the seed of the tournament.
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Plays every game of the tournament.
+     * @return the final standings, in the order of the participants.
+     * @throws InterruptedException if the calling thread is interrupted, which stops the workers.
+     */
+    public List<Standings> run() throws InterruptedException {
+        List<int[]> pairings = new ArrayList<>();
+        for (int a = 0; a < players.size(); a++) {
+            for (int b = a + 1; b < players.size(); b++) {
+                if (format == Format.ROUND_ROBIN || a == 0) {
+                    for (int game = 0; game < gamesPerSide; game++) {
+                        pairings.add(new int[]{a, b});
+                        pairings.add(new int[]{b, a});
+                    }
+                }
+            }
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < pairings.size(); i++) {
+                int[] pairing = pairings.get(i);
+                long game = i;
+                futures.add(pool.submit(() -> {
+                    play(pairing[0], pairing[1], game);
+                    return null;
+                }));
+            }
+            for (var future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return getStandings();
+    }
+
+    private void play(int dogs, int fox, long game) throws Exception {
+        Player dogPlayer = players.get(dogs).create(Seeds.derive(seed, game, 0));
+        Player foxPlayer = players.get(fox).create(Seeds.derive(seed, game, 1));
+        var model = new GameModel();
+        int rounds = 0;
+        long start = System.nanoTime();
+        try {
+            while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                awaitResume();
+                boolean foxToMove = model.getTurnOrder() == GameModel.TurnOrder.FOX;
+                var move = (foxToMove ? foxPlayer : dogPlayer).chooseMove(model);
+                Moves.play(model, move.encode());
+                if (foxToMove) {
+                    rounds++;
+                }
+            }
+        } finally {
+            for (var player : new Player[]{dogPlayer, foxPlayer}) {
+                if (player instanceof AutoCloseable closeable) {
+                    closeable.close();
+                }
+            }
+        }
+        boolean foxWon = model.getStatus() == GameModel.GameStatus.FOX_WON;
+        var record = new GameRecord(players.get(dogs).name(), players.get(fox).name(), foxWon ? "Fox" : "Dogs",
+                rounds, Duration.ofNanos(System.nanoTime() - start));
+        synchronized (this) {
+            games[dogs]++;
+            games[fox]++;
+            wins[foxWon ? fox : dogs]++;
+        }
+        if (gameResultDao != null) {
+            gameResultDao.persist(GameResult.builder()
+                    .player(foxWon ? record.fox() : record.dogs())
+                    .opponent(foxWon ? record.dogs() : record.fox())
+                    .winnerType(record.winnerType())
+                    .rounds(rounds)
+                    .duration(record.duration())
+                    .build());
+        }
+        listener.accept(record);
+    }
+
+    /**
+     * Stops starting new moves until {@link #resume()} is called. Moves being searched are finished.
+     */
+    public synchronized void pause() {
+        paused = true;
+    }
+
+    /**
+     * Lets paused games continue.
+     */
+    public synchronized void resume() {
+        paused = false;
+        notifyAll();
+    }
+
+    public synchronized boolean isPaused() {
+        return paused;
+    }
+
+    private synchronized void awaitResume() throws InterruptedException {
+        while (paused) {
+            wait();
+        }
+    }
+
+    /**
+     * Computes the standings from the games finished so far. The rating of a participant is the Elo
+     * difference that would give its score against the average of its opponents, with the interval
+     * derived from the binomial standard error of the score.
+     * @return the standings, in the order of the participants.
+     */
+    public synchronized List<Standings> getStandings() {
+        List<Standings> standings = new ArrayList<>(players.size());
+        for (int i = 0; i < players.size(); i++) {
+            int n = games[i];
+            if (n == 0) {
+                standings.add(new Standings(players.get(i).name(), 0, 0, 0, Double.POSITIVE_INFINITY));
+                continue;
+            }
+            double score = clamp((double) wins[i] / n, n);
+            double error = Z_95 * Math.sqrt(score * (1 - score) / n);
+            double elo = elo(score);
+            double interval = (elo(clamp(score + error, n)) - elo(clamp(score - error, n))) / 2;
+            standings.add(new Standings(players.get(i).name(), n, wins[i], elo, interval));
+        }
+        return standings;
+    }
+
+    private static double clamp(double score, int games) {
+        double margin = 0.5 / games;
+        return Math.min(Math.max(score, margin), 1 - margin);
+    }
+
+    private static double elo(double score) {
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    /**
+     * Plays a round robin between a few default configurations on all cores and prints the standings.
+     * @param args games per pairing and side, optional.
+     * @throws InterruptedException if interrupted.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int gamesPerSide = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        var tournament = new Tournament(List.of(
+                EngineConfig.alphaBeta("alphabeta-6", 6, 1000, Evaluator.DEFAULT.getWeights()),
+                EngineConfig.alphaBeta("alphabeta-3", 3, 1000, Evaluator.DEFAULT.getWeights()),
+                EngineConfig.mcts("mcts-2000", 2000),
+                EngineConfig.random("random")),
+                Format.ROUND_ROBIN, gamesPerSide, Runtime.getRuntime().availableProcessors(), null);
+        tournament.setListener(record -> Logger.debug("{}", record));
+        long start = System.nanoTime();
+        for (var standings : tournament.run()) {
+            Logger.info("{}", standings);
+        }
+        Logger.info("Tournament took {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Matches between engine configurations and the ratings derived from them.
+ */
+package chasegame.tournament;
@@ -3,14 +3,25 @@ package dbutils.guice;
 import com.google.inject.persist.PersistService;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 import javax.inject.Singleton;
+import javax.persistence.EntityManagerFactory;
 
 @Singleton
 public class JpaInitializer {
 
+    /**
+     * Starts the persistence service. The second-level cache regions live in
+     * a cache manager shared by every factory of the JVM, so entries left by
+     * an earlier factory, possibly over a schema since recreated, are evicted.
+     *
+     * @param persistService the persistence service to start
+     * @param entityManagerFactory the provider of the started factory
+     */
     @Inject
-    public JpaInitializer (PersistService persistService) {
+    public JpaInitializer (PersistService persistService, Provider<EntityManagerFactory> entityManagerFactory) {
         persistService.start();
+        entityManagerFactory.get().getCache().evictAll();
     }
 
 }
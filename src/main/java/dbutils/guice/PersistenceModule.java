@@ -3,6 +3,8 @@ package dbutils.guice;
 import com.google.inject.AbstractModule;
 import com.google.inject.persist.jpa.JpaPersistModule;
 
+import java.util.Properties;
+
 public class PersistenceModule extends AbstractModule {
 
     private String jpaUnit;
@@ -13,8 +15,24 @@ public class PersistenceModule extends AbstractModule {
 
     @Override
     protected void configure() {
-        install(new JpaPersistModule(jpaUnit));
+        install(new JpaPersistModule(jpaUnit).properties(overrides()));
         bind(JpaInitializer.class).asEagerSingleton();
     }
 
+    /**
+     * Collects the system properties overriding the persistence unit, such as
+     * {@code -Dhibernate.hikari.maximumPoolSize=20}.
+     *
+     * @return the {@code hibernate.*} and {@code javax.persistence.*} system properties
+     */
+    private static Properties overrides() {
+        Properties overrides = new Properties();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("hibernate.") || name.startsWith("javax.persistence.")) {
+                overrides.setProperty(name, System.getProperty(name));
+            }
+        }
+        return overrides;
+    }
+
 }
@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import javax.inject.Inject;
+import javax.inject.Provider;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -19,7 +20,7 @@ import com.google.inject.persist.Transactional;
 public abstract class GenericJpaDao<T> {
 
     protected Class<T> entityClass;
-    protected EntityManager entityManager;
+    private Provider<EntityManager> entityManagerProvider;
 
     /**
      * Constructs a {@code GenericJpaDao} object.
@@ -32,22 +33,26 @@ public abstract class GenericJpaDao<T> {
     }
 
     /**
-     * Returns the underlying {@link EntityManager} instance.
+     * Returns the {@link EntityManager} instance of the unit of work of the
+     * calling thread. Every thread calling a {@code @Transactional} method
+     * works with its own instance, which is closed when the outermost
+     * transaction ends, so a DAO can be shared between threads.
      *
      * @return the underlying {@link EntityManager} instance
      */
     public EntityManager getEntityManager() {
-        return entityManager;
+        return entityManagerProvider.get();
     }
 
     /**
-     * Sets the underlying {@link EntityManager} instance.
+     * Sets the provider of the underlying {@link EntityManager} instances.
      *
-     * @param entityManager the underlying {@link EntityManager} instance
+     * @param entityManagerProvider the provider of the {@link EntityManager}
+     *                              instance of the current unit of work
      */
     @Inject
-    public void setEntityManager(EntityManager entityManager) {
-        this.entityManager = entityManager;
+    public void setEntityManagerProvider(Provider<EntityManager> entityManagerProvider) {
+        this.entityManagerProvider = entityManagerProvider;
     }
 
     /**
@@ -57,7 +62,7 @@ public abstract class GenericJpaDao<T> {
      */
     @Transactional
     public void persist(T entity) {
-        entityManager.persist(entity);
+        getEntityManager().persist(entity);
     }
 
     /**
@@ -71,7 +76,7 @@ public abstract class GenericJpaDao<T> {
      */
     @Transactional
     public Optional<T> find(Object primaryKey) {
-        return Optional.ofNullable(entityManager.find(entityClass, primaryKey));
+        return Optional.ofNullable(getEntityManager().find(entityClass, primaryKey));
     }
 
     /**
@@ -81,18 +86,21 @@ public abstract class GenericJpaDao<T> {
      */
     @Transactional
     public List<T> findAll() {
-        TypedQuery<T> typedQuery = entityManager.createQuery("FROM " + entityClass.getSimpleName(), entityClass);
+        TypedQuery<T> typedQuery = getEntityManager().createQuery("FROM " + entityClass.getSimpleName(), entityClass);
         return typedQuery.getResultList();
     }
 
     /**
-     * Removes the specified entity instance from the database.
+     * Removes the specified entity instance from the database. An instance
+     * loaded by an earlier call is merged into the current unit of work
+     * first.
      *
      * @param entity the entity instance to be removed from the database
      */
     @Transactional
     public void remove(T entity) {
-        entityManager.remove(entity);
+        EntityManager entityManager = getEntityManager();
+        entityManager.remove(entityManager.contains(entity) ? entity : entityManager.merge(entity));
     }
 
     /**
@@ -102,7 +110,7 @@ public abstract class GenericJpaDao<T> {
      */
     @Transactional
     public void update(T entity) {
-        entityManager.merge(entity);
+        getEntityManager().merge(entity);
     }
 
 }
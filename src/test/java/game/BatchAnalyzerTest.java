@@ -0,0 +1,78 @@
+package game;
+
+import chasegame.analysis.BatchAnalyzer;
+import chasegame.engine.BitboardMoveGenerator;
+import chasegame.engine.Evaluator;
+import chasegame.engine.Moves;
+import chasegame.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class BatchAnalyzerTest {
+
+    private final BatchAnalyzer analyzer = new BatchAnalyzer(new BitboardMoveGenerator(), Evaluator.DEFAULT, 2);
+
+    @Test
+    void testAgreesWithGameModel() {
+        Random random = new Random(7);
+        List<GameModel> models = new ArrayList<>();
+        int[] buffer = new int[Moves.MAX_MOVES];
+        for (int game = 0; game < 50; game++) {
+            GameModel model = new GameModel();
+            while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                models.add(model.copy());
+                Moves.play(model, buffer[random.nextInt(Moves.generate(model, buffer))]);
+            }
+            models.add(model.copy());
+        }
+        long[] states = new long[models.size()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = PackedState.of(models.get(i));
+        }
+        var result = analyzer.analyze(states);
+        for (int i = 0; i < states.length; i++) {
+            GameModel model = models.get(i);
+            int expected = 0;
+            int count = Moves.generate(model, buffer);
+            for (int j = 0; j < count; j++) {
+                expected |= 1 << buffer[j];
+            }
+            assertEquals(expected, result.legalMoves()[i], model.toString());
+            assertEquals(model.getStatus().ordinal(), result.status()[i], model.toString());
+            if (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                assertNotEquals(0, expected & 1 << result.bestMoves()[i]);
+            } else {
+                assertEquals(-1, result.bestMoves()[i]);
+            }
+        }
+    }
+
+    @Test
+    void testFindsWinningFoxMove() {
+        GameModel model = new GameModel(new Piece(Piece.PieceColor.GREY, new Position(6, 4)),
+                new Piece(Piece.PieceColor.BLACK, new Position(7, 1)),
+                new Piece(Piece.PieceColor.BLACK, new Position(5, 1)),
+                new Piece(Piece.PieceColor.BLACK, new Position(4, 7)),
+                new Piece(Piece.PieceColor.BLACK, new Position(3, 7)));
+        model.changeTurnOrder();
+        int[] moves = new int[1];
+        float[] scores = new float[1];
+        analyzer.bestMoves(new long[]{PackedState.of(model)}, moves, scores);
+        assertTrue(moves[0] == FoxDirection.DOWN_LEFT.ordinal() || moves[0] == FoxDirection.DOWN_RIGHT.ordinal());
+        assertTrue(scores[0] > BatchAnalyzer.WIN_SCORE);
+    }
+
+    @Test
+    void testRandomStatesAreReachable() {
+        long[] states = BatchAnalyzer.randomStates(10_000, 3);
+        byte[] status = analyzer.status(states);
+        assertEquals(PackedState.of(new GameModel()), states[0]);
+        assertEquals(states.length, status.length);
+    }
+}
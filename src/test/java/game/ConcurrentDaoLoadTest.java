@@ -0,0 +1,88 @@
+package game;
+
+import chasegame.results.*;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import dbutils.guice.PersistenceModule;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.tinylog.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Concurrent load on shared DAOs against the in-memory H2 database. Run with
+ * {@code -Dload.threads} and {@code -Dload.operations} for a longer measurement.
+ */
+public class ConcurrentDaoLoadTest {
+
+    private static final int THREADS = Integer.getInteger("load.threads", 8);
+    private static final int OPERATIONS = Integer.getInteger("load.operations", 250);
+    private static final int PLAYERS = 10;
+
+    static Injector injector;
+
+    @BeforeAll
+    static void setUp() {
+        injector = Guice.createInjector(new PersistenceModule("chase-game-test"));
+    }
+
+    @Test
+    void testConcurrentPersistAndQuery() throws Exception {
+        GameResultDao gameResultDao = injector.getInstance(GameResultDao.class);
+        PlayerStatsDao playerStatsDao = injector.getInstance(PlayerStatsDao.class);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int thread = 0; thread < THREADS; thread++) {
+            var random = new SplittableRandom(thread);
+            futures.add(executor.submit(() -> {
+                long[] latencies = new long[OPERATIONS];
+                for (int i = 0; i < OPERATIONS; i++) {
+                    long begin = System.nanoTime();
+                    if (i % 2 == 0) {
+                        gameResultDao.persist(GameResult.builder().player("load" + random.nextInt(PLAYERS))
+                                .opponent("load" + random.nextInt(PLAYERS)).winnerType(random.nextBoolean() ? "Fox" : "Dogs")
+                                .rounds(random.nextInt(10, 60)).duration(Duration.ofMillis(random.nextInt(1000, 100_000)))
+                                .build());
+                    } else if (i % 4 == 1) {
+                        assertFalse(gameResultDao.findBest(10).isEmpty());
+                    } else {
+                        gameResultDao.findPage(Ranking.FASTEST, "Fox", null, null, 25);
+                    }
+                    latencies[i] = System.nanoTime() - begin;
+                }
+                return latencies;
+            }));
+        }
+        long[] latencies = new long[0];
+        for (var future : futures) {
+            long[] part = future.get();
+            latencies = Arrays.copyOf(latencies, latencies.length + part.length);
+            System.arraycopy(part, 0, latencies, latencies.length - part.length, part.length);
+        }
+        long nanos = System.nanoTime() - start;
+        executor.shutdown();
+        Arrays.sort(latencies);
+        Logger.info("{} operations on {} threads: {} ops/s, p50 {} us, p99 {} us", latencies.length, THREADS,
+                latencies.length * 1_000_000_000L / nanos, latencies[latencies.length / 2] / 1000,
+                latencies[latencies.length * 99 / 100] / 1000);
+
+        int games = 0;
+        for (var stats : playerStatsDao.findAll()) {
+            if (stats.getPlayer().startsWith("load")) {
+                games += stats.getGames();
+            }
+        }
+        assertEquals(THREADS * ((OPERATIONS + 1) / 2) * 2, games);
+    }
+}
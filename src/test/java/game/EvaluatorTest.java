@@ -0,0 +1,54 @@
+package game;
+
+import chasegame.engine.EvaluationTuner;
+import chasegame.engine.Evaluator;
+import chasegame.model.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class EvaluatorTest {
+
+    @Test
+    void testFeaturesOfStartPosition() {
+        GameModel model = new GameModel();
+        float[] features = new float[Evaluator.FEATURES];
+        Evaluator.features(Evaluator.foxSquare(model), Evaluator.dogMask(model), features, 0);
+        assertArrayEquals(new float[]{-7, 2, 0, 0, 1}, features);
+    }
+
+    @Test
+    void testEvaluateMatchesWeightedFeatures() {
+        GameModel model = new GameModel(new Piece(Piece.PieceColor.GREY, new Position(3, 3)),
+                new Piece(Piece.PieceColor.BLACK, new Position(4, 2)),
+                new Piece(Piece.PieceColor.BLACK, new Position(5, 1)),
+                new Piece(Piece.PieceColor.BLACK, new Position(6, 6)),
+                new Piece(Piece.PieceColor.BLACK, new Position(2, 0)));
+        float[] features = new float[Evaluator.FEATURES];
+        Evaluator.features(Evaluator.foxSquare(model), Evaluator.dogMask(model), features, 0);
+        assertArrayEquals(new float[]{-3, 3, 1, 4, 1}, features);
+        double[] weights = Evaluator.DEFAULT.getWeights();
+        double expected = 0;
+        for (int i = 0; i < Evaluator.FEATURES; i++) {
+            expected += weights[i] * features[i];
+        }
+        assertEquals(expected, Evaluator.DEFAULT.evaluate(model), 1e-9);
+    }
+
+    @Test
+    void testTuningReducesLoss() {
+        float[] features = new float[1000 * Evaluator.FEATURES];
+        byte[] foxWins = new byte[1000];
+        for (int i = 0; i < 1000; i++) {
+            features[i * Evaluator.FEATURES + Evaluator.ADVANCE] = i % 8 - 4;
+            features[i * Evaluator.FEATURES + Evaluator.BIAS] = 1;
+            foxWins[i] = (byte) (i % 8 >= 4 ? 1 : 0);
+        }
+        var tuner = new EvaluationTuner(features, foxWins, 1000);
+        var start = new Evaluator(new double[Evaluator.FEATURES]);
+        var tuned = tuner.tune(start, 200, 0.5);
+        assertTrue(tuner.loss(tuned.getWeights()) < tuner.loss(start.getWeights()));
+        assertTrue(tuned.getWeights()[Evaluator.ADVANCE] > 0);
+    }
+}
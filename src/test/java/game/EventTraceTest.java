@@ -0,0 +1,63 @@
+package game;
+
+import chasegame.engine.Moves;
+import chasegame.events.EventTrace;
+import chasegame.events.GameEventBus;
+import chasegame.model.GameEvent;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EventTraceTest {
+
+    @Test
+    void testTraceRecordsEveryEventOfGames(@TempDir Path directory) throws IOException, InterruptedException {
+        var file = directory.resolve("trace").resolve("events.bin");
+        List<GameEvent> published = Collections.synchronizedList(new ArrayList<>());
+        var trace = new EventTrace(file);
+        try (var bus = new GameEventBus(16)) {
+            var traced = bus.subscribe("trace", trace, 4, false);
+            var expected = bus.subscribe("expected", published::addAll, 64, false);
+            int[] moves = new int[Moves.MAX_MOVES];
+            for (int game = 0; game < 3; game++) {
+                var model = new GameModel();
+                model.setEventSink(bus);
+                bus.publish(new GameEvent.GameStarted(PackedState.of(model)));
+                for (int ply = 0; model.getStatus() == GameModel.GameStatus.IN_PROGRESS; ply++) {
+                    int count = Moves.generate(model, moves);
+                    Moves.play(model, moves[(ply + game) % count]);
+                }
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ((traced.getLag() > 0 || expected.getLag() > 0) && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+        }
+        trace.close();
+        var entries = EventTrace.read(file);
+        assertEquals(published, entries.stream().map(EventTrace.Entry::event).toList());
+        assertEquals(trace.getRecords(), entries.size());
+        assertEquals(EventTrace.HEADER_SIZE + (long) EventTrace.RECORD_SIZE * entries.size(), Files.size(file));
+        for (int i = 1; i < entries.size(); i++) {
+            assertTrue(entries.get(i - 1).nanos() <= entries.get(i).nanos());
+        }
+    }
+
+    @Test
+    void testReadRejectsOtherFiles(@TempDir Path directory) throws IOException {
+        var file = directory.resolve("journal.wal");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> EventTrace.read(file));
+    }
+}
@@ -0,0 +1,161 @@
+package game;
+
+import chasegame.engine.Moves;
+import chasegame.events.GameEventBus;
+import chasegame.model.GameEvent;
+import chasegame.model.GameModel;
+import chasegame.model.Position;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameEventBusTest {
+
+    private static GameEvent numbered(int number) {
+        return new GameEvent.MoveMade(number, Position.of(0, 0), Position.of(1, 1));
+    }
+
+    private static void awaitSequence(GameEventBus.Subscription subscription, long sequence) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (subscription.getSequence() < sequence && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(sequence, subscription.getSequence());
+    }
+
+    @Test
+    void testModelPublishesMovesTurnsAndOutcome() throws InterruptedException {
+        try (var bus = new GameEventBus()) {
+            List<GameEvent> received = Collections.synchronizedList(new ArrayList<>());
+            var subscription = bus.subscribe("test", received::addAll, 16, false);
+            var model = new GameModel();
+            model.setEventSink(bus);
+            var search = model.copy();
+            Moves.play(search, 1 << 2);
+            int[] moves = new int[Moves.MAX_MOVES];
+            int plies = 0;
+            while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                Moves.generate(model, moves);
+                Moves.play(model, moves[0]);
+                plies++;
+            }
+            awaitSequence(subscription, bus.getCursor());
+            assertEquals(2L * plies + 1, received.size());
+            assertEquals(new GameEvent.TurnChanged(GameModel.TurnOrder.FOX), received.get(1));
+            var first = (GameEvent.MoveMade) received.get(0);
+            assertNotEquals(0, first.pieceNumber());
+            assertEquals(first.from().row() - 1, first.to().row());
+            assertEquals(new GameEvent.GameOver(model.getStatus()), received.get(received.size() - 1));
+        }
+    }
+
+    @Test
+    void testGatingSubscribersReceiveEveryEventInOrder() throws InterruptedException {
+        try (var bus = new GameEventBus(8)) {
+            List<Integer> fast = new ArrayList<>();
+            List<Integer> slow = new ArrayList<>();
+            int[] largestBatch = new int[1];
+            var fastSubscription = bus.subscribe("fast", events -> {
+                largestBatch[0] = Math.max(largestBatch[0], events.size());
+                events.forEach(event -> fast.add(((GameEvent.MoveMade) event).pieceNumber()));
+            }, 4, false);
+            var slowSubscription = bus.subscribe("slow", events -> {
+                events.forEach(event -> slow.add(((GameEvent.MoveMade) event).pieceNumber()));
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 8, false);
+            int count = 500;
+            for (int i = 0; i < count; i++) {
+                bus.publish(numbered(i));
+                assertTrue(bus.getCursor() - slowSubscription.getSequence() <= 8);
+            }
+            awaitSequence(fastSubscription, count - 1);
+            awaitSequence(slowSubscription, count - 1);
+            for (int i = 0; i < count; i++) {
+                assertEquals(i, fast.get(i));
+                assertEquals(i, slow.get(i));
+            }
+            assertTrue(largestBatch[0] <= 4);
+            assertEquals(0, slowSubscription.getMissed());
+        }
+    }
+
+    @Test
+    void testLossySubscriberNeverBlocksThePublisher() throws InterruptedException {
+        try (var bus = new GameEventBus(16)) {
+            var release = new CountDownLatch(1);
+            List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+            var subscription = bus.subscribe("lossy", events -> {
+                events.forEach(event -> received.add(((GameEvent.MoveMade) event).pieceNumber()));
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 4, true);
+            int count = 10_000;
+            for (int i = 0; i < count; i++) {
+                bus.publish(numbered(i));
+            }
+            release.countDown();
+            awaitSequence(subscription, count - 1);
+            assertTrue(subscription.getMissed() > 0);
+            assertEquals(count, received.size() + subscription.getMissed());
+            for (int i = 1; i < received.size(); i++) {
+                assertTrue(received.get(i) > received.get(i - 1));
+            }
+            assertEquals(count - 1, received.get(received.size() - 1));
+        }
+    }
+
+    @Test
+    void testCancelledSubscriberStopsGating() throws InterruptedException {
+        try (var bus = new GameEventBus(4)) {
+            var blocked = new CountDownLatch(1);
+            var subscription = bus.subscribe("stuck", events -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, 1, false);
+            subscription.cancel();
+            blocked.countDown();
+            subscription.join(1000);
+            for (int i = 0; i < 100; i++) {
+                bus.publish(numbered(i));
+            }
+            assertEquals(99, bus.getCursor());
+            assertTrue(bus.getSubscriptions().isEmpty());
+        }
+    }
+
+    @Test
+    void testDrainWaitsForEveryPublishedEvent() throws InterruptedException {
+        try (var bus = new GameEventBus(64)) {
+            List<GameEvent> received = Collections.synchronizedList(new ArrayList<>());
+            var subscription = bus.subscribe("slow", events -> {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5));
+                received.addAll(events);
+            }, 1, false);
+            for (int i = 0; i < 20; i++) {
+                bus.publish(numbered(i));
+            }
+            assertTrue(subscription.drain(10_000));
+            assertEquals(20, received.size());
+            subscription.cancel();
+            bus.publish(numbered(20));
+            assertFalse(subscription.drain(10));
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package game;
+
+import chasegame.engine.GameHistory;
+import chasegame.engine.Move;
+import chasegame.engine.Moves;
+import chasegame.model.GameModel;
+import chasegame.model.Position;
+import org.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Compares the heap used by random game histories kept as {@link GameHistory} and as lists of positions.
+ */
+public class GameHistoryMemoryBenchmark {
+
+    /**
+     * Runs the comparison.
+     * @param args number of games, optional.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        var random = new SplittableRandom(39);
+        int[] buffer = new int[Moves.MAX_MOVES];
+        int[][] recorded = new int[games][];
+        long plies = 0;
+        for (int game = 0; game < games; game++) {
+            var model = new GameModel();
+            int[] gameMoves = new int[64];
+            int count = 0;
+            while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                int move = buffer[random.nextInt(Moves.generate(model, buffer))];
+                Moves.play(model, move);
+                if (count == gameMoves.length) {
+                    gameMoves = Arrays.copyOf(gameMoves, count * 2);
+                }
+                gameMoves[count++] = move;
+            }
+            recorded[game] = Arrays.copyOf(gameMoves, count);
+            plies += count;
+        }
+
+        long before = HeapUsage.usedMemory();
+        GameHistory[] histories = new GameHistory[games];
+        for (int game = 0; game < games; game++) {
+            var model = new GameModel();
+            histories[game] = new GameHistory(model);
+            for (int move : recorded[game]) {
+                Moves.play(model, move);
+                histories[game].record(move, model);
+            }
+        }
+        long arena = HeapUsage.usedMemory() - before;
+
+        before = HeapUsage.usedMemory();
+        List<List<Position>> lists = new ArrayList<>(games);
+        for (int game = 0; game < games; game++) {
+            var model = new GameModel();
+            List<Position> positions = new ArrayList<>();
+            for (int move : recorded[game]) {
+                Moves.play(model, move);
+                positions.add(new Position(model.getPiecePosition(Move.pieceOf(move)).row(),
+                        model.getPiecePosition(Move.pieceOf(move)).col()));
+            }
+            lists.add(positions);
+        }
+        long boxed = HeapUsage.usedMemory() - before;
+
+        Logger.info("{} games, {} plies", games, plies);
+        Logger.info("GameHistory: {} bytes/ply, List<Position>: {} bytes/ply", (double) arena / plies,
+                (double) boxed / plies);
+        Logger.info("Kept {} histories and {} lists", histories.length, lists.size());
+    }
+}
@@ -0,0 +1,66 @@
+package game;
+
+import chasegame.engine.GameHistory;
+import chasegame.engine.Moves;
+import chasegame.model.GameModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameHistoryTest {
+
+    @Test
+    void testRebuildsEveryPly() {
+        var random = new SplittableRandom(39);
+        int[] buffer = new int[Moves.MAX_MOVES];
+        var history = new GameHistory(new GameModel(), 5);
+        for (int game = 0; game < 20; game++) {
+            var model = new GameModel();
+            history.reset(model);
+            List<GameModel> expected = new ArrayList<>(List.of(model.copy()));
+            List<Integer> moves = new ArrayList<>();
+            while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                int move = buffer[random.nextInt(Moves.generate(model, buffer))];
+                Moves.play(model, move);
+                history.record(move, model);
+                expected.add(model.copy());
+                moves.add(move);
+            }
+            assertEquals(moves.size(), history.size());
+            for (int ply = 0; ply <= history.size(); ply++) {
+                assertTrue(Moves.samePosition(expected.get(ply), history.positionAt(ply)), "ply " + ply);
+                if (ply < history.size()) {
+                    assertEquals(moves.get(ply), history.moveAt(ply));
+                }
+            }
+            assertEquals(model.getStatus(), history.positionAt(history.size()).getStatus());
+        }
+    }
+
+    @Test
+    void testRejectsPliesOutOfRange() {
+        var history = new GameHistory(new GameModel());
+        assertThrows(IndexOutOfBoundsException.class, () -> history.moveAt(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> history.positionAt(1));
+        assertTrue(Moves.samePosition(new GameModel(), history.positionAt(0)));
+    }
+
+    @Test
+    void testKeepsWholeGameWithinFirstIntervalWithoutGrowing() {
+        var model = new GameModel();
+        var history = new GameHistory(model, 1000);
+        int[] buffer = new int[Moves.MAX_MOVES];
+        long empty = history.getMemoryBytes();
+        while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+            Moves.generate(model, buffer);
+            Moves.play(model, buffer[0]);
+            history.record(buffer[0], model);
+        }
+        assertEquals(empty, history.getMemoryBytes());
+        assertTrue(empty <= 16 + 1000 * Short.BYTES + 16 + 4 * 6 * Integer.BYTES);
+    }
+}
@@ -0,0 +1,127 @@
+package game;
+
+import chasegame.controller.GameJournal;
+import chasegame.engine.Moves;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private GameJournal open(Path file) {
+        return new GameJournal(file, Duration.ofMillis(20), Duration.ofMillis(50));
+    }
+
+    @Test
+    void testRecoversLastMoveAndTimer() throws IOException {
+        Path file = directory.resolve("journal.wal");
+        var journal = open(file);
+        assertTrue(journal.start().isEmpty());
+        var model = new GameModel();
+        Instant start = Instant.now().minusSeconds(90);
+        journal.begin("Anna", "Zolt\u00e1n", start, model, 1, 0);
+        int[] moves = new int[Moves.MAX_MOVES];
+        for (int ply = 0; ply < 5; ply++) {
+            Moves.generate(model, moves);
+            Moves.play(model, moves[0]);
+            journal.move(model, 1 + (ply + 1) / 2, (ply + 1) / 2);
+        }
+        journal.close();
+
+        var recovered = open(file).start().orElseThrow();
+        assertEquals(GameJournal.Kind.MOVE, recovered.kind());
+        assertEquals(PackedState.of(model), recovered.state());
+        assertEquals(PackedState.of(model), PackedState.of(recovered.toModel()));
+        assertEquals(GameModel.TurnOrder.FOX, recovered.toModel().getTurnOrder());
+        assertEquals(3, recovered.roundCounter());
+        assertEquals(2, recovered.rounds());
+        assertEquals("Anna", recovered.dogPlayer());
+        assertEquals("Zolt\u00e1n", recovered.foxPlayer());
+        assertEquals(start.toEpochMilli(), recovered.startTime().toEpochMilli());
+        assertTrue(recovered.elapsed().compareTo(Duration.ofSeconds(90)) >= 0);
+    }
+
+    @Test
+    void testFinishedGameIsNotResumed() throws IOException {
+        Path file = directory.resolve("journal.wal");
+        var journal = open(file);
+        journal.start();
+        journal.begin("a", "b", Instant.now(), new GameModel(), 1, 0);
+        journal.end();
+        journal.close();
+        assertTrue(open(file).start().isEmpty());
+        assertEquals(GameJournal.Kind.END, GameJournal.read(file).orElseThrow().kind());
+    }
+
+    @Test
+    void testTornRecordFallsBackToPreviousOne() throws IOException {
+        Path file = directory.resolve("journal.wal");
+        var journal = open(file);
+        journal.start();
+        var model = new GameModel();
+        journal.begin("a", "b", Instant.now(), model, 1, 0);
+        Moves.play(model, 1 << 2);
+        journal.move(model, 1, 0);
+        journal.close();
+        long last = GameJournal.read(file).orElseThrow().sequence();
+        try (var channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x55}), (last % GameJournal.SLOTS) * GameJournal.RECORD_SIZE + 40);
+        }
+        var recovered = GameJournal.read(file).orElseThrow();
+        assertEquals(last - 1, recovered.sequence());
+        assertEquals(GameJournal.Kind.BEGIN, recovered.kind());
+        assertEquals(PackedState.of(new GameModel()), recovered.state());
+    }
+
+    @Test
+    void testRingWrapsAroundAndClockKeepsTicking() throws IOException, InterruptedException {
+        Path file = directory.resolve("journal.wal");
+        var journal = open(file);
+        journal.start();
+        var model = new GameModel();
+        journal.begin("a", "b", Instant.now(), model, 1, 0);
+        for (int i = 0; i < 3 * GameJournal.SLOTS; i++) {
+            journal.move(model, i, i);
+        }
+        Thread.sleep(200);
+        journal.close();
+        var recovered = GameJournal.read(file).orElseThrow();
+        assertEquals(GameJournal.Kind.CLOCK, recovered.kind());
+        assertEquals(3 * GameJournal.SLOTS - 1, recovered.rounds());
+        assertTrue(recovered.sequence() > 3 * GameJournal.SLOTS + 1);
+        assertTrue(file.toFile().length() <= (long) GameJournal.SLOTS * GameJournal.RECORD_SIZE);
+    }
+
+    @Test
+    void testRecordingAMoveTakesMicroseconds() {
+        var journal = open(directory.resolve("journal.wal"));
+        journal.start();
+        var model = new GameModel();
+        journal.begin("a", "b", Instant.now(), model, 1, 0);
+        int moves = 100_000;
+        for (int i = 0; i < moves; i++) {
+            journal.move(model, i, i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < moves; i++) {
+            journal.move(model, i, i);
+        }
+        long nanosPerMove = (System.nanoTime() - start) / moves;
+        journal.close();
+        assertTrue(nanosPerMove < 20_000, nanosPerMove + " ns per move");
+    }
+}
@@ -0,0 +1,110 @@
+package game;
+
+import chasegame.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class GameModelTest {
+
+    @Test
+    void testInitialStatus() {
+        GameModel model = new GameModel();
+        assertEquals(GameModel.GameStatus.IN_PROGRESS, model.getStatus());
+        assertEquals(0, model.getPassedDogCount());
+        assertEquals(2, model.getFoxMobility());
+        assertEquals(7, model.getDogMobility());
+    }
+
+    @Test
+    void testFoxWinsByPassingAllDogs() {
+        GameModel model = new GameModel(new Piece(Piece.PieceColor.GREY, new Position(4, 4)),
+                new Piece(Piece.PieceColor.BLACK, new Position(5, 1)),
+                new Piece(Piece.PieceColor.BLACK, new Position(4, 0)),
+                new Piece(Piece.PieceColor.BLACK, new Position(3, 7)),
+                new Piece(Piece.PieceColor.BLACK, new Position(2, 7)));
+        assertEquals(2, model.getPassedDogCount());
+        model.changeTurnOrder();
+        model.move(0, FoxDirection.DOWN_RIGHT);
+        assertEquals(3, model.getPassedDogCount());
+        model.move(0, FoxDirection.DOWN_LEFT);
+        assertEquals(4, model.getPassedDogCount());
+        assertEquals(GameModel.GameStatus.FOX_WON, model.getStatus());
+        model.unmove(0, FoxDirection.DOWN_LEFT);
+        assertEquals(3, model.getPassedDogCount());
+        assertEquals(GameModel.GameStatus.IN_PROGRESS, model.getStatus());
+    }
+
+    @Test
+    void testDogsWinWhenFoxIsTrapped() {
+        GameModel model = new GameModel(new Piece(Piece.PieceColor.GREY, new Position(0, 0)),
+                new Piece(Piece.PieceColor.BLACK, new Position(2, 2)),
+                new Piece(Piece.PieceColor.BLACK, new Position(7, 7)),
+                new Piece(Piece.PieceColor.BLACK, new Position(7, 5)),
+                new Piece(Piece.PieceColor.BLACK, new Position(7, 3)));
+        assertEquals(1, model.getFoxMobility());
+        model.move(1, DogDirection.UP_LEFT);
+        assertEquals(0, model.getFoxMobility());
+        assertEquals(GameModel.GameStatus.IN_PROGRESS, model.getStatus());
+        model.changeTurnOrder();
+        assertEquals(GameModel.GameStatus.DOGS_WON, model.getStatus());
+    }
+
+    @Test
+    void testCountersMatchRecountAfterRandomMoves() {
+        Random random = new Random(42);
+        for (int game = 0; game < 200; game++) {
+            GameModel model = new GameModel();
+            List<int[]> history = new ArrayList<>();
+            while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                List<int[]> moves = new ArrayList<>();
+                if (model.getTurnOrder() == GameModel.TurnOrder.FOX) {
+                    for (var direction : model.getValidFoxMoves(0)) {
+                        moves.add(new int[]{0, direction.ordinal()});
+                    }
+                } else {
+                    for (int i = 1; i < model.getPieceCount(); i++) {
+                        for (var direction : model.getValidDogMoves(i)) {
+                            moves.add(new int[]{i, direction.ordinal()});
+                        }
+                    }
+                }
+                var move = moves.get(random.nextInt(moves.size()));
+                model.move(move[0], directionOf(move));
+                model.changeTurnOrder();
+                history.add(move);
+                assertCountersMatchRecount(model);
+            }
+            for (int i = history.size() - 1; i >= 0; i--) {
+                model.changeTurnOrder();
+                model.unmove(history.get(i)[0], directionOf(history.get(i)));
+                assertCountersMatchRecount(model);
+            }
+            assertEquals(new GameModel().toString(), model.toString());
+        }
+    }
+
+    private static Direction directionOf(int[] move) {
+        return move[0] == 0 ? FoxDirection.values()[move[1]] : DogDirection.values()[move[1]];
+    }
+
+    private static void assertCountersMatchRecount(GameModel model) {
+        List<Position> positions = model.getAllPiecesPositions();
+        int passed = 0;
+        int dogMobility = 0;
+        for (int i = 1; i < positions.size(); i++) {
+            if (positions.get(0).row() > positions.get(i).row()) {
+                passed++;
+            }
+            dogMobility += model.getValidDogMoves(i).size();
+        }
+        assertEquals(passed, model.getPassedDogCount());
+        assertEquals(model.getValidFoxMoves(0).size(), model.getFoxMobility());
+        assertEquals(dogMobility, model.getDogMobility());
+    }
+}
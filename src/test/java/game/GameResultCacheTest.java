@@ -0,0 +1,79 @@
+package game;
+
+import chasegame.results.*;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import dbutils.guice.PersistenceModule;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GameResultCacheTest {
+
+    static Injector injector;
+
+    @BeforeAll
+    static void setUp() {
+        injector = Guice.createInjector(new PersistenceModule("chase-game-test"));
+    }
+
+    private static GameResult result(String player, int rounds) {
+        return GameResult.builder().player(player).opponent("cache-rival").winnerType("Fox").rounds(rounds)
+                .duration(Duration.ofSeconds(1)).build();
+    }
+
+    @Test
+    void testFindIsServedFromCache() {
+        GameResultDao gameResultDao = injector.getInstance(GameResultDao.class);
+        CacheMetrics metrics = injector.getInstance(CacheMetrics.class);
+        GameResult result = result("cache-find", 40);
+        gameResultDao.persist(result);
+        metrics.clear();
+
+        assertEquals(40, gameResultDao.find(result.getId()).orElseThrow().getRounds());
+        assertEquals(40, gameResultDao.find(result.getId()).orElseThrow().getRounds());
+        assertEquals(2, metrics.getResultCacheHits());
+        assertEquals(1.0, metrics.getResultCacheHitRatio());
+
+        result.setRounds(41);
+        gameResultDao.update(result);
+        assertEquals(41, gameResultDao.find(result.getId()).orElseThrow().getRounds());
+
+        gameResultDao.remove(gameResultDao.find(result.getId()).orElseThrow());
+        assertTrue(gameResultDao.find(result.getId()).isEmpty());
+    }
+
+    @Test
+    void testLeaderboardQueriesAreCachedAndInvalidated() {
+        GameResultDao gameResultDao = injector.getInstance(GameResultDao.class);
+        CacheMetrics metrics = injector.getInstance(CacheMetrics.class);
+        GameResult slow = result("cache-query", 0);
+        gameResultDao.persist(slow);
+        metrics.clear();
+
+        assertEquals(slow.getId(), gameResultDao.findBest(1).get(0).getId());
+        assertEquals(slow.getId(), gameResultDao.findBest(1).get(0).getId());
+        assertEquals(1, metrics.getQueryCacheHits());
+        assertEquals(1, metrics.getQueryCacheMisses());
+
+        GameResult best = result("cache-query", -1);
+        gameResultDao.persist(best);
+        assertEquals(best.getId(), gameResultDao.findBest(1).get(0).getId());
+
+        gameResultDao.remove(gameResultDao.find(best.getId()).orElseThrow());
+        assertEquals(slow.getId(), gameResultDao.findBest(1).get(0).getId());
+
+        ResultBlock block = new ResultBlock(1);
+        block.add(slow.getId(), "cache-query", "cache-rival", "Fox", -2, 1000, Instant.now().toEpochMilli());
+        gameResultDao.writeBlock(block);
+        GameResult imported = gameResultDao.findBest(1).get(0);
+        assertEquals(-2, imported.getRounds());
+        assertEquals(0, gameResultDao.find(slow.getId()).orElseThrow().getRounds());
+        gameResultDao.remove(imported);
+        gameResultDao.remove(gameResultDao.find(slow.getId()).orElseThrow());
+    }
+}
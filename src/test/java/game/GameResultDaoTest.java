@@ -0,0 +1,127 @@
+package game;
+
+import chasegame.results.GameResult;
+import chasegame.results.GameResultDao;
+import chasegame.results.LeaderboardService;
+import chasegame.results.PlayerStats;
+import chasegame.results.PlayerStatsDao;
+import chasegame.results.Ranking;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import dbutils.guice.PersistenceModule;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.PersistenceException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class GameResultDaoTest {
+
+    static Injector injector;
+
+    @BeforeAll
+    static void setUp() {
+        injector = Guice.createInjector(new PersistenceModule("chase-game-test"));
+    }
+
+    @Test
+    void testPersistUpdatesPlayerStats() {
+        GameResultDao gameResultDao = injector.getInstance(GameResultDao.class);
+        PlayerStatsDao playerStatsDao = injector.getInstance(PlayerStatsDao.class);
+        gameResultDao.persist(GameResult.builder().player("alice").opponent("bob").winnerType("Fox")
+                .rounds(12).duration(Duration.ofSeconds(90)).build());
+        gameResultDao.persist(GameResult.builder().player("alice").opponent("bob").winnerType("Dogs")
+                .rounds(20).duration(Duration.ofSeconds(60)).build());
+        gameResultDao.persist(GameResult.builder().player("bob").opponent("alice").winnerType("Fox")
+                .rounds(7).duration(Duration.ofSeconds(30)).build());
+
+        PlayerStats alice = playerStatsDao.find("alice").orElseThrow();
+        assertEquals(3, alice.getGames());
+        assertEquals(1, alice.getFoxWins());
+        assertEquals(1, alice.getDogWins());
+        assertEquals(13, alice.getAverageRounds(), 1e-9);
+        assertEquals(Duration.ofSeconds(60), alice.getBestTime());
+
+        PlayerStats bob = playerStatsDao.find("bob").orElseThrow();
+        assertEquals(3, bob.getGames());
+        assertEquals(1, bob.getFoxWins());
+        assertEquals(0, bob.getDogWins());
+        assertEquals(Duration.ofSeconds(30), bob.getBestTime());
+
+        List<String> mostWins = playerStatsDao.findMostWins(100).stream().map(PlayerStats::getPlayer).collect(Collectors.toList());
+        assertTrue(mostWins.indexOf("alice") < mostWins.indexOf("bob"));
+    }
+
+    @Test
+    void testCreateIfAbsentOnlyToleratesExistingSummaries() {
+        PlayerStatsDao playerStatsDao = injector.getInstance(PlayerStatsDao.class);
+        playerStatsDao.createIfAbsent("carol");
+        playerStatsDao.createIfAbsent("carol");
+        assertEquals(0, playerStatsDao.find("carol").orElseThrow().getGames());
+        assertThrows(PersistenceException.class, () -> playerStatsDao.createIfAbsent("c".repeat(300)));
+    }
+
+    @Test
+    void testKeysetPagesMatchFullOrdering() {
+        GameResultDao gameResultDao = injector.getInstance(GameResultDao.class);
+        Instant now = Instant.parse("2021-05-12T12:00:00Z");
+        for (int i = 0; i < 60; i++) {
+            gameResultDao.persist(GameResult.builder().player("p" + i % 5).winnerType(i % 3 == 0 ? "Dogs" : "Fox")
+                    .rounds(5 + i % 7).duration(Duration.ofSeconds(30 + i % 4)).playedAt(now.minus(Duration.ofDays(i % 10)))
+                    .build());
+        }
+        for (var ranking : Ranking.values()) {
+            Comparator<GameResult> order = ranking == Ranking.FEWEST_ROUNDS
+                    ? Comparator.comparing(GameResult::getRounds).thenComparing(GameResult::getDuration)
+                    : Comparator.comparing(GameResult::getDuration).thenComparing(GameResult::getRounds);
+            order = order.thenComparing(GameResult::getId);
+            List<Long> expected = gameResultDao.findAll().stream()
+                    .filter(r -> "Fox".equals(r.getWinnerType()))
+                    .sorted(order).map(GameResult::getId).collect(Collectors.toList());
+            List<Long> paged = new ArrayList<>();
+            GameResult after = null;
+            while (true) {
+                List<GameResult> page = gameResultDao.findPage(ranking, "Fox", null, after, 7);
+                page.forEach(r -> paged.add(r.getId()));
+                if (page.size() < 7) {
+                    break;
+                }
+                after = page.get(page.size() - 1);
+            }
+            assertEquals(expected, paged);
+        }
+    }
+
+    @Test
+    void testWindowsStartAtCalendarBoundaries() {
+        GameResultDao gameResultDao = injector.getInstance(GameResultDao.class);
+        LeaderboardService leaderboardService = injector.getInstance(LeaderboardService.class);
+        leaderboardService.setClock(Clock.fixed(Instant.parse("2021-05-12T12:00:00Z"), ZoneOffset.UTC));
+        assertEquals(Instant.parse("2021-05-12T00:00:00Z"), leaderboardService.windowStart(LeaderboardService.Window.DAILY));
+        assertEquals(Instant.parse("2021-05-10T00:00:00Z"), leaderboardService.windowStart(LeaderboardService.Window.WEEKLY));
+
+        List<GameResult> played = new ArrayList<>();
+        for (String playedAt : List.of("2021-05-12T00:00:00Z", "2021-05-12T11:59:59Z", "2021-05-11T23:59:59Z")) {
+            GameResult result = GameResult.builder().player("window").winnerType("Fox").rounds(1)
+                    .duration(Duration.ofMillis(1)).playedAt(Instant.parse(playedAt)).build();
+            gameResultDao.persist(result);
+            played.add(result);
+        }
+        List<GameResult> today = leaderboardService.page(Ranking.FASTEST, null, LeaderboardService.Window.DAILY, null, 100);
+        List<Long> ids = today.stream().map(GameResult::getId).collect(Collectors.toList());
+        assertTrue(ids.contains(played.get(0).getId()));
+        assertTrue(ids.contains(played.get(1).getId()));
+        assertFalse(ids.contains(played.get(2).getId()));
+        today.forEach(r -> assertFalse(r.getPlayedAt().isBefore(Instant.parse("2021-05-12T00:00:00Z"))));
+    }
+}
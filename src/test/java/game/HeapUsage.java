@@ -0,0 +1,24 @@
+package game;
+
+/**
+ * Measures the heap of the memory benchmarks, which keep the structures they compare reachable and
+ * take the difference of the used heap before and after building each of them.
+ */
+final class HeapUsage {
+
+    private HeapUsage() {
+    }
+
+    /**
+     * Returns the heap in use after requesting a few garbage collections. The collections are only
+     * hints to the JVM, so the result is an estimate, good enough to compare structures of megabytes.
+     * @return the used heap in bytes.
+     */
+    static long usedMemory() {
+        var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,73 @@
+package game;
+
+import chasegame.controller.HintService;
+import chasegame.engine.Moves;
+import chasegame.model.GameModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples the latency of the first hint after a move, which should stay under 50 ms: the time from
+ * {@link HintService#ponder} to the first hint, for positions of random games in turn. Every call
+ * interrupts the search still pondering the previous position, as a move in the game does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HintLatencyBenchmark {
+
+    private static final int POSITIONS = 256;
+
+    private final List<GameModel> positions = new ArrayList<>();
+    private HintService service;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        service = new HintService(Runnable::run);
+        var random = new SplittableRandom(42);
+        int[] buffer = new int[Moves.MAX_MOVES];
+        while (positions.size() < POSITIONS) {
+            var model = new GameModel();
+            while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS && positions.size() < POSITIONS) {
+                positions.add(model.copy());
+                Moves.play(model, buffer[random.nextInt(Moves.generate(model, buffer))]);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    public HintService.Hint firstHint() throws InterruptedException {
+        BlockingQueue<HintService.Hint> hints = new LinkedBlockingQueue<>();
+        service.ponder(positions.get(next++ % POSITIONS), hints::add);
+        return hints.take();
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args not used.
+     * @throws RunnerException if a benchmark fails.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HintLatencyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
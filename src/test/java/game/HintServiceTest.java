@@ -0,0 +1,73 @@
+package game;
+
+import chasegame.controller.HintService;
+import chasegame.engine.AlphaBetaSearch;
+import chasegame.engine.Move;
+import chasegame.engine.Moves;
+import chasegame.engine.SearchBudget;
+import chasegame.model.DogDirection;
+import chasegame.model.GameModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HintServiceTest {
+
+    @Test
+    void testHintsDeepenFromAValidFirstMove() throws InterruptedException {
+        BlockingQueue<HintService.Hint> hints = new LinkedBlockingQueue<>();
+        var service = new HintService(Runnable::run);
+        var model = new GameModel();
+        service.ponder(model, hints::add);
+        var first = hints.poll(5, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertEquals(1, first.depth());
+        // HintLatencyBenchmark measures the 50 ms target; this only catches a search gone badly wrong.
+        assertTrue(first.latencyMillis() < 500, "first hint after " + first.latencyMillis() + " ms");
+        assertTrue(model.isValidMove(first.move().pieceNumber(), first.move().direction()));
+        assertEquals(model.getPiecePosition(first.move().pieceNumber()), first.from());
+        var deeper = hints.poll(5, TimeUnit.SECONDS);
+        assertNotNull(deeper);
+        assertEquals(2, deeper.depth());
+        assertTrue(first.latencyMillis() <= deeper.latencyMillis());
+        service.shutdown();
+    }
+
+    @Test
+    void testNewPositionDiscardsOldHints() throws InterruptedException {
+        BlockingQueue<HintService.Hint> stale = new LinkedBlockingQueue<>();
+        BlockingQueue<HintService.Hint> fresh = new LinkedBlockingQueue<>();
+        var service = new HintService(Runnable::run);
+        var model = new GameModel();
+        service.ponder(model, stale::add);
+        Moves.play(model, Move.encode(1, DogDirection.UP_LEFT));
+        service.ponder(model, fresh::add);
+        var hint = fresh.poll(5, TimeUnit.SECONDS);
+        assertNotNull(hint);
+        assertEquals(0, hint.move().pieceNumber());
+        stale.clear();
+        Thread.sleep(100);
+        assertTrue(stale.isEmpty());
+        service.cancel();
+        fresh.clear();
+        Thread.sleep(100);
+        assertTrue(fresh.isEmpty());
+        service.shutdown();
+    }
+
+    @Test
+    void testSearchPlaysGameToTheEnd() {
+        var model = new GameModel();
+        var player = new AlphaBetaSearch(SearchBudget.ofMillis(200));
+        while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+            var move = player.chooseMove(model);
+            assertTrue(model.isValidMove(move.pieceNumber(), move.direction()));
+            Moves.play(model, move.encode());
+        }
+        assertNotEquals(GameModel.GameStatus.IN_PROGRESS, model.getStatus());
+    }
+}
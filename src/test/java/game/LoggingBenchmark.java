@@ -0,0 +1,150 @@
+package game;
+
+import chasegame.engine.Move;
+import chasegame.engine.RandomPlayer;
+import chasegame.events.EventTrace;
+import chasegame.events.GameEventBus;
+import chasegame.model.GameEventSink;
+import chasegame.model.GameModel;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures moves per microsecond of a recorded game replayed over and over with the logging of the
+ * game controller: with logging disabled, with debug logging written synchronously or by the writing
+ * thread into a buffered file, and with the binary {@link EventTrace} instead of text. The tinylog configuration is frozen
+ * once a JVM logs, so every configuration runs in a fork of its own.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LoggingBenchmark {
+
+    private static final int STEPS = 1024;
+
+    /**
+     * The configuration of the game, as the one of the tests would come first on the class path.
+     */
+    private static final String CONFIG = "-Dtinylog.configuration=src/main/resources/tinylog.properties";
+
+    private static final String LOG_FILE = "-Dtinylog.writer2.file=target/logging-benchmark-{count}.log";
+
+    private final List<Move> moves = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        var model = new GameModel();
+        var player = new RandomPlayer(47);
+        while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+            var move = player.chooseMove(model);
+            moves.add(move);
+            model.move(move.pieceNumber(), move.direction());
+            model.changeTurnOrder();
+        }
+    }
+
+    /**
+     * A bus with a trace subscribed to it.
+     */
+    @State(Scope.Thread)
+    public static class Trace {
+
+        private Path file;
+        private GameEventBus bus;
+        private EventTrace trace;
+
+        @Setup
+        public void setUp() throws IOException {
+            file = Files.createTempFile("events", ".bin");
+            bus = new GameEventBus();
+            trace = new EventTrace(file);
+            bus.subscribe("trace", trace, 1024, false);
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            bus.close();
+            trace.close();
+            Files.delete(file);
+        }
+    }
+
+    private GameModel replay(GameEventSink sink, boolean guarded) {
+        GameModel model = null;
+        for (int i = 0; i < STEPS; i++) {
+            if (i % moves.size() == 0) {
+                model = new GameModel();
+                model.setEventSink(sink);
+            }
+            var move = moves.get(i % moves.size());
+            if (!guarded || Logger.isDebugEnabled()) {
+                Logger.debug("Moving piece {} {}", move.pieceNumber(), move.direction());
+            }
+            model.move(move.pieceNumber(), move.direction());
+            model.changeTurnOrder();
+            if (!guarded || Logger.isDebugEnabled()) {
+                Logger.debug("{} Turn now!", model.getTurnOrder());
+            }
+        }
+        return model;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    @Fork(value = 1, jvmArgsAppend = {CONFIG, LOG_FILE})
+    public GameModel loggingOff() {
+        return replay(null, true);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    @Fork(value = 1, jvmArgsAppend = {CONFIG, LOG_FILE})
+    public GameModel loggingOffUnguarded() {
+        return replay(null, false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    @Fork(value = 1, jvmArgsAppend = {CONFIG, "-Dtinylog.level=debug", "-Dtinylog.writingthread=false",
+            "-Dtinylog.writer2.buffered=false", LOG_FILE})
+    public GameModel debugSynchronous() {
+        return replay(null, true);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    @Fork(value = 1, jvmArgsAppend = {CONFIG, "-Dtinylog.level=debug", LOG_FILE})
+    public GameModel debugThreaded() {
+        return replay(null, true);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    @Fork(value = 1, jvmArgsAppend = {CONFIG, LOG_FILE})
+    public GameModel traced(Trace trace) {
+        return replay(trace.bus, true);
+    }
+
+    /**
+     * Runs the benchmarks.
+     * @param args not used.
+     * @throws RunnerException if a benchmark fails.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoggingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
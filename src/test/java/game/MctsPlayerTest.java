@@ -0,0 +1,54 @@
+package game;
+
+import chasegame.engine.MctsPlayer;
+import chasegame.engine.Move;
+import chasegame.engine.SearchBudget;
+import chasegame.model.*;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class MctsPlayerTest {
+
+    @Test
+    void testChoosesValidMoveAndLeavesModelUnchanged() {
+        GameModel model = new GameModel();
+        try (MctsPlayer player = new MctsPlayer(2, 50_000, SearchBudget.ofPlayouts(2_000))) {
+            Move move = player.chooseMove(model);
+            assertEquals(new GameModel().toString(), model.toString());
+            assertTrue(model.isValidMove(move.pieceNumber(), move.direction()));
+            assertNotEquals(0, move.pieceNumber());
+            assertTrue(player.getPlayoutsPerSecond() > 0);
+            assertTrue(player.getTreeNodeCount() > 1);
+        }
+    }
+
+    @Test
+    void testFoxTakesWinningMove() {
+        GameModel model = new GameModel(new Piece(Piece.PieceColor.GREY, new Position(6, 4)),
+                new Piece(Piece.PieceColor.BLACK, new Position(7, 1)),
+                new Piece(Piece.PieceColor.BLACK, new Position(5, 1)),
+                new Piece(Piece.PieceColor.BLACK, new Position(4, 7)),
+                new Piece(Piece.PieceColor.BLACK, new Position(3, 7)));
+        model.changeTurnOrder();
+        try (MctsPlayer player = new MctsPlayer(2, 50_000, SearchBudget.ofPlayouts(2_000))) {
+            Move move = player.chooseMove(model);
+            assertEquals(0, move.pieceNumber());
+            assertEquals(1, move.direction().getRowChange());
+        }
+    }
+
+    @Test
+    void testSelfPlayReusesTree() {
+        GameModel model = new GameModel();
+        try (MctsPlayer player = new MctsPlayer(1, 20_000, SearchBudget.ofPlayouts(500))) {
+            while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                Move move = player.chooseMove(model);
+                assertTrue(model.isValidMove(move.pieceNumber(), move.direction()));
+                model.move(move.pieceNumber(), move.direction());
+                model.changeTurnOrder();
+            }
+        }
+    }
+}
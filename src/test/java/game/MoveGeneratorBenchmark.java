@@ -0,0 +1,77 @@
+package game;
+
+import chasegame.analysis.BatchAnalyzer;
+import chasegame.engine.BitboardMoveGenerator;
+import chasegame.engine.MoveGenerator;
+import chasegame.engine.VectorMoveGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares batch move generation and status of {@link VectorMoveGenerator} with the scalar
+ * {@link BitboardMoveGenerator} on states from random games, reported as states per microsecond.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class MoveGeneratorBenchmark {
+
+    private static final int STATES = 4096;
+
+    private final MoveGenerator scalar = new BitboardMoveGenerator();
+    private final MoveGenerator vector = new VectorMoveGenerator();
+    private final int[] moves = new int[STATES];
+    private final byte[] status = new byte[STATES];
+    private long[] states;
+
+    @Setup
+    public void setUp() {
+        states = BatchAnalyzer.randomStates(STATES, 46);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public int[] scalarLegalMoves() {
+        scalar.legalMoves(states, 0, STATES, moves);
+        return moves;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public int[] vectorLegalMoves() {
+        vector.legalMoves(states, 0, STATES, moves);
+        return moves;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public byte[] scalarStatus() {
+        scalar.status(states, 0, STATES, status);
+        return status;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATES)
+    public byte[] vectorStatus() {
+        vector.status(states, 0, STATES, status);
+        return status;
+    }
+
+    /**
+     * Runs the benchmarks.
+     * @param args not used.
+     * @throws RunnerException if a benchmark fails.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoveGeneratorBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,211 @@
+package game;
+
+import chasegame.engine.BitboardMoveGenerator;
+import chasegame.engine.Move;
+import chasegame.engine.MoveGenerator;
+import chasegame.engine.Moves;
+import chasegame.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Differential tests of optimized move generation against the original rules of {@link GameModel}.
+ * Random games are played from the start position, and at every ply the legal moves, the status and the
+ * state after each move are compared. A failing game is shrunk to a short move sequence that still
+ * fails. Run with {@code -Dfuzz.games=100000} for millions of positions.
+ */
+public class MoveGeneratorDifferentialTest {
+
+    private static final int GAMES = Integer.getInteger("fuzz.games", 2_000);
+    private static final long SEED = Long.getLong("fuzz.seed", 20210512L);
+
+    static List<MoveGenerator> generators() {
+        return List.of(new BitboardMoveGenerator(), MoveGenerator.forBatches());
+    }
+
+    @Test
+    void testGeneratorsAgreeWithGameModel() {
+        for (var generator : generators()) {
+            long positions = IntStream.range(0, GAMES).parallel().mapToLong(game -> {
+                int[] moves = randomGame(new SplittableRandom(SEED + game));
+                int mismatch = firstMismatch(generator, moves);
+                if (mismatch >= 0) {
+                    int[] shrunk = shrink(generator, Arrays.copyOf(moves, mismatch));
+                    fail(generator.getClass().getSimpleName() + " disagrees after " + describe(shrunk));
+                }
+                return moves.length + 1;
+            }).sum();
+            assertTrue(positions > GAMES);
+        }
+    }
+
+    @Test
+    void testBatchesAgreeWithSingleStates() {
+        var reference = new BitboardMoveGenerator();
+        List<Long> collected = new ArrayList<>();
+        for (int game = 0; game < 200; game++) {
+            var model = new GameModel();
+            collected.add(PackedState.of(model));
+            for (int move : randomGame(new SplittableRandom(SEED - game))) {
+                Moves.play(model, move);
+                collected.add(PackedState.of(model));
+            }
+        }
+        long[] states = collected.stream().mapToLong(Long::longValue).toArray();
+        for (var generator : generators()) {
+            int[] moves = new int[states.length];
+            byte[] status = new byte[states.length];
+            generator.legalMoves(states, 1, states.length, moves);
+            generator.status(states, 1, states.length, status);
+            for (int i = 1; i < states.length; i++) {
+                String message = generator.getClass().getSimpleName() + " at state " + Long.toHexString(states[i]);
+                assertEquals(reference.legalMoves(states[i]), moves[i], message);
+                assertEquals(reference.status(states[i]).ordinal(), status[i], message);
+            }
+            assertEquals(0, moves[0]);
+        }
+    }
+
+    @Test
+    void testShrinksCounterexample() {
+        MoveGenerator broken = new BitboardMoveGenerator() {
+            @Override
+            public int legalMoves(long state) {
+                int legal = super.legalMoves(state);
+                return PackedState.square(state, 0) / GameModel.BOARD_SIZE == 3 ? legal & ~(1 << 3) : legal;
+            }
+        };
+        int[] failing = null;
+        for (int game = 0; failing == null; game++) {
+            int[] moves = randomGame(new SplittableRandom(game));
+            int mismatch = firstMismatch(broken, moves);
+            if (mismatch >= 0) {
+                failing = Arrays.copyOf(moves, mismatch);
+            }
+        }
+        int[] shrunk = shrink(broken, failing);
+        assertTrue(firstMismatch(broken, shrunk) >= 0);
+        assertTrue(shrunk.length <= failing.length);
+        assertTrue(shrunk.length <= 9, describe(shrunk));
+    }
+
+    /**
+     * Plays random valid moves from the start position until the game is over.
+     */
+    private static int[] randomGame(SplittableRandom random) {
+        var model = new GameModel();
+        int[] buffer = new int[Moves.MAX_MOVES];
+        List<Integer> moves = new ArrayList<>();
+        while (legacyStatus(model) == GameModel.GameStatus.IN_PROGRESS) {
+            int move = buffer[random.nextInt(Moves.generate(model, buffer))];
+            moves.add(move);
+            Moves.play(model, move);
+        }
+        return moves.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Replays moves on a model and on encoded states.
+     * @return the number of moves played before the first disagreement, -1 if there is none or if the
+     * sequence is not a valid game.
+     */
+    private static int firstMismatch(MoveGenerator generator, int[] moves) {
+        var model = new GameModel();
+        long state = PackedState.of(model);
+        int[] buffer = new int[Moves.MAX_MOVES];
+        for (int ply = 0; ; ply++) {
+            int expected = 0;
+            int count = Moves.generate(model, buffer);
+            for (int i = 0; i < count; i++) {
+                expected |= 1 << buffer[i];
+            }
+            var status = legacyStatus(model);
+            if (generator.legalMoves(state) != expected || generator.status(state) != status
+                    || model.getStatus() != status) {
+                return ply;
+            }
+            if (ply == moves.length) {
+                return -1;
+            }
+            if (status != GameModel.GameStatus.IN_PROGRESS || (expected & 1 << moves[ply]) == 0) {
+                return -1;
+            }
+            Moves.play(model, moves[ply]);
+            state = generator.play(state, moves[ply]);
+            if (state != PackedState.of(model)) {
+                return ply + 1;
+            }
+        }
+    }
+
+    /**
+     * Status decided the way the controller originally did: by scanning all positions for passed dogs
+     * and by asking the model for the valid moves of the side to move.
+     */
+    private static GameModel.GameStatus legacyStatus(GameModel model) {
+        List<Position> positions = model.getAllPiecesPositions();
+        int counter = 0;
+        for (int i = 1; i < positions.size(); i++) {
+            if (positions.get(0).row() > positions.get(i).row()) {
+                counter++;
+            }
+        }
+        if (positions.get(0).row() == GameModel.BOARD_SIZE - 1 || counter > 3) {
+            return GameModel.GameStatus.FOX_WON;
+        }
+        if (model.getTurnOrder() == GameModel.TurnOrder.FOX && model.getValidFoxMoves(0).isEmpty()) {
+            return GameModel.GameStatus.DOGS_WON;
+        }
+        if (model.getTurnOrder() == GameModel.TurnOrder.DOG) {
+            boolean canMove = false;
+            for (int i = 1; i < model.getPieceCount(); i++) {
+                canMove |= !model.getValidDogMoves(i).isEmpty();
+            }
+            if (!canMove) {
+                return GameModel.GameStatus.FOX_WON;
+            }
+        }
+        return GameModel.GameStatus.IN_PROGRESS;
+    }
+
+    /**
+     * Removes chunks of moves, halving the chunk size down to single moves, as long as the remaining
+     * sequence is a valid game that still disagrees.
+     */
+    private static int[] shrink(MoveGenerator generator, int[] moves) {
+        int[] best = moves;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int size = Math.max(1, best.length / 2); size >= 1 && !improved; size /= 2) {
+                for (int from = 0; from + size <= best.length; from++) {
+                    int[] candidate = new int[best.length - size];
+                    System.arraycopy(best, 0, candidate, 0, from);
+                    System.arraycopy(best, from + size, candidate, from, best.length - from - size);
+                    int mismatch = firstMismatch(generator, candidate);
+                    if (mismatch >= 0) {
+                        best = Arrays.copyOf(candidate, mismatch);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private static String describe(int[] moves) {
+        StringBuilder builder = new StringBuilder(moves.length + " moves:");
+        for (int move : moves) {
+            builder.append(' ').append(Move.decode(move));
+        }
+        return builder.toString();
+    }
+}
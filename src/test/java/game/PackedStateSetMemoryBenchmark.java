@@ -0,0 +1,63 @@
+package game;
+
+import chasegame.analysis.BatchAnalyzer;
+import chasegame.analysis.PackedStateSet;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.tinylog.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compares the heap used by states from random games kept as models, as a {@code HashSet} of boxed
+ * states and in a {@link PackedStateSet}, and times the round trip of a state through a model.
+ */
+public class PackedStateSetMemoryBenchmark {
+
+    /**
+     * Runs the comparison.
+     * @param args number of states, optional.
+     */
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        long[] states = BatchAnalyzer.randomStates(count, 49);
+
+        long before = HeapUsage.usedMemory();
+        List<GameModel> models = new ArrayList<>(count);
+        for (long state : states) {
+            models.add(PackedState.toModel(state));
+        }
+        long modelBytes = HeapUsage.usedMemory() - before;
+
+        before = HeapUsage.usedMemory();
+        Set<Long> boxed = new HashSet<>();
+        for (long state : states) {
+            boxed.add(state);
+        }
+        long boxedBytes = HeapUsage.usedMemory() - before;
+
+        before = HeapUsage.usedMemory();
+        var set = new PackedStateSet();
+        for (long state : states) {
+            set.add(state);
+        }
+        long setBytes = HeapUsage.usedMemory() - before;
+
+        long start = System.nanoTime();
+        long found = 0;
+        for (long state : states) {
+            found += PackedState.of(PackedState.toModel(state)) == state ? 1 : 0;
+        }
+        long convertNanos = System.nanoTime() - start;
+
+        Logger.info("{} states, {} distinct", count, set.size());
+        Logger.info("GameModel: {} bytes/state, HashSet<Long>: {} bytes/distinct state, PackedStateSet: {} bytes/distinct state",
+                (double) modelBytes / count, (double) boxedBytes / set.size(), (double) setBytes / set.size());
+        Logger.info("Round trip through GameModel: {} ns/state for {} states", (double) convertNanos / count, found);
+        Logger.info("Kept {} models, {} boxed states and {} bytes of table", models.size(), boxed.size(),
+                set.getMemoryBytes());
+    }
+}
@@ -0,0 +1,95 @@
+package game;
+
+import chasegame.analysis.BatchAnalyzer;
+import chasegame.analysis.PackedStateMap;
+import chasegame.analysis.PackedStateSet;
+import chasegame.controller.GameJournal;
+import chasegame.engine.Moves;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PackedStateSetTest {
+
+    @Test
+    void testModelRoundTripKeepsPositionsAndTurn() {
+        var model = new GameModel();
+        int[] moves = new int[Moves.MAX_MOVES];
+        while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+            long state = PackedState.of(model);
+            var decoded = PackedState.toModel(state);
+            assertTrue(Moves.samePosition(model, decoded));
+            assertEquals(model.getTurnOrder(), decoded.getTurnOrder());
+            assertEquals(model.getStatus(), decoded.getStatus());
+            assertEquals(state, PackedState.of(decoded));
+            Moves.play(model, moves[Moves.generate(model, moves) - 1]);
+        }
+        var snapshot = new GameJournal.Snapshot(1, GameJournal.Kind.MOVE, PackedState.of(model), 3, 3, "a", "b",
+                Instant.EPOCH, Instant.EPOCH);
+        assertEquals(PackedState.of(model), PackedState.of(snapshot.toModel()));
+    }
+
+    @Test
+    void testDecodingRejectsPiecesOnTheSameSquare() {
+        long start = PackedState.of(new GameModel());
+        long state = PackedState.withSquare(start, 2, PackedState.square(start, 1));
+        assertThrows(IllegalArgumentException.class, () -> PackedState.toModel(state));
+    }
+
+    @Test
+    void testSetAgreesWithHashSet() {
+        long[] states = BatchAnalyzer.randomStates(50_000, 49);
+        var set = new PackedStateSet();
+        Set<Long> expected = new HashSet<>();
+        var random = new SplittableRandom(49);
+        for (long state : states) {
+            if (random.nextInt(4) == 0) {
+                assertEquals(expected.remove(state), set.remove(state));
+            } else {
+                assertEquals(expected.add(state), set.add(state));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        for (long state : states) {
+            assertEquals(expected.contains(state), set.contains(state));
+        }
+        long[] stored = set.toArray();
+        Arrays.sort(stored);
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), stored);
+        assertTrue(set.getMemoryBytes() < 32L * set.size());
+        assertThrows(IllegalArgumentException.class, () -> set.add(0));
+    }
+
+    @Test
+    void testMapAgreesWithHashMap() {
+        long[] states = BatchAnalyzer.randomStates(50_000, 50);
+        var map = new PackedStateMap(16);
+        Map<Long, Integer> expected = new HashMap<>();
+        var random = new SplittableRandom(50);
+        for (long state : states) {
+            switch (random.nextInt(4)) {
+                case 0 -> assertEquals(expected.remove(state) != null, map.remove(state));
+                case 1 -> {
+                    int value = random.nextInt(100);
+                    expected.put(state, value);
+                    map.put(state, value);
+                }
+                default -> assertEquals(expected.merge(state, 1, Integer::sum), map.merge(state, 1, Integer::sum));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long state : states) {
+            assertEquals(expected.getOrDefault(state, -1), map.getOrDefault(state, -1));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package game;
+
+import chasegame.analysis.Perft;
+import chasegame.engine.BitboardMoveGenerator;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PerftTest {
+
+    private static final long[] START_COUNTS = {1, 7, 14, 86, 344, 2088, 5481, 33406, 131980, 802848, 2287730};
+
+    @Test
+    void testGameModelRulesMatchKnownCounts() {
+        for (int depth = 0; depth < START_COUNTS.length; depth++) {
+            assertEquals(START_COUNTS[depth], Perft.count(new GameModel(), depth), "depth " + depth);
+        }
+    }
+
+    @Test
+    void testGeneratorMatchesKnownCounts() {
+        var perft = new Perft();
+        long start = PackedState.of(new GameModel());
+        for (int depth = 0; depth < START_COUNTS.length; depth++) {
+            assertEquals(START_COUNTS[depth], perft.count(start, depth), "depth " + depth);
+        }
+    }
+
+    @Test
+    void testDivideWithHashAndThreads() {
+        var pool = new ForkJoinPool(2);
+        var perft = new Perft(new BitboardMoveGenerator(), pool, 16);
+        long start = PackedState.of(new GameModel());
+        var result = perft.divide(start, 12);
+        assertEquals(52464500L, result.nodes());
+        assertEquals(7, Arrays.stream(result.divide()).filter(count -> count > 0).count());
+        assertEquals(929966393L, perft.divide(start, 14).nodes());
+        var plain = new Perft().divide(start, 8);
+        assertArrayEquals(plain.divide(), perft.divide(start, 8).divide());
+        pool.shutdown();
+    }
+}
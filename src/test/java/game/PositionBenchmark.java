@@ -0,0 +1,90 @@
+package game;
+
+import chasegame.model.FoxDirection;
+import chasegame.model.GameModel;
+import chasegame.model.Position;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares shared positions from {@link Position#of(int, int)} with allocating a record for every
+ * square. Run {@link #main(String[])} to report throughput and, through the GC profiler, the
+ * allocation rate of each variant.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PositionBenchmark {
+
+    private static final int STEPS = 1024;
+
+    private final int[] rows = new int[STEPS];
+    private final int[] cols = new int[STEPS];
+    private final FoxDirection[] directions = new FoxDirection[STEPS];
+
+    @Setup
+    public void setUp() {
+        var random = new SplittableRandom(40);
+        for (int i = 0; i < STEPS; i++) {
+            rows[i] = random.nextInt(GameModel.BOARD_SIZE);
+            cols[i] = random.nextInt(GameModel.BOARD_SIZE);
+            directions[i] = FoxDirection.values()[random.nextInt(4)];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void lookUpShared(Blackhole blackhole) {
+        for (int i = 0; i < STEPS; i++) {
+            blackhole.consume(Position.of(rows[i], cols[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void allocateRecord(Blackhole blackhole) {
+        for (int i = 0; i < STEPS; i++) {
+            blackhole.consume(new Position(rows[i], cols[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void moveShared(Blackhole blackhole) {
+        for (int i = 0; i < STEPS; i++) {
+            blackhole.consume(Position.of(rows[i], cols[i]).moveTo(directions[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void moveAllocating(Blackhole blackhole) {
+        for (int i = 0; i < STEPS; i++) {
+            var from = new Position(rows[i], cols[i]);
+            blackhole.consume(new Position(from.row() + directions[i].getRowChange(),
+                    from.col() + directions[i].getColChange()));
+        }
+    }
+
+    /**
+     * Runs the benchmarks with the GC profiler.
+     * @param args not used.
+     * @throws RunnerException if a benchmark fails.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PositionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,32 @@
+package game;
+
+import chasegame.model.DogDirection;
+import chasegame.model.FoxDirection;
+import chasegame.model.GameModel;
+import chasegame.model.Position;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionTest {
+
+    @Test
+    void testOfSharesSquaresOnAndAroundTheBoard() {
+        for (int row = -1; row <= GameModel.BOARD_SIZE; row++) {
+            for (int col = -1; col <= GameModel.BOARD_SIZE; col++) {
+                assertSame(Position.of(row, col), Position.of(row, col));
+                assertEquals(new Position(row, col), Position.of(row, col));
+            }
+        }
+        assertNotSame(Position.of(-2, 0), Position.of(-2, 0));
+        assertEquals(new Position(-2, 0), Position.of(-2, 0));
+    }
+
+    @Test
+    void testMovesReturnSharedPositions() {
+        var position = Position.of(0, 0);
+        assertSame(Position.of(1, 1), position.moveTo(FoxDirection.DOWN_RIGHT));
+        assertSame(Position.of(-1, -1), position.moveTo(DogDirection.UP_LEFT));
+        assertSame(position, position.moveTo(FoxDirection.DOWN_RIGHT).moveBack(FoxDirection.DOWN_RIGHT));
+    }
+}
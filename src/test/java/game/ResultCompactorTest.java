@@ -0,0 +1,72 @@
+package game;
+
+import chasegame.results.*;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import dbutils.guice.PersistenceModule;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class ResultCompactorTest {
+
+    static Injector injector;
+
+    @BeforeAll
+    static void setUp() {
+        injector = Guice.createInjector(new PersistenceModule("chase-game-test"));
+    }
+
+    @Test
+    void testCompactsExpiredResultsIntoBuckets() {
+        GameResultDao gameResultDao = injector.getInstance(GameResultDao.class);
+        ResultBucketDao resultBucketDao = injector.getInstance(ResultBucketDao.class);
+        ResultCompactor compactor = injector.getInstance(ResultCompactor.class);
+        Instant now = Instant.parse("2021-06-30T12:00:00Z");
+        compactor.setClock(Clock.fixed(now, ZoneOffset.UTC));
+        compactor.setPolicy(new RetentionPolicy(Duration.ofDays(1), Duration.ofDays(30), Duration.ofDays(60)));
+
+        for (int day = 0; day < 100; day++) {
+            for (int game = 0; game < 30; game++) {
+                gameResultDao.persist(GameResult.builder().player("compacted").opponent("other").winnerType("Fox")
+                        .rounds(10 + game).duration(Duration.ofSeconds(100 - game))
+                        .playedAt(now.minus(Duration.ofDays(day)).minus(Duration.ofMinutes(game))).build());
+            }
+        }
+        compactor.compact();
+
+        Instant cutoff = Instant.parse("2021-05-31T00:00:00Z");
+        for (var result : gameResultDao.findAll()) {
+            if ("compacted".equals(result.getPlayer())) {
+                assertFalse(result.getPlayedAt().isBefore(cutoff));
+            }
+        }
+        assertTrue(gameResultDao.findPlayedBefore(cutoff, 1).isEmpty());
+
+        List<ResultBucket> buckets = resultBucketDao.findByPlayer("compacted");
+        assertFalse(buckets.isEmpty());
+        for (var bucket : buckets) {
+            assertTrue(bucket.getBucketStart().isBefore(cutoff));
+            assertFalse(bucket.getBucketStart().isBefore(Instant.parse("2021-05-01T00:00:00Z")));
+            assertEquals(10, bucket.getBestRounds());
+            assertEquals(Duration.ofSeconds(71), bucket.getBestDuration());
+        }
+        int compactedGames = buckets.stream().mapToInt(ResultBucket::getGames).sum();
+        assertEquals(30 * 30, compactedGames);
+    }
+
+    @Test
+    void testKeepsRawResultsUnlessRetentionIsSet() {
+        assertNull(System.getProperty("chasegame.retention.results"));
+        assertTrue(RetentionPolicy.fromSystemProperties().isEmpty());
+        assertThrows(IllegalStateException.class, () -> new ResultCompactor().compact());
+    }
+}
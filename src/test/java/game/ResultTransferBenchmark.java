@@ -0,0 +1,93 @@
+package game;
+
+import chasegame.results.ColumnarResultFormat;
+import chasegame.results.GameResultDao;
+import chasegame.results.ResultBlock;
+import chasegame.results.ResultTransfer;
+import com.google.inject.Guice;
+import dbutils.guice.PersistenceModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures results per second of a whole export and import through {@link ResultTransfer} and the
+ * {@link GameResultDao}, on the in-memory database of the tests. Each benchmark runs in a fork of its
+ * own, which imports the file once at setup. Every import adds the results of the file again, so the
+ * imports run against a growing table like a real one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx3g")
+public class ResultTransferBenchmark {
+
+    private static final int RESULTS = 200_000;
+
+    private ResultTransfer transfer;
+    private Path file;
+    private Path export;
+
+    @Setup
+    public void setUp() throws IOException {
+        transfer = Guice.createInjector(new PersistenceModule("chase-game-test")).getInstance(ResultTransfer.class);
+        file = Files.createTempFile("results", ".cgr");
+        export = Files.createTempFile("export", ".cgr");
+        var random = new SplittableRandom(36);
+        ResultBlock block = new ResultBlock(1 << 16);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+             var writer = new ColumnarResultFormat.Writer(channel)) {
+            for (int i = 0; i < RESULTS; i++) {
+                block.add(i + 1, "player" + random.nextInt(100), "rival" + random.nextInt(100),
+                        random.nextBoolean() ? "Fox" : "Dogs", random.nextInt(200), random.nextInt(600_000),
+                        1_600_000_000_000L + i * 1000L);
+                if (block.isFull()) {
+                    writer.write(block);
+                    block.clear();
+                }
+            }
+            writer.write(block);
+        }
+        transfer.importFrom(file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+        Files.delete(export);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RESULTS)
+    public long importResults() throws IOException {
+        return transfer.importFrom(file);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RESULTS)
+    public long exportResults() throws IOException {
+        return transfer.exportTo(export);
+    }
+
+    /**
+     * Runs the benchmarks.
+     * @param args not used.
+     * @throws RunnerException if a benchmark fails.
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResultTransferBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
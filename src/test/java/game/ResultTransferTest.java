@@ -0,0 +1,281 @@
+package game;
+
+import chasegame.results.*;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import dbutils.guice.PersistenceModule;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultTransferTest {
+
+    static Injector injector;
+
+    @BeforeAll
+    static void setUp() {
+        injector = Guice.createInjector(new PersistenceModule("chase-game-test"));
+    }
+
+    @Test
+    void testFormatRoundTrip() throws Exception {
+        var random = new SplittableRandom(36);
+        ResultBlock block = new ResultBlock(1000);
+        var bytes = new ByteArrayOutputStream();
+        long id = 0;
+        try (var writer = new ColumnarResultFormat.Writer(Channels.newChannel(bytes))) {
+            for (int b = 0; b < 3; b++) {
+                block.clear();
+                for (int i = 0; i < (b == 2 ? 17 : 1000); i++) {
+                    id += 1 + random.nextInt(5);
+                    block.add(id, "player" + random.nextInt(50), i % 7 == 0 ? null : "\u00d6" + random.nextInt(50),
+                            i % 2 == 0 ? "Fox" : "Dogs", random.nextInt(200), random.nextLong(1L << 40),
+                            i % 11 == 0 ? ResultBlock.NO_TIME : 1_600_000_000_000L + random.nextLong(1L << 35));
+                }
+                writer.write(block);
+            }
+        }
+        assertTrue(bytes.size() < 2017 * 16, "compressed to " + bytes.size() + " bytes");
+
+        random = new SplittableRandom(36);
+        id = 0;
+        ResultBlock read = new ResultBlock(1000);
+        try (var reader = new ColumnarResultFormat.Reader(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())))) {
+            for (int b = 0; b < 3; b++) {
+                assertTrue(reader.read(read));
+                assertEquals(b == 2 ? 17 : 1000, read.size());
+                for (int i = 0; i < read.size(); i++) {
+                    id += 1 + random.nextInt(5);
+                    assertEquals(id, read.getId(i));
+                    assertEquals("player" + random.nextInt(50), read.getPlayer(i));
+                    assertEquals(i % 7 == 0 ? null : "\u00d6" + random.nextInt(50), read.getOpponent(i));
+                    assertEquals(i % 2 == 0 ? "Fox" : "Dogs", read.getWinnerType(i));
+                    assertEquals(random.nextInt(200), read.getRounds(i));
+                    assertEquals(random.nextLong(1L << 40), read.getDurationMillis(i));
+                    assertEquals(i % 11 == 0 ? ResultBlock.NO_TIME : 1_600_000_000_000L + random.nextLong(1L << 35),
+                            read.getPlayedAt(i));
+                }
+            }
+            assertFalse(reader.read(read));
+        }
+    }
+
+    @Test
+    void testExportAndImportRestoreResults(@TempDir Path directory) throws Exception {
+        GameResultDao gameResultDao = injector.getInstance(GameResultDao.class);
+        ResultTransfer transfer = injector.getInstance(ResultTransfer.class);
+        Instant now = Instant.parse("2021-07-01T10:15:30.123Z");
+        for (int i = 0; i < 200; i++) {
+            gameResultDao.persist(GameResult.builder().player("exported" + i % 3).opponent(i % 5 == 0 ? null : "rival")
+                    .winnerType(i % 2 == 0 ? "Fox" : "Dogs").rounds(i).duration(Duration.ofMillis(1000 + i))
+                    .playedAt(now.plusSeconds(i)).build());
+        }
+        List<GameResult> before = exported(gameResultDao);
+        Path file = directory.resolve("results.cgr");
+        assertTrue(transfer.exportTo(file) >= 200);
+
+        gameResultDao.deleteByIds(before.stream().map(GameResult::getId).collect(Collectors.toList()));
+        assertTrue(exported(gameResultDao).isEmpty());
+        transfer.importFrom(file);
+        List<GameResult> after = exported(gameResultDao);
+        assertEquals(withoutIds(before), withoutIds(after));
+        assertTrue(after.get(0).getId() > before.get(before.size() - 1).getId());
+
+        GameResult later = GameResult.builder().player("exported0").winnerType("Fox").rounds(1)
+                .duration(Duration.ofSeconds(1)).build();
+        gameResultDao.persist(later);
+        assertTrue(later.getId() > after.get(after.size() - 1).getId());
+    }
+
+    @Test
+    void testImportAddsResultsToSummaries(@TempDir Path directory) throws Exception {
+        GameResultDao gameResultDao = injector.getInstance(GameResultDao.class);
+        PlayerStatsDao playerStatsDao = injector.getInstance(PlayerStatsDao.class);
+        ResultTransfer transfer = injector.getInstance(ResultTransfer.class);
+        List<String> players = List.of("importedFox", "importedDogs", "importedRival");
+        for (int i = 0; i < 30; i++) {
+            gameResultDao.persist(GameResult.builder().player(players.get(i % 2)).opponent(players.get(2))
+                    .winnerType(i % 2 == 0 ? "Fox" : "Dogs").rounds(i).duration(Duration.ofMillis(2000 - i))
+                    .playedAt(Instant.now()).build());
+        }
+        List<PlayerStats> before = stats(playerStatsDao, players);
+        Path file = directory.resolve("results.cgr");
+        transfer.exportTo(file);
+
+        gameResultDao.deleteByIds(gameResultDao.findAll().stream()
+                .filter(result -> players.contains(result.getPlayer()))
+                .map(GameResult::getId).collect(Collectors.toList()));
+        before.forEach(playerStatsDao::remove);
+        transfer.importFrom(file);
+        assertEquals(before, stats(playerStatsDao, players));
+
+        transfer.importFrom(file);
+        List<PlayerStats> twice = stats(playerStatsDao, players);
+        for (int i = 0; i < players.size(); i++) {
+            assertEquals(2 * before.get(i).getGames(), twice.get(i).getGames());
+            assertEquals(2 * before.get(i).getTotalRounds(), twice.get(i).getTotalRounds());
+            assertEquals(before.get(i).getBestTime(), twice.get(i).getBestTime());
+        }
+    }
+
+    @Test
+    void testImportKeepsStoredResultsWithTheSameIds(@TempDir Path directory) throws Exception {
+        GameResultDao gameResultDao = injector.getInstance(GameResultDao.class);
+        PlayerStatsDao playerStatsDao = injector.getInstance(PlayerStatsDao.class);
+        ResultTransfer transfer = injector.getInstance(ResultTransfer.class);
+        Instant now = Instant.parse("2021-07-02T08:00:00Z");
+        for (int i = 0; i < 10; i++) {
+            gameResultDao.persist(GameResult.builder().player("local").opponent("localRival").winnerType("Fox")
+                    .rounds(i).duration(Duration.ofMillis(3000 + i)).playedAt(now.plusSeconds(i)).build());
+        }
+        List<GameResult> local = gameResultDao.findAll().stream()
+                .filter(result -> result.getPlayer().equals("local"))
+                .collect(Collectors.toList());
+        List<PlayerStats> localStats = stats(playerStatsDao, List.of("local", "localRival"));
+
+        // Results exported on another machine, numbered by a sequence of their own.
+        ResultBlock block = new ResultBlock(local.size());
+        for (GameResult result : local) {
+            block.add(result.getId(), "remote", "local", "Dogs", 7, 500, ResultBlock.NO_TIME);
+        }
+        Path file = directory.resolve("remote.cgr");
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             var writer = new ColumnarResultFormat.Writer(channel)) {
+            writer.write(block);
+        }
+        transfer.importFrom(file);
+
+        for (GameResult result : local) {
+            assertEquals(result, gameResultDao.find(result.getId()).orElseThrow());
+        }
+        assertEquals(local.size(), gameResultDao.findAll().stream()
+                .filter(result -> result.getPlayer().equals("remote"))
+                .count());
+        PlayerStats remote = playerStatsDao.find("remote").orElseThrow();
+        assertEquals(local.size(), remote.getDogWins());
+        assertEquals(Duration.ofMillis(500), remote.getBestTime());
+        PlayerStats localAfter = playerStatsDao.find("local").orElseThrow();
+        assertEquals(localStats.get(0).getGames() + local.size(), localAfter.getGames());
+        assertEquals(localStats.get(0).getFoxWins(), localAfter.getFoxWins());
+        assertEquals(localStats.get(0).getBestTime(), localAfter.getBestTime());
+        assertEquals(localStats.get(1), playerStatsDao.find("localRival").orElseThrow());
+    }
+
+    @Test
+    void testReaderRejectsTruncatedBlock() throws Exception {
+        ResultBlock block = new ResultBlock(100);
+        for (int i = 0; i < 100; i++) {
+            block.add(i + 1, "player" + i, null, "Fox", i, 1000 + i, ResultBlock.NO_TIME);
+        }
+        var bytes = new ByteArrayOutputStream();
+        try (var writer = new ColumnarResultFormat.Writer(Channels.newChannel(bytes))) {
+            writer.write(block);
+        }
+        // Keep the file and block headers, but only the first half of the compressed block.
+        var written = ByteBuffer.wrap(bytes.toByteArray());
+        int compressed = written.getInt(12) / 2;
+        var corrupt = ByteBuffer.allocate(16 + compressed + 12);
+        corrupt.put(written.array(), 0, 16 + compressed).putInt(12, compressed);
+        byte[] truncated = corrupt.array();
+        try (var reader = new ColumnarResultFormat.Reader(Channels.newChannel(new ByteArrayInputStream(truncated)))) {
+            assertThrows(IOException.class, () -> reader.read(block));
+        }
+    }
+
+    @Test
+    void testReaderRejectsCorruptHeaders() throws Exception {
+        byte[] payload = deflate(new byte[]{0, 2, 2, 2});
+        int[][] headers = {
+                {-1, 4, payload.length},
+                {1 << 20, 4, payload.length},
+                {1, -4, payload.length},
+                {1, Integer.MAX_VALUE, payload.length},
+                {1, 1 << 27, payload.length},
+                {1, 4, -1},
+                {1, 4, Integer.MAX_VALUE},
+                {0, 4, payload.length},
+        };
+        for (int[] header : headers) {
+            assertThrows(IOException.class, () -> readBlock(header[0], header[1], header[2], payload),
+                    () -> "header " + Arrays.toString(header));
+        }
+    }
+
+    @Test
+    void testReaderRejectsCorruptPayloads() throws Exception {
+        byte[][] payloads = {
+                // A dictionary of 2^35 names, a name longer than the block, a number running past the end.
+                {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 1, 0, 0, 0, 0, 0, 0, 0, 0},
+                {1, 100, 'a', 0, 0, 0, 0, 0, 0, 0},
+                {0, 2, 2, 2, 0, 0, (byte) 0x80},
+                // A name index outside the dictionary of one name.
+                {1, 1, 'a', 2, 2, 2, 0, 5, 0, 0},
+        };
+        for (byte[] raw : payloads) {
+            assertThrows(IOException.class, () -> readBlock(1, raw.length, -1, raw));
+        }
+        assertEquals("a", readBlock(1, 10, -1, new byte[]{1, 1, 'a', 2, 2, 2, 0, 1, 0, 0}).getPlayer(0));
+    }
+
+    /**
+     * Reads a block from a file holding one block, deflating the payload unless a compressed length is given.
+     */
+    private static ResultBlock readBlock(int rows, int rawLength, int compressed, byte[] payload) throws IOException {
+        byte[] data = compressed < 0 ? deflate(payload) : payload;
+        var file = ByteBuffer.allocate(4 + 12 + data.length + 12)
+                .putInt(0x43475231).putInt(rows).putInt(rawLength).putInt(compressed < 0 ? data.length : compressed)
+                .put(data);
+        ResultBlock block = new ResultBlock(100);
+        try (var reader = new ColumnarResultFormat.Reader(Channels.newChannel(new ByteArrayInputStream(file.array())))) {
+            reader.read(block);
+        }
+        return block;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        var deflater = new Deflater();
+        deflater.setInput(raw);
+        deflater.finish();
+        byte[] out = new byte[raw.length + 64];
+        int length = deflater.deflate(out);
+        deflater.end();
+        return Arrays.copyOf(out, length);
+    }
+
+    private static List<PlayerStats> stats(PlayerStatsDao playerStatsDao, List<String> players) {
+        return players.stream().map(player -> playerStatsDao.find(player).orElseThrow()).collect(Collectors.toList());
+    }
+
+    private static List<GameResult> withoutIds(List<GameResult> results) {
+        return results.stream()
+                .map(result -> GameResult.builder().player(result.getPlayer()).opponent(result.getOpponent())
+                        .winnerType(result.getWinnerType()).rounds(result.getRounds()).duration(result.getDuration())
+                        .playedAt(result.getPlayedAt()).build())
+                .collect(Collectors.toList());
+    }
+
+    private static List<GameResult> exported(GameResultDao gameResultDao) {
+        return gameResultDao.findAll().stream()
+                .filter(result -> result.getPlayer().startsWith("exported"))
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .collect(Collectors.toList());
+    }
+}
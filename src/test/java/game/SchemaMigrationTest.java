@@ -0,0 +1,53 @@
+package game;
+
+import chasegame.results.SchemaMigration;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SchemaMigrationTest {
+
+    @Test
+    void testUpgradesDatabaseOfFirstVersion() throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:h2:mem:migration", "sa", "");
+             Statement statement = connection.createStatement()) {
+            // Tables as created by the first version, and the summaries created by schema generation.
+            statement.execute("CREATE TABLE GameResult (id BIGINT NOT NULL, duration BIGINT NOT NULL,"
+                    + " player VARCHAR(255) NOT NULL, rounds INTEGER NOT NULL, PRIMARY KEY (id))");
+            statement.execute("CREATE TABLE PlayerStats (player VARCHAR(255) NOT NULL, bestTime BIGINT,"
+                    + " dogWins INTEGER NOT NULL, foxWins INTEGER NOT NULL, games INTEGER NOT NULL,"
+                    + " totalRounds BIGINT NOT NULL, PRIMARY KEY (player))");
+            statement.execute("INSERT INTO GameResult VALUES (1, 5000, 'alice', 12), (2, 7000, 'alice', 20),"
+                    + " (3, 3000, 'bob', 8)");
+
+            SchemaMigration.migrate(connection);
+            statement.execute("INSERT INTO GameResult (id, duration, player, rounds, opponent, winnerType, playedAt)"
+                    + " VALUES (4, 2000, 'bob', 10, 'alice', 'Fox', CURRENT_TIMESTAMP)");
+            SchemaMigration.migrate(connection);
+
+            try (ResultSet rows = statement.executeQuery(
+                    "SELECT player, games, totalRounds, foxWins + dogWins FROM PlayerStats ORDER BY player")) {
+                assertTrue(rows.next());
+                assertEquals("alice", rows.getString(1));
+                assertEquals(2, rows.getInt(2));
+                assertEquals(32, rows.getLong(3));
+                assertEquals(0, rows.getInt(4));
+                assertTrue(rows.next());
+                assertEquals("bob", rows.getString(1));
+                assertEquals(1, rows.getInt(2));
+                assertFalse(rows.next());
+            }
+            try (ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES"
+                    + " WHERE INDEX_NAME = 'IDX_RESULT_PLAYED_AT'")) {
+                assertTrue(rows.next());
+                assertTrue(rows.getInt(1) > 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package game;
+
+import chasegame.broadcast.SpectatorServer;
+import chasegame.broadcast.SpectatorView;
+import chasegame.engine.Moves;
+import chasegame.engine.RandomPlayer;
+import chasegame.engine.Seeds;
+import chasegame.events.GameEventBus;
+import chasegame.model.GameEvent;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.tinylog.Logger;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+
+/**
+ * Measures the fan-out of a {@link SpectatorServer} on the loopback interface: random games are
+ * published at a fixed pace to a server with many local viewers, all read by a single thread, and the
+ * latency from the publication of a move to its decoding by every viewer is reported together with the
+ * bandwidth a viewer takes.
+ */
+public final class SpectatorLoadClient {
+
+    private static final InetSocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    private final int viewerCount;
+    private final List<int[]> games = new ArrayList<>();
+    private final AtomicLongArray publishNanos;
+    private final int totalMoves;
+
+    /**
+     * A connected viewer and the latencies of the moves it decoded.
+     */
+    private static final class Client {
+
+        private final SocketChannel channel;
+        private final SpectatorView view = new SpectatorView();
+        private final ByteBuffer buffer = ByteBuffer.allocate(4096);
+        private final int[] latencyMicros;
+        private long received;
+
+        Client(SocketChannel channel, int moves) {
+            this.channel = channel;
+            latencyMicros = new int[moves];
+        }
+    }
+
+    private SpectatorLoadClient(int viewerCount, int gameCount, long seed) {
+        this.viewerCount = viewerCount;
+        int moves = 0;
+        for (int game = 0; game < gameCount; game++) {
+            var model = new GameModel();
+            var fox = new RandomPlayer(Seeds.derive(seed, game, 0));
+            var dogs = new RandomPlayer(Seeds.derive(seed, game, 1));
+            var plies = IntStream.builder();
+            while (model.getStatus() == GameModel.GameStatus.IN_PROGRESS) {
+                var player = model.getTurnOrder() == GameModel.TurnOrder.FOX ? fox : dogs;
+                int move = player.chooseMove(model).encode();
+                Moves.play(model, move);
+                plies.add(move);
+            }
+            games.add(plies.build().toArray());
+            moves += games.get(game).length;
+        }
+        totalMoves = moves;
+        publishNanos = new AtomicLongArray(moves);
+    }
+
+    /**
+     * Plays the games to the viewers.
+     * @param intervalMicros the time between two moves.
+     */
+    private void run(long intervalMicros) throws IOException, InterruptedException {
+        try (var server = new SpectatorServer(LOOPBACK); var bus = new GameEventBus();
+             var selector = Selector.open()) {
+            var subscription = bus.subscribe("spectators", server, 256, false);
+            var address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort());
+            List<Client> clients = new ArrayList<>(viewerCount);
+            for (int i = 0; i < viewerCount; i++) {
+                var channel = SocketChannel.open(address);
+                channel.configureBlocking(false);
+                var client = new Client(channel, totalMoves);
+                channel.register(selector, SelectionKey.OP_READ, client);
+                clients.add(client);
+            }
+            while (server.getViewerCount() < viewerCount) {
+                Thread.sleep(1);
+            }
+            long start = System.nanoTime();
+            var publisher = new Thread(() -> publish(bus, intervalMicros), "publisher");
+            publisher.start();
+            var last = new GameModel();
+            for (int move : games.get(games.size() - 1)) {
+                Moves.play(last, move);
+            }
+            receive(selector, clients, PackedState.of(last), last.getStatus(),
+                    System.nanoTime() + TimeUnit.SECONDS.toNanos(60) + intervalMicros * 1000 * totalMoves);
+            long nanos = System.nanoTime() - start;
+            publisher.join();
+            report(server, clients, nanos);
+            subscription.cancel();
+            for (var client : clients) {
+                client.channel.close();
+            }
+        }
+    }
+
+    private void publish(GameEventBus bus, long intervalMicros) {
+        int index = 0;
+        long next = System.nanoTime();
+        for (int[] game : games) {
+            var model = new GameModel();
+            model.setEventSink(bus);
+            bus.publish(new GameEvent.GameStarted(PackedState.of(model)));
+            for (int move : game) {
+                next += intervalMicros * 1000;
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                publishNanos.set(index++, System.nanoTime());
+                Moves.play(model, move);
+            }
+        }
+    }
+
+    private void receive(Selector selector, List<Client> clients, long state, GameModel.GameStatus status,
+                         long deadline) throws IOException {
+        int finished = 0;
+        while (finished < clients.size() && System.nanoTime() < deadline) {
+            selector.select(100);
+            long now = System.nanoTime();
+            for (var key : selector.selectedKeys()) {
+                var client = (Client) key.attachment();
+                int read = client.channel.read(client.buffer);
+                if (read <= 0) {
+                    continue;
+                }
+                client.received += read;
+                client.buffer.flip();
+                int applied = client.view.decode(client.buffer);
+                client.buffer.compact();
+                for (long i = client.view.getMoves() - applied; i < client.view.getMoves(); i++) {
+                    client.latencyMicros[(int) i] = (int) ((now - publishNanos.get((int) i)) / 1000);
+                }
+                if (client.view.getState() == state && client.view.getStatus() == status
+                        && client.view.getMoves() == totalMoves) {
+                    key.cancel();
+                    finished++;
+                }
+            }
+            selector.selectedKeys().clear();
+        }
+    }
+
+    private void report(SpectatorServer server, List<Client> clients, long nanos) {
+        // A viewer that was resynchronized skipped moves, so its moves no longer match the publications.
+        int[] latencies = clients.stream().filter(client -> client.view.getMoves() == totalMoves)
+                .flatMapToInt(client -> Arrays.stream(client.latencyMicros)).sorted().toArray();
+        long received = clients.stream().mapToLong(client -> client.received).sum();
+        double seconds = nanos / 1e9;
+        Logger.info("{} viewers, {} games, {} moves in {} ms", viewerCount, games.size(), totalMoves,
+                nanos / 1_000_000);
+        if (latencies.length > 0) {
+            Logger.info("Fan-out latency: p50 {} us, p99 {} us, max {} us", latencies[latencies.length / 2],
+                    latencies[(int) (latencies.length * 0.99)], latencies[latencies.length - 1]);
+        }
+        Logger.info("Per viewer: {} bytes, {} bytes/move, {} bytes/s", received / viewerCount,
+                String.format("%.2f", (double) received / viewerCount / totalMoves),
+                (long) (received / viewerCount / seconds));
+        Logger.info("Server: {} bytes in {} writes, {} bytes/write, {} resyncs, {} bytes received",
+                server.getBytesSent(), server.getWrites(),
+                String.format("%.2f", (double) server.getBytesSent() / server.getWrites()), server.getResyncs(),
+                received);
+    }
+
+    /**
+     * Runs the load test.
+     * @param args the number of viewers (1000), of games (20) and the microseconds between moves (200).
+     * @throws IOException if the loopback interface cannot be used.
+     * @throws InterruptedException if interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int viewers = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        long intervalMicros = args.length > 2 ? Long.parseLong(args[2]) : 200;
+        new SpectatorLoadClient(viewers, games, 50).run(intervalMicros);
+    }
+}
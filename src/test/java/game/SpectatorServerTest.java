@@ -0,0 +1,122 @@
+package game;
+
+import chasegame.broadcast.SpectatorServer;
+import chasegame.broadcast.SpectatorView;
+import chasegame.engine.Moves;
+import chasegame.events.GameEventBus;
+import chasegame.model.GameEvent;
+import chasegame.model.GameModel;
+import chasegame.model.PackedState;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpectatorServerTest {
+
+    private static final InetSocketAddress LOOPBACK = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    @Test
+    void testViewersSeeEveryMove() throws IOException, InterruptedException {
+        try (var server = new SpectatorServer(LOOPBACK); var bus = new GameEventBus(64)) {
+            var subscription = bus.subscribe("spectators", server, 16, false);
+            var viewers = connect(server, 3);
+            var model = new GameModel();
+            int plies = play(bus, model, 0);
+            awaitLag(subscription);
+            for (var viewer : viewers) {
+                viewer.await(model);
+                assertEquals(plies, viewer.view.getMoves());
+                assertEquals(1, viewer.view.getSyncs());
+                viewer.channel.close();
+            }
+            assertTrue(server.getBytesSent() <= 3 * (5 + 2L * plies + 1));
+        }
+    }
+
+    @Test
+    void testLateAndSlowViewersCatchUpWithTheOutcome() throws IOException, InterruptedException {
+        try (var server = new SpectatorServer(LOOPBACK, 16); var bus = new GameEventBus(64)) {
+            var subscription = bus.subscribe("spectators", server, 16, false);
+            var slow = connect(server, 1);
+            play(bus, new GameModel(), 0);
+            awaitLag(subscription);
+            var late = connect(server, 2);
+            GameModel model = null;
+            for (int game = 1; game < 4; game++) {
+                model = new GameModel();
+                play(bus, model, game);
+            }
+            awaitLag(subscription);
+            slow.get(0).await(model);
+            late.get(1).await(model);
+            assertTrue(late.get(1).view.getSyncs() >= 3);
+            connect(server, 1).get(0).await(model);
+        }
+    }
+
+    private static int play(GameEventBus bus, GameModel model, int game) {
+        int[] moves = new int[Moves.MAX_MOVES];
+        model.setEventSink(bus);
+        bus.publish(new GameEvent.GameStarted(PackedState.of(model)));
+        int ply = 0;
+        for (; model.getStatus() == GameModel.GameStatus.IN_PROGRESS; ply++) {
+            int count = Moves.generate(model, moves);
+            Moves.play(model, moves[(ply + game) % count]);
+        }
+        return ply;
+    }
+
+    private static void awaitLag(GameEventBus.Subscription subscription) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (subscription.getLag() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static List<Viewer> connect(SpectatorServer server, int count) throws IOException, InterruptedException {
+        List<Viewer> viewers = new ArrayList<>();
+        int expected = server.getViewerCount() + count;
+        for (int i = 0; i < count; i++) {
+            var channel = SocketChannel.open(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+            channel.configureBlocking(false);
+            viewers.add(new Viewer(channel));
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (server.getViewerCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, server.getViewerCount());
+        return viewers;
+    }
+
+    private record Viewer(SocketChannel channel, SpectatorView view, ByteBuffer buffer) {
+
+        Viewer(SocketChannel channel) {
+            this(channel, new SpectatorView(), ByteBuffer.allocate(64));
+        }
+
+        void await(GameModel model) throws IOException, InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while ((view.getState() != PackedState.of(model) || view.getStatus() != model.getStatus())
+                    && System.nanoTime() < deadline) {
+                if (channel.read(buffer) == 0) {
+                    Thread.sleep(1);
+                }
+                buffer.flip();
+                view.decode(buffer);
+                buffer.compact();
+            }
+            assertEquals(PackedState.of(model), view.getState());
+            assertEquals(model.getStatus(), view.getStatus());
+        }
+    }
+}
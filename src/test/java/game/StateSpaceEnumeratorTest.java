@@ -0,0 +1,48 @@
+package game;
+
+import chasegame.analysis.BatchAnalyzer;
+import chasegame.analysis.StateSpaceEnumerator;
+import chasegame.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+public class StateSpaceEnumeratorTest {
+
+    @Test
+    void testEnumerateFromStart() {
+        var enumerator = new StateSpaceEnumerator();
+        long start = PackedState.of(new GameModel());
+        var report = enumerator.enumerate(start);
+        assertEquals(839070, report.states());
+        assertEquals(report.states(), Arrays.stream(report.depthHistogram()).sum());
+        assertEquals(1, report.depthHistogram()[0]);
+        assertEquals(7, report.depthHistogram()[1]);
+        assertFalse(report.mirrored());
+        assertTrue(enumerator.contains(start));
+        for (long state : BatchAnalyzer.randomStates(10_000, 5)) {
+            assertTrue(enumerator.contains(state));
+        }
+        assertFalse(enumerator.contains(start | PackedState.FOX_TO_MOVE));
+    }
+
+    @Test
+    void testIndexIgnoresDogOrder() {
+        long state = PackedState.of(new GameModel());
+        long swapped = PackedState.withSquare(PackedState.withSquare(state, 1, PackedState.square(state, 2)),
+                2, PackedState.square(state, 1));
+        assertEquals(StateSpaceEnumerator.index(PackedState.sortDogs(state)),
+                StateSpaceEnumerator.index(PackedState.sortDogs(swapped)));
+        assertTrue(StateSpaceEnumerator.index(PackedState.sortDogs(state)) < StateSpaceEnumerator.INDEX_SIZE);
+    }
+
+    @Test
+    void testMirrorIsInvolution() {
+        long state = PackedState.sortDogs(PackedState.of(new GameModel()));
+        assertNotEquals(state, StateSpaceEnumerator.mirror(state));
+        assertEquals(state, StateSpaceEnumerator.mirror(StateSpaceEnumerator.mirror(state)));
+    }
+}
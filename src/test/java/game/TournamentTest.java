@@ -0,0 +1,102 @@
+package game;
+
+import chasegame.engine.Evaluator;
+import chasegame.tournament.EngineConfig;
+import chasegame.tournament.Standings;
+import chasegame.tournament.Tournament;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TournamentTest {
+
+    private static final double[] WEIGHTS = Evaluator.DEFAULT.getWeights();
+
+    @Test
+    void testRoundRobinPlaysEveryPairingOnBothSides() throws InterruptedException {
+        var games = new AtomicInteger();
+        var tournament = new Tournament(List.of(
+                EngineConfig.alphaBeta("deep", 4, 1000, WEIGHTS),
+                EngineConfig.alphaBeta("shallow", 1, 1000, WEIGHTS),
+                EngineConfig.random("random")),
+                Tournament.Format.ROUND_ROBIN, 3, 4, null);
+        tournament.setListener(record -> games.incrementAndGet());
+        List<Standings> standings = tournament.run();
+        assertEquals(18, games.get());
+        for (var entry : standings) {
+            assertEquals(12, entry.games());
+            assertTrue(entry.eloError() > 0);
+        }
+        assertEquals(18, standings.stream().mapToInt(Standings::wins).sum());
+        assertTrue(standings.get(0).elo() > standings.get(2).elo());
+    }
+
+    @Test
+    void testSeededTournamentIsReproducibleWithAnyThreadCount() throws InterruptedException {
+        List<List<Standings>> runs = new ArrayList<>();
+        for (int threads : new int[]{1, 4}) {
+            var tournament = new Tournament(List.of(
+                    EngineConfig.mcts("mcts", 200),
+                    EngineConfig.random("random")),
+                    Tournament.Format.ROUND_ROBIN, 4, threads, null);
+            tournament.setSeed(48);
+            runs.add(tournament.run());
+        }
+        assertEquals(runs.get(0), runs.get(1));
+    }
+
+    @Test
+    void testGauntletOnlyPlaysTheFirstParticipant() throws InterruptedException {
+        var tournament = new Tournament(List.of(
+                EngineConfig.alphaBeta("challenger", 2, 1000, WEIGHTS),
+                EngineConfig.random("a"),
+                EngineConfig.random("b")),
+                Tournament.Format.GAUNTLET, 2, 2, null);
+        List<Standings> standings = tournament.run();
+        assertEquals(8, standings.get(0).games());
+        assertEquals(4, standings.get(1).games());
+        assertEquals(4, standings.get(2).games());
+    }
+
+    @Test
+    void testPauseHoldsGamesUntilResumed() throws InterruptedException {
+        var tournament = new Tournament(List.of(EngineConfig.random("a"), EngineConfig.random("b")),
+                Tournament.Format.ROUND_ROBIN, 2, 2, null);
+        var finished = new CountDownLatch(4);
+        tournament.setListener(record -> finished.countDown());
+        tournament.pause();
+        assertTrue(tournament.isPaused());
+        var runner = new Thread(() -> {
+            try {
+                tournament.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        runner.start();
+        assertFalse(finished.await(200, TimeUnit.MILLISECONDS));
+        assertEquals(0, tournament.getStandings().get(0).games());
+        tournament.resume();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        runner.join(5000);
+        assertEquals(4, tournament.getStandings().get(1).games());
+    }
+
+    @Test
+    void testEngineConfigIsAValue() {
+        double[] weights = WEIGHTS.clone();
+        var config = EngineConfig.alphaBeta("a", 2, 100, weights);
+        assertEquals(EngineConfig.alphaBeta("a", 2, 100, WEIGHTS), config);
+        assertEquals(EngineConfig.alphaBeta("a", 2, 100, WEIGHTS).hashCode(), config.hashCode());
+        weights[0]++;
+        config.weights()[1]++;
+        assertArrayEquals(WEIGHTS, config.weights());
+        assertNotEquals(EngineConfig.alphaBeta("a", 2, 100, weights), config);
+    }
+}
@@ -0,0 +1,50 @@
+package game;
+
+import chasegame.analysis.Workload;
+import chasegame.engine.MctsPlayer;
+import chasegame.engine.RandomPlayer;
+import chasegame.engine.SearchBudget;
+import chasegame.engine.Seeds;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class WorkloadTest {
+
+    @Test
+    void testDerivedSeedsDependOnRootAndPath() {
+        assertEquals(Seeds.derive(1, 2, 3), Seeds.derive(1, 2, 3));
+        assertNotEquals(Seeds.derive(1, 2, 3), Seeds.derive(1, 3, 2));
+        assertNotEquals(Seeds.derive(1, 2), Seeds.derive(2, 2));
+        assertNotEquals(Seeds.derive(1), Seeds.derive(1, 0));
+        assertEquals(Seeds.random(5, 1).nextLong(), Seeds.random(5, 1).nextLong());
+    }
+
+    @Test
+    void testRecordedCorpusSurvivesTheFile(@TempDir Path directory) throws IOException, InterruptedException {
+        var workload = Workload.record(20, RandomPlayer::new, 48);
+        assertEquals(20, workload.getGameCount());
+        var file = directory.resolve("workload.bin");
+        workload.write(file);
+        var read = Workload.read(file);
+        assertEquals(workload.getPositionCount(), read.getPositionCount());
+        assertEquals(workload.replay(RandomPlayer::new, 1, 2).checksum(), read.replay(RandomPlayer::new, 1, 2).checksum());
+        var again = Workload.record(20, RandomPlayer::new, 48);
+        assertEquals(workload.replay(RandomPlayer::new, 1, 2).checksum(), again.replay(RandomPlayer::new, 1, 2).checksum());
+    }
+
+    @Test
+    void testReplayIsIdenticalWithAnyThreadCount() throws InterruptedException {
+        var workload = Workload.record(12, RandomPlayer::new, 7);
+        var single = workload.replay(seed -> new MctsPlayer(2, 20_000, SearchBudget.ofPlayouts(100), seed), 3, 1);
+        var parallel = workload.replay(seed -> new MctsPlayer(2, 20_000, SearchBudget.ofPlayouts(100), seed), 3, 4);
+        assertEquals(workload.getPositionCount(), single.positions());
+        assertEquals(single.checksum(), parallel.checksum());
+        var reseeded = workload.replay(seed -> new MctsPlayer(2, 20_000, SearchBudget.ofPlayouts(100), seed), 4, 4);
+        assertNotEquals(single.checksum(), reseeded.checksum());
+    }
+}